@@ -0,0 +1,64 @@
+package br.com.gubee.interview.benchmarks;
+
+import br.com.gubee.interview.model.HeroWithPowerStats;
+import br.com.gubee.interview.model.dto.HeroDTO;
+import br.com.gubee.interview.model.dto.ResumedHeroDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the response DTOs, one hero at a time and as the lists the search and list endpoints return:
+ * <pre>java -jar benchmarks/target/benchmarks.jar HeroDtoBenchmark -prof gc</pre>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class HeroDtoBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SingleHero {
+        private HeroWithPowerStats hero;
+
+        @Setup
+        public void setUp() {
+            hero = HeroFixtures.heroes(1).get(0);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Heroes {
+        @Param({"1000", "10000", "100000", "1000000"})
+        private int size;
+
+        private List<HeroWithPowerStats> heroes;
+
+        @Setup
+        public void setUp() {
+            heroes = HeroFixtures.heroes(size);
+        }
+    }
+
+    @Benchmark
+    public HeroDTO heroDTO(SingleHero state) {
+        return new HeroDTO(state.hero);
+    }
+
+    @Benchmark
+    public ResumedHeroDTO resumedHeroDTO(SingleHero state) {
+        return new ResumedHeroDTO(state.hero);
+    }
+
+    @Benchmark
+    public List<HeroDTO> heroDTOCollection(Heroes state) {
+        return HeroDTO.toCollectionDTO(state.heroes);
+    }
+
+    @Benchmark
+    public List<ResumedHeroDTO> resumedHeroDTOCollection(Heroes state) {
+        return ResumedHeroDTO.toCollectionDTO(state.heroes);
+    }
+}
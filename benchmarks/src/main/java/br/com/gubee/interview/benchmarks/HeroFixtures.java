@@ -0,0 +1,63 @@
+package br.com.gubee.interview.benchmarks;
+
+import br.com.gubee.interview.model.Hero;
+import br.com.gubee.interview.model.HeroWithPowerStats;
+import br.com.gubee.interview.model.PowerStats;
+import br.com.gubee.interview.model.enums.Race;
+import br.com.gubee.interview.model.request.CreateHeroRequest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Heroes shared by the benchmarks. The same size always gives the same heroes, so runs compare.
+ */
+final class HeroFixtures {
+    private static final long SEED = 42L;
+    private static final Race[] RACES = Race.values();
+
+    private HeroFixtures() {
+    }
+
+    static String name(int i) {
+        return String.format("Hero %07d", i);
+    }
+
+    static List<CreateHeroRequest> createHeroRequests(int size) {
+        Random random = new Random(SEED);
+        List<CreateHeroRequest> requests = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++)
+            requests.add(CreateHeroRequest.builder()
+                    .name(name(i))
+                    .race(RACES[i % RACES.length])
+                    .strength(random.nextInt(11))
+                    .agility(random.nextInt(11))
+                    .dexterity(random.nextInt(11))
+                    .intelligence(random.nextInt(11))
+                    .build());
+
+        return requests;
+    }
+
+    static List<HeroWithPowerStats> heroes(int size) {
+        Random random = new Random(SEED);
+        Instant now = Instant.now();
+        List<HeroWithPowerStats> heroes = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            UUID powerStatsId = new UUID(random.nextLong(), random.nextLong());
+            Hero hero = new Hero(new UUID(random.nextLong(), random.nextLong()), name(i), RACES[i % RACES.length],
+                    powerStatsId, now, now, true);
+            PowerStats powerStats = new PowerStats(powerStatsId, random.nextInt(11), random.nextInt(11),
+                    random.nextInt(11), random.nextInt(11), now, now);
+
+            heroes.add(new HeroWithPowerStats(hero, powerStats));
+        }
+
+        return heroes;
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.gubee.interview.benchmarks;
+
+import br.com.gubee.interview.model.dto.HeroDTO;
+import br.com.gubee.interview.model.dto.ResumedHeroDTO;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the list responses to JSON with the application's Jackson settings, into a stream that only
+ * counts bytes, so what is measured is the serialisation and not a growing buffer:
+ * <pre>java -jar benchmarks/target/benchmarks.jar HeroListSerializationBenchmark -prof gc</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class HeroListSerializationBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    private List<ResumedHeroDTO> resumedHeroes;
+    private List<HeroDTO> heroes;
+    private ObjectWriter writer;
+    private CountingOutputStream out;
+
+    @Setup
+    public void setUp() {
+        resumedHeroes = ResumedHeroDTO.toCollectionDTO(HeroFixtures.heroes(size));
+        heroes = HeroDTO.toCollectionDTO(HeroFixtures.heroes(size));
+
+        // Same serialization settings as the Spring Boot managed mapper of the application.
+        writer = new ObjectMapper()
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writer();
+        out = new CountingOutputStream();
+    }
+
+    /**
+     * The body of {@code GET /api/v1/heroes}.
+     */
+    @Benchmark
+    public long resumedHeroList() throws IOException {
+        writer.writeValue(out, resumedHeroes);
+        return out.count;
+    }
+
+    /**
+     * The body of {@code GET /api/v1/heroes/search/{heroName}}.
+     */
+    @Benchmark
+    public long heroList() throws IOException {
+        writer.writeValue(out, heroes);
+        return out.count;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+        /**
+         * Jackson closes the target after each value; the stream is reused.
+         */
+        @Override
+        public void close() {
+        }
+    }
+}
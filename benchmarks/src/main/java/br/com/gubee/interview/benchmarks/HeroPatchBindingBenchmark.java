@@ -0,0 +1,91 @@
+package br.com.gubee.interview.benchmarks;
+
+import br.com.gubee.interview.model.request.HeroPatchRequest;
+import br.com.gubee.interview.model.request.UpdateHeroRequest;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binding of a hero PATCH body: the former path, which read the body into a map and then went through a
+ * fresh {@link ObjectMapper} and reflection per member, against the single read into
+ * {@link HeroPatchRequest}. Run with the GC profiler to see the allocation per request:
+ * <pre>java -jar benchmarks/target/benchmarks.jar HeroPatchBindingBenchmark -prof gc</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeroPatchBindingBenchmark {
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    @Param({"{\"strength\": 9}",
+            "{\"name\": \"Rick Grimes\", \"race\": \"CYBORG\", \"strength\": 5, \"agility\": 5, \"dexterity\": 5, \"intelligence\": 5, \"enabled\": false}"})
+    private String body;
+
+    private byte[] bytes;
+    private ObjectMapper applicationMapper;
+    private ObjectReader mapReader;
+    private ObjectReader heroPatchReader;
+
+    @Setup
+    public void setUp() {
+        bytes = body.getBytes(StandardCharsets.UTF_8);
+
+        // Same deserialization settings as the Spring Boot managed mapper of the application.
+        applicationMapper = new ObjectMapper()
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        mapReader = applicationMapper.readerFor(MAP_TYPE);
+        heroPatchReader = applicationMapper.readerFor(HeroPatchRequest.class);
+    }
+
+    @Benchmark
+    public UpdateHeroRequest mapThenReflection() throws IOException {
+        return fieldsToDTO(mapReader.readValue(bytes));
+    }
+
+    @Benchmark
+    public UpdateHeroRequest heroPatchRequest() throws IOException {
+        HeroPatchRequest heroPatchRequest = heroPatchReader.readValue(bytes);
+        return heroPatchRequest.toUpdateHeroRequest();
+    }
+
+    /**
+     * The binding {@code HeroController} used before {@link HeroPatchRequest}, kept as the baseline.
+     */
+    private static UpdateHeroRequest fieldsToDTO(Map<String, Object> fields) {
+        ObjectMapper heroMapper = new ObjectMapper();
+        heroMapper.configure(DeserializationFeature.FAIL_ON_IGNORED_PROPERTIES,true);
+
+        UpdateHeroRequest heroDTOInput = heroMapper.convertValue(fields, UpdateHeroRequest.class);
+        UpdateHeroRequest updateHeroRequest = new UpdateHeroRequest();
+
+        fields.forEach((key, value) -> {
+            Field heroField = ReflectionUtils.findField(UpdateHeroRequest.class, key);
+            if (heroField != null)
+                heroField.setAccessible(true);
+
+            Object newValue = null;
+            if (heroField != null)
+                newValue = ReflectionUtils.getField(heroField, heroDTOInput);
+
+            if (heroField != null)
+                ReflectionUtils.setField(heroField,updateHeroRequest,newValue);
+        });
+
+        return updateHeroRequest;
+    }
+}
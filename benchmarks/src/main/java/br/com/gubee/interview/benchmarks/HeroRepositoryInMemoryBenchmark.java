@@ -0,0 +1,107 @@
+package br.com.gubee.interview.benchmarks;
+
+import br.com.gubee.interview.core.features.hero.impl.HeroRepositoryInMemoryImpl;
+import br.com.gubee.interview.core.features.powerstats.impl.PowerStatsRepositoryInMemoryImpl;
+import br.com.gubee.interview.model.Hero;
+import br.com.gubee.interview.model.HeroRanking;
+import br.com.gubee.interview.model.HeroWithPowerStats;
+import br.com.gubee.interview.model.enums.Race;
+import br.com.gubee.interview.model.request.CreateHeroRequest;
+import br.com.gubee.interview.model.request.UpdateHeroRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory repository behind the {@code in-memory} profile, filled with {@code size} heroes. Writes
+ * leave the catalogue as they found it, so every iteration sees the same size:
+ * <pre>java -jar benchmarks/target/benchmarks.jar HeroRepositoryInMemoryBenchmark -prof gc</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class HeroRepositoryInMemoryBenchmark {
+    private static final int SEARCH_LIMIT = 50;
+    private static final int PAGE_SIZE = 100;
+    private static final int LEADERBOARD_SIZE = 10;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    private HeroRepositoryInMemoryImpl heroRepository;
+    private UUID[] heroIds;
+    private String[] heroNames;
+
+    @Setup
+    public void setUp() {
+        heroRepository = new HeroRepositoryInMemoryImpl(new PowerStatsRepositoryInMemoryImpl());
+
+        List<CreateHeroRequest> requests = HeroFixtures.createHeroRequests(size);
+        heroRepository.createAllWithPowerStats(requests);
+
+        List<UUID> ids = new ArrayList<>(size);
+        List<String> names = new ArrayList<>(size);
+        heroRepository.streamAllWithPowerStats(null, hero -> {
+            ids.add(hero.getHero().getId());
+            names.add(hero.getHero().getName());
+        });
+        heroIds = ids.toArray(new UUID[0]);
+        heroNames = names.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public Optional<Hero> findById() {
+        return heroRepository.findById(heroIds[ThreadLocalRandom.current().nextInt(heroIds.length)]);
+    }
+
+    @Benchmark
+    public List<HeroWithPowerStats> findManyByNameWithPowerStats() {
+        String name = heroNames[ThreadLocalRandom.current().nextInt(heroNames.length)];
+        return heroRepository.findManyByNameWithPowerStats(name.substring(name.length() - 4), SEARCH_LIMIT);
+    }
+
+    @Benchmark
+    public List<HeroWithPowerStats> findPageWithPowerStats() {
+        return heroRepository.findPageWithPowerStats(null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<HeroWithPowerStats> findTopWithPowerStats() {
+        return heroRepository.findTopWithPowerStats(HeroRanking.TOTAL, LEADERBOARD_SIZE);
+    }
+
+    @Benchmark
+    public Optional<HeroWithPowerStats> updateWithPowerStats() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UpdateHeroRequest updateHeroRequest = UpdateHeroRequest.builder()
+                .strength(random.nextInt(11))
+                .build();
+
+        return heroRepository.updateWithPowerStats(heroIds[random.nextInt(heroIds.length)], updateHeroRequest);
+    }
+
+    /**
+     * A create followed by the delete of the same hero, as one operation.
+     */
+    @Benchmark
+    public Optional<UUID> createThenDeleteWithPowerStats() {
+        UUID heroId = heroRepository.createWithPowerStats(CreateHeroRequest.builder()
+                .name("Benchmark " + UUID.randomUUID())
+                .race(Race.HUMAN)
+                .strength(5)
+                .agility(5)
+                .dexterity(5)
+                .intelligence(5)
+                .build());
+
+        return heroRepository.deleteWithPowerStats(heroId);
+    }
+}
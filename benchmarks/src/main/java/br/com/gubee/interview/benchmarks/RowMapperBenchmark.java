@@ -0,0 +1,116 @@
+package br.com.gubee.interview.benchmarks;
+
+import br.com.gubee.interview.core.mapper.HeroRowMapper;
+import br.com.gubee.interview.core.mapper.PowerStatsRowMapper;
+import br.com.gubee.interview.model.Hero;
+import br.com.gubee.interview.model.HeroWithPowerStats;
+import br.com.gubee.interview.model.PowerStats;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps every row of a result set with {@link HeroRowMapper} and {@link PowerStatsRowMapper}. The rows
+ * are held by the JDK's {@link CachedRowSet}, so no database is needed; it looks columns up by label much
+ * like the Postgres driver does. Reported per result set, divide by {@code rows} for the cost per row:
+ * <pre>java -jar benchmarks/target/benchmarks.jar RowMapperBenchmark -prof gc</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RowMapperBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private final HeroRowMapper heroRowMapper = new HeroRowMapper();
+    private final PowerStatsRowMapper powerStatsRowMapper = new PowerStatsRowMapper();
+    private CachedRowSet heroRows;
+    private CachedRowSet powerStatsRows;
+
+    @Setup
+    public void setUp() throws SQLException {
+        List<HeroWithPowerStats> heroes = HeroFixtures.heroes(rows);
+
+        heroRows = rowSet("id", Types.OTHER, "name", Types.VARCHAR, "race", Types.VARCHAR,
+                "power_stats_id", Types.OTHER, "enabled", Types.BOOLEAN,
+                "created_at", Types.TIMESTAMP, "updated_at", Types.TIMESTAMP);
+        for (HeroWithPowerStats heroWithPowerStats : heroes) {
+            Hero hero = heroWithPowerStats.getHero();
+            insert(heroRows, hero.getId(), hero.getName(), hero.getRace().name(), hero.getPowerStatsId(),
+                    hero.isEnabled(), Timestamp.from(hero.getCreatedAt()), Timestamp.from(hero.getUpdatedAt()));
+        }
+
+        powerStatsRows = rowSet("id", Types.OTHER, "strength", Types.INTEGER, "agility", Types.INTEGER,
+                "dexterity", Types.INTEGER, "intelligence", Types.INTEGER,
+                "created_at", Types.TIMESTAMP, "updated_at", Types.TIMESTAMP);
+        for (HeroWithPowerStats heroWithPowerStats : heroes) {
+            PowerStats powerStats = heroWithPowerStats.getPowerStats();
+            insert(powerStatsRows, powerStats.getId(), powerStats.getStrength(), powerStats.getAgility(),
+                    powerStats.getDexterity(), powerStats.getIntelligence(),
+                    Timestamp.from(powerStats.getCreatedAt()), Timestamp.from(powerStats.getUpdatedAt()));
+        }
+    }
+
+    @Benchmark
+    public void heroRowMapper(Blackhole blackhole) throws SQLException {
+        heroRows.beforeFirst();
+        for (int rowNum = 0; heroRows.next(); rowNum++)
+            blackhole.consume(heroRowMapper.mapRow(heroRows, rowNum));
+    }
+
+    @Benchmark
+    public void powerStatsRowMapper(Blackhole blackhole) throws SQLException {
+        powerStatsRows.beforeFirst();
+        for (int rowNum = 0; powerStatsRows.next(); rowNum++)
+            blackhole.consume(powerStatsRowMapper.mapRow(powerStatsRows, rowNum));
+    }
+
+    /**
+     * Walking the rows without mapping them, the share of the above that belongs to the row set.
+     */
+    @Benchmark
+    public void rowSetBaseline(Blackhole blackhole) throws SQLException {
+        heroRows.beforeFirst();
+        while (heroRows.next())
+            blackhole.consume(heroRows.getObject(1));
+    }
+
+    /**
+     * Columns given as label and {@link Types} pairs.
+     */
+    private static CachedRowSet rowSet(Object... columns) throws SQLException {
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(columns.length / 2);
+
+        for (int column = 1; column <= columns.length / 2; column++) {
+            metaData.setColumnLabel(column, (String) columns[2 * (column - 1)]);
+            metaData.setColumnName(column, (String) columns[2 * (column - 1)]);
+            metaData.setColumnType(column, (Integer) columns[2 * (column - 1) + 1]);
+        }
+
+        CachedRowSet rowSet = RowSetProvider.newFactory().createCachedRowSet();
+        rowSet.setMetaData(metaData);
+        return rowSet;
+    }
+
+    private static void insert(ResultSet rowSet, Object... values) throws SQLException {
+        rowSet.moveToInsertRow();
+        for (int column = 1; column <= values.length; column++)
+            rowSet.updateObject(column, values[column - 1]);
+        rowSet.insertRow();
+        rowSet.moveToCurrentRow();
+    }
+}
@@ -0,0 +1,13 @@
+package br.com.gubee.interview.core.cache;
+
+import java.util.UUID;
+
+/**
+ * Local cache of the rows of one table, evicted when the {@link CacheInvalidationListener} hears that
+ * any node changed them.
+ */
+public interface CacheInvalidationHandler {
+    String table();
+    void evict(UUID id);
+    void evictAll();
+}
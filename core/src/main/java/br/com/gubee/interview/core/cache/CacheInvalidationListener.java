@@ -0,0 +1,150 @@
+package br.com.gubee.interview.core.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Listens on the {@code cache_invalidation} channel fed by the triggers on {@code hero} and
+ * {@code power_stats} and evicts the changed rows from the local caches.
+ * <p>
+ * LISTEN ties the session to one connection for good, so it opens its own through the driver instead of
+ * holding one of the pool. Notifications sent while it is disconnected are lost, which is why every
+ * (re)connection starts by flushing all caches.
+ */
+@Slf4j
+@Component
+@Profile("!in-memory")
+public class CacheInvalidationListener implements SmartLifecycle {
+    public static final String CHANNEL = "cache_invalidation";
+
+    private static final int POLL_TIMEOUT_MILLIS = 10_000;
+    private static final long MIN_RECONNECT_DELAY_MILLIS = 500;
+    private static final long MAX_RECONNECT_DELAY_MILLIS = 30_000;
+
+    private final Map<String, CacheInvalidationHandler> handlers;
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread thread;
+
+    public CacheInvalidationListener(List<CacheInvalidationHandler> handlers,
+                                     @Value("${jdbc.url}") String jdbcUrl,
+                                     @Value("${jdbc.username}") String username,
+                                     @Value("${jdbc.password}") String password) {
+        this.handlers = handlers.stream().collect(Collectors.toMap(CacheInvalidationHandler::table, Function.identity()));
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::listen, "cache-invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null)
+            thread.interrupt();
+        closeQuietly(connection);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        long reconnectDelay = MIN_RECONNECT_DELAY_MILLIS;
+
+        while (running) {
+            try (Connection listening = DriverManager.getConnection(jdbcUrl, username, password);
+                 Statement statement = listening.createStatement()) {
+                connection = listening;
+                statement.execute("LISTEN " + CHANNEL);
+                evictAll();
+                reconnectDelay = MIN_RECONNECT_DELAY_MILLIS;
+
+                PGConnection pgConnection = listening.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+
+                    if (notifications == null || notifications.length == 0)
+                        statement.execute("SELECT 1");
+                    else
+                        for (PGNotification notification : notifications)
+                            evict(notification.getParameter());
+                }
+            } catch (SQLException e) {
+                if (!running)
+                    return;
+
+                log.warn("Cache invalidation listener disconnected, reconnecting in {} ms, message={}",
+                        reconnectDelay, e.getMessage());
+                evictAll();
+
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                reconnectDelay = Math.min(reconnectDelay * 2, MAX_RECONNECT_DELAY_MILLIS);
+            }
+        }
+    }
+
+    /**
+     * The payload is {@code <table>:<id>}; tables without a local cache are ignored.
+     */
+    void evict(String payload) {
+        int separator = payload.indexOf(':');
+        CacheInvalidationHandler handler = separator < 0 ? null : handlers.get(payload.substring(0, separator));
+
+        if (handler == null)
+            return;
+
+        try {
+            handler.evict(UUID.fromString(payload.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            log.warn("Unexpected cache invalidation payload={}", payload);
+            handler.evictAll();
+        }
+    }
+
+    private void evictAll() {
+        handlers.values().forEach(CacheInvalidationHandler::evictAll);
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null)
+            return;
+
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Failed to close the cache invalidation connection, message={}", e.getMessage());
+        }
+    }
+}
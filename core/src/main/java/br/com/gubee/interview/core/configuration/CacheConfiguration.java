@@ -0,0 +1,33 @@
+package br.com.gubee.interview.core.configuration;
+
+import br.com.gubee.interview.model.PowerStats;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Configuration
+public class CacheConfiguration {
+
+    @Value("${power-stats.cache.maximum-size:10000}")
+    private long powerStatsMaximumSize;
+
+    @Value("${power-stats.cache.expire-after-write:10m}")
+    private Duration powerStatsExpireAfterWrite;
+
+    /**
+     * Size and TTL bounded, Caffeine evicts with W-TinyLFU so frequently read power stats stay cached.
+     */
+    @Bean
+    public AsyncCache<UUID, PowerStats> powerStatsCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(powerStatsMaximumSize)
+                .expireAfterWrite(powerStatsExpireAfterWrite)
+                .recordStats()
+                .buildAsync();
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.gubee.interview.core.configuration;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * Backs the application with the in-memory repositories, no database is needed. Start it with
+ * {@code --spring.profiles.active=in-memory}.
+ */
+@Configuration
+@Profile("in-memory")
+public class InMemoryConfiguration {
+
+    /**
+     * The in-memory storage is not transactional, this only lets {@code @Transactional} services run.
+     */
+    @Bean
+    public PlatformTransactionManager platformTransactionManager() {
+        return new AbstractPlatformTransactionManager() {
+            @Override
+            protected Object doGetTransaction() {
+                return new Object();
+            }
+
+            @Override
+            protected void doBegin(Object transaction, TransactionDefinition definition) {
+            }
+
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+            }
+
+            @Override
+            protected void doRollback(DefaultTransactionStatus status) {
+            }
+        };
+    }
+}
@@ -4,6 +4,7 @@ import com.zaxxer.hikari.HikariDataSource;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -12,6 +13,7 @@ import javax.sql.DataSource;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
+@Profile("!in-memory")
 public class JdbcConfiguration {
 
     @Value("${jdbc.url}")
@@ -31,6 +33,7 @@ public class JdbcConfiguration {
 
         HikariDataSource dataSource = new HikariDataSource();
 
+        dataSource.setPoolName("interview-pool");
         dataSource.setDriverClassName(org.postgresql.Driver.class.getName());
         dataSource.setJdbcUrl(jdbcUrl);
         dataSource.setUsername(username);
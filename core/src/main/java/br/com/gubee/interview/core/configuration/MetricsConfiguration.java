@@ -0,0 +1,32 @@
+package br.com.gubee.interview.core.configuration;
+
+import br.com.gubee.interview.core.metrics.RepositoryMetricsPostProcessor;
+import br.com.gubee.interview.model.PowerStats;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.UUID;
+
+/**
+ * Metrics on top of what Actuator records, the request latency per endpoint as {@code http.server.requests}
+ * and the {@code hikaricp.connections.*} meters of the {@link JdbcConfiguration} pool, all scraped from
+ * {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    public static RepositoryMetricsPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RepositoryMetricsPostProcessor(meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder powerStatsCacheMetrics(AsyncCache<UUID, PowerStats> powerStatsCache) {
+        return meterRegistry -> CaffeineCacheMetrics.monitor(meterRegistry, powerStatsCache, "power-stats");
+    }
+}
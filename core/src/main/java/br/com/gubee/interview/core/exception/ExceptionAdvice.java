@@ -1,12 +1,15 @@
 package br.com.gubee.interview.core.exception;
 
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.TypeMismatchException;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.util.StringUtils;
+import org.springframework.validation.BindException;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -39,7 +42,7 @@ public class ExceptionAdvice {
         return status(BAD_REQUEST).body(e.getMessage());
     }
 
-    @ExceptionHandler(value = {InvalidFormatException.class, HttpMessageNotReadableException.class})
+    @ExceptionHandler(value = {InvalidFormatException.class, HttpMessageNotReadableException.class, RuntimeJsonMappingException.class})
     ResponseEntity<Object> handleInvalidFormatException(Exception e) {
         log.warn(e.getMessage());
         return status(BAD_REQUEST).body("message.malformed-request");
@@ -58,6 +61,18 @@ public class ExceptionAdvice {
         return status(BAD_REQUEST).body(errors);
     }
 
+    /**
+     * Query parameters bound to an object: type mismatches surface as a malformed request, the
+     * remaining errors carry their validation message.
+     */
+    @ExceptionHandler(BindException.class)
+    ResponseEntity<Object> handleBindException(BindException e) {
+        final List<String> errors = e.getBindingResult().getAllErrors().stream()
+            .map(error -> error.contains(TypeMismatchException.class) ? "message.malformed-request" : error.getDefaultMessage())
+            .collect(Collectors.toList());
+        return status(BAD_REQUEST).body(errors);
+    }
+
     @ExceptionHandler(IllegalStateException.class)
     ResponseEntity<Object> handleIllegalStateException(IllegalStateException e) {
         log.warn(e.getMessage());
@@ -0,0 +1,68 @@
+package br.com.gubee.interview.core.features.hero;
+
+import br.com.gubee.interview.model.dto.CreatedHeroResultDTO;
+import br.com.gubee.interview.model.request.CreateHeroRequest;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+@RestController
+@RequestMapping(value = "/api/v1/heroes/batch", produces = APPLICATION_JSON_VALUE)
+public class HeroBatchController {
+    private final HeroBatchService heroBatchService;
+    private final ObjectMapper objectMapper;
+
+    public HeroBatchController(HeroBatchService heroBatchService, ObjectMapper objectMapper) {
+        this.heroBatchService = heroBatchService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping(consumes = APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public List<CreatedHeroResultDTO> create(@RequestBody List<CreateHeroRequest> createHeroRequests) {
+        return heroBatchService.createAll(createHeroRequests.iterator());
+    }
+
+    /**
+     * Same as {@link #create(List)} but reads one request per line while inserting, so the payload
+     * never has to be held in memory at once. A line that does not map to a request is rejected on its
+     * own, like a null item of the JSON array, and reading goes on with the next line.
+     */
+    @PostMapping(consumes = APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public List<CreatedHeroResultDTO> createFromStream(HttpServletRequest request) throws IOException {
+        try (MappingIterator<CreateHeroRequest> createHeroRequests = objectMapper
+                .readerFor(CreateHeroRequest.class)
+                .readValues(request.getInputStream())) {
+            return heroBatchService.createAll(rejectingMalformed(createHeroRequests));
+        }
+    }
+
+    private static Iterator<CreateHeroRequest> rejectingMalformed(MappingIterator<CreateHeroRequest> createHeroRequests) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return createHeroRequests.hasNext();
+            }
+
+            @Override
+            public CreateHeroRequest next() {
+                try {
+                    return createHeroRequests.next();
+                } catch (RuntimeJsonMappingException e) {
+                    return null;
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.gubee.interview.core.features.hero;
+
+import br.com.gubee.interview.model.dto.CreatedHeroResultDTO;
+import br.com.gubee.interview.model.request.CreateHeroRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class HeroBatchService {
+    static final int CHUNK_SIZE = 500;
+    static final String DUPLICATED_NAME = "message.name.duplicated";
+
+    private final HeroRepository heroRepository;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Creates the heroes in chunks of {@value #CHUNK_SIZE}, each chunk in its own transaction. Invalid
+     * items and duplicated names are reported back by position instead of failing the whole batch.
+     */
+    public List<CreatedHeroResultDTO> createAll(Iterator<CreateHeroRequest> createHeroRequests) {
+        List<CreatedHeroResultDTO> results = new ArrayList<>();
+        Map<Integer, CreateHeroRequest> chunk = new LinkedHashMap<>();
+        Set<String> chunkNames = new HashSet<>();
+        int index = 0;
+
+        while (createHeroRequests.hasNext()) {
+            CreateHeroRequest createHeroRequest = createHeroRequests.next();
+            List<String> errors = validate(createHeroRequest);
+
+            if (!errors.isEmpty())
+                results.add(CreatedHeroResultDTO.rejected(index, errors));
+            else if (!chunkNames.add(createHeroRequest.getName()))
+                results.add(CreatedHeroResultDTO.rejected(index, List.of(DUPLICATED_NAME)));
+            else
+                chunk.put(index, createHeroRequest);
+
+            index++;
+
+            if (chunk.size() == CHUNK_SIZE) {
+                results.addAll(createChunk(chunk));
+                chunk.clear();
+                chunkNames.clear();
+            }
+        }
+
+        if (!chunk.isEmpty())
+            results.addAll(createChunk(chunk));
+
+        results.sort(Comparator.comparingInt(CreatedHeroResultDTO::getIndex));
+        return results;
+    }
+
+    private List<CreatedHeroResultDTO> createChunk(Map<Integer, CreateHeroRequest> chunk) {
+        Map<String, UUID> createdHeroes = transactionTemplate.execute(
+                status -> heroRepository.createAllWithPowerStats(new ArrayList<>(chunk.values())));
+
+        List<CreatedHeroResultDTO> results = new ArrayList<>(chunk.size());
+        chunk.forEach((index, createHeroRequest) -> {
+            UUID id = createdHeroes == null ? null : createdHeroes.get(createHeroRequest.getName());
+            results.add(id != null
+                    ? CreatedHeroResultDTO.created(index, id)
+                    : CreatedHeroResultDTO.rejected(index, List.of(DUPLICATED_NAME)));
+        });
+
+        return results;
+    }
+
+    private List<String> validate(CreateHeroRequest createHeroRequest) {
+        if (createHeroRequest == null)
+            return List.of("message.malformed-request");
+
+        return validator.validate(createHeroRequest).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+}
@@ -1,38 +1,56 @@
 package br.com.gubee.interview.core.features.hero;
 
-import br.com.gubee.interview.core.features.powerstats.PowerStatsService;
-import br.com.gubee.interview.model.Hero;
-import br.com.gubee.interview.model.PowerStats;
+import br.com.gubee.interview.model.HeroCursor;
+import br.com.gubee.interview.model.HeroFilter;
+import br.com.gubee.interview.model.HeroPage;
+import br.com.gubee.interview.model.HeroRanking;
+import br.com.gubee.interview.model.HeroVersion;
+import br.com.gubee.interview.model.HeroWithPowerStats;
 import br.com.gubee.interview.model.dto.ComparedHeroDTO;
+import br.com.gubee.interview.model.dto.ComparedHeroesResultDTO;
 import br.com.gubee.interview.model.dto.HeroDTO;
+import br.com.gubee.interview.model.dto.HeroStatsDTO;
+import br.com.gubee.interview.model.dto.RankedHeroDTO;
 import br.com.gubee.interview.model.dto.ResumedHeroDTO;
+import br.com.gubee.interview.model.dto.WriteStatsDTO;
+import br.com.gubee.interview.model.request.CompareHeroesRequest;
 import br.com.gubee.interview.model.request.CreateHeroRequest;
+import br.com.gubee.interview.model.request.HeroFilterRequest;
+import br.com.gubee.interview.model.request.HeroPatchRequest;
 import br.com.gubee.interview.model.request.UpdateHeroRequest;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.util.ReflectionUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.lang.reflect.Field;
 import java.net.URI;
 import java.util.*;
 
 import static java.lang.String.format;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 import static org.springframework.http.ResponseEntity.created;
 
 @RestController
 @RequestMapping(value = "/api/v1/heroes", produces = APPLICATION_JSON_VALUE)
 public class HeroController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int DEFAULT_LEADERBOARD_SIZE = 10;
+    private static final String APPLICATION_MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     private final HeroService heroService;
-    private final PowerStatsService powerStatsService;
+    private final ObjectMapper objectMapper;
 
-    public HeroController(HeroService heroService, PowerStatsService powerStatsService) {
+    public HeroController(HeroService heroService, ObjectMapper objectMapper) {
         this.heroService = heroService;
-        this.powerStatsService = powerStatsService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping(consumes = APPLICATION_JSON_VALUE)
@@ -42,120 +60,175 @@ public class HeroController {
         return created(URI.create(format("/api/v1/heroes/%s", id))).build();
     }
 
+    /**
+     * Answers with a strong ETag. A client revalidating with {@code If-None-Match} is checked against
+     * the version timestamps only, so an unchanged hero costs one narrow lookup and a 304.
+     */
     @GetMapping(value = "/{heroId}", produces = APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> getById(@PathVariable UUID heroId) {
-        Optional<Hero> heroOptional = heroService.findById(heroId);
+    public ResponseEntity<?> getById(@PathVariable UUID heroId, WebRequest webRequest) {
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<HeroVersion> version = heroService.findVersionById(heroId);
+
+            if (version.isEmpty())
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+
+            if (webRequest.checkNotModified(version.get().toETag()))
+                return null;
+        }
+
+        Optional<HeroWithPowerStats> heroOptional = heroService.findByIdWithPowerStats(heroId);
 
         if (heroOptional.isEmpty())
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
 
-        PowerStats powerStats = powerStatsService.findById(heroOptional.get().getPowerStatsId());
-
-        return ResponseEntity.ok(new HeroDTO(heroOptional.get(),powerStats));
+        return ResponseEntity.ok()
+                .eTag(HeroVersion.of(heroOptional.get()).toETag())
+                .body(new HeroDTO(heroOptional.get()));
     }
 
+    /**
+     * Heroes whose name contains the search, most similar first.
+     */
     @GetMapping(value = "/search/{heroName}", produces = APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.OK)
-    public List<HeroDTO> findManyByName(@PathVariable String heroName) {
-        var heroesList = heroService.findManyByName(heroName);
-        List<PowerStats> powerStatsList = new ArrayList<>();
+    public List<HeroDTO> findManyByName(@PathVariable String heroName,
+                                        @RequestParam(required = false) Integer limit) {
+        int searchLimit = resolveLimit(limit, HeroService.DEFAULT_SEARCH_LIMIT);
+        return HeroDTO.toCollectionDTO(heroService.findManyByNameWithPowerStats(heroName, searchLimit));
+    }
+
+    /**
+     * Pages through the heroes by name, optionally narrowed by race and stat ranges such as
+     * {@code ?race=ALIEN&strengthMin=7&agilityMax=3}.
+     */
+    @GetMapping(produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ResumedHeroDTO>> list(@RequestParam(required = false) Integer limit,
+                                                     @RequestParam(required = false) String after,
+                                                     @Validated HeroFilterRequest filter,
+                                                     WebRequest webRequest)  {
+        int pageSize = resolveLimit(limit, DEFAULT_PAGE_SIZE);
+        HeroPage page = heroService.findPage(HeroFilter.of(filter), after == null ? null : HeroCursor.decode(after), pageSize);
+
+        String eTag = HeroVersion.toETag(page.getHeroes());
+        if (webRequest.checkNotModified(eTag))
+            return null;
 
-        heroesList.forEach(hero -> {
-            powerStatsList.add(powerStatsService.findById(hero.getPowerStatsId()));
-        });
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag);
+        page.getNext().ifPresent(next -> response.header(HttpHeaders.LINK, nextPageLink(next, pageSize)));
 
-        return HeroDTO.toCollectionDTO(heroesList, powerStatsList);
+        return response.body(ResumedHeroDTO.toCollectionDTO(page.getHeroes()));
     }
 
-    @GetMapping(produces = APPLICATION_JSON_VALUE)
+    /**
+     * Streams the whole catalogue as NDJSON ordered by id. An interrupted export resumes by passing
+     * the id of the last hero received as {@code after}.
+     */
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) UUID after) {
+        StreamingResponseBody body = outputStream -> {
+            HeroExportWriter writer = new HeroExportWriter(objectMapper, outputStream);
+            heroService.export(after, writer);
+            writer.finish();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping(value = "/leaderboard", produces = APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.OK)
-    public List<ResumedHeroDTO> list()  {
-        List<Hero> heroesList = heroService.findAll();
-        List<PowerStats> powerStatsList = new ArrayList<>();
+    public List<RankedHeroDTO> leaderboard(@RequestParam(defaultValue = "total") String by,
+                                           @RequestParam(required = false) Integer k) {
+        return heroService.leaderboard(HeroRanking.of(by), resolveLimit(k, DEFAULT_LEADERBOARD_SIZE));
+    }
 
-        heroesList.forEach(hero -> {
-            powerStatsList.add(powerStatsService.findById(hero.getPowerStatsId()));
-        });
+    /**
+     * Per-race counts, means and histograms of every stat; with {@code heroId}, also the percentile rank
+     * of that hero's stats within its race.
+     */
+    @GetMapping(value = "/stats", produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<HeroStatsDTO> stats(@RequestParam(required = false) UUID heroId) {
+        if (heroId == null)
+            return ResponseEntity.ok(heroService.stats());
+
+        return heroService.stats(heroId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
 
-        return ResumedHeroDTO.toCollectionDTO(heroesList,powerStatsList);
+    /**
+     * Row updates written against those skipped because the patch changed nothing, counted by the
+     * Postgres repositories.
+     */
+    @GetMapping(value = "/write-stats", produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public WriteStatsDTO writeStats() {
+        return heroService.writeStats();
     }
 
     @GetMapping(value = "/compare",produces = APPLICATION_JSON_VALUE)
     public ResponseEntity<?> compare(@RequestParam String hero1Name, @RequestParam String hero2Name)  {
-        Optional<Hero> optionalHero1 = heroService.findByName(hero1Name);
-        Optional<Hero> optionalHero2 = heroService.findByName(hero2Name);
+        Optional<List<ComparedHeroDTO>> comparedHeroes = heroService.compare(hero1Name, hero2Name);
 
-        if (optionalHero1.isEmpty() || optionalHero2.isEmpty())
+        if (comparedHeroes.isEmpty())
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
 
-        List<ComparedHeroDTO> comparedHeroes = getComparedHeroes(optionalHero1.get(), optionalHero2.get());
+        return ResponseEntity.ok(comparedHeroes.get());
+    }
 
-        return ResponseEntity.ok(comparedHeroes);
+    /**
+     * Compares many pairs at once. Each pair gets its own result, unknown names are reported on the pair
+     * instead of failing the whole batch.
+     */
+    @PostMapping(value = "/compare/batch", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public List<ComparedHeroesResultDTO> compareAll(@RequestBody List<CompareHeroesRequest> compareHeroesRequests) {
+        return heroService.compareAll(compareHeroesRequests);
     }
 
-    @PatchMapping(value = "/{heroId}", produces = APPLICATION_JSON_VALUE)
+    /**
+     * Applies a JSON Merge Patch. The body is read once by the application mapper straight into a
+     * {@link HeroPatchRequest}, and the hero and its power stats are written in a single round-trip
+     * whose result is the response body.
+     */
+    @PatchMapping(value = "/{heroId}", produces = APPLICATION_JSON_VALUE,
+            consumes = {APPLICATION_JSON_VALUE, APPLICATION_MERGE_PATCH_JSON_VALUE})
     //@Transactional
-    public ResponseEntity<?> update(@PathVariable UUID heroId, @RequestBody Map<String,Object> fields) {
-        Optional<Hero> heroOptional = heroService.findById(heroId);
+    public ResponseEntity<?> update(@PathVariable UUID heroId, @Validated @RequestBody HeroPatchRequest heroPatchRequest) {
+        Optional<HeroWithPowerStats> updated = heroService.update(heroId, heroPatchRequest.toUpdateHeroRequest());
 
-        if (heroOptional.isEmpty())
+        if (updated.isEmpty())
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
 
-        UpdateHeroRequest updateHeroRequest = fieldsToDTO(fields);
-        heroService.update(heroOptional.get(), updateHeroRequest);
-
-        PowerStats powerStats = powerStatsService.findById(heroOptional.get().getPowerStatsId());
-
-        return ResponseEntity.status(HttpStatus.OK).body(new HeroDTO(heroOptional.get(),powerStats));
+        return ResponseEntity.status(HttpStatus.OK).body(new HeroDTO(updated.get()));
     }
 
     @DeleteMapping("/{heroId}")
     //@Transactional
     public ResponseEntity<Void> deleteById(@PathVariable UUID heroId) {
-        Optional<Hero> optionalHero = heroService.findById(heroId);
-
-        if (optionalHero.isEmpty())
+        if (!heroService.deleteById(heroId))
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
 
-        heroService.delete(optionalHero.get());
-
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
 
-    private List<ComparedHeroDTO> getComparedHeroes(Hero hero1, Hero hero2) {
-        PowerStats powerStats1 = powerStatsService.findById(hero1.getPowerStatsId());
-        HeroDTO heroToCompare1 = new HeroDTO(hero1, powerStats1);
-        PowerStats powerStats2 = powerStatsService.findById(hero2.getPowerStatsId());
-        HeroDTO heroToCompare2 = new HeroDTO(hero2,powerStats2);
+    private int resolveLimit(Integer limit, int defaultLimit) {
+        if (limit == null)
+            return defaultLimit;
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException(format("message.limit.range: 1..%d", MAX_PAGE_SIZE));
 
-        return Arrays.asList(
-                new ComparedHeroDTO(heroToCompare1, heroToCompare2),
-                new ComparedHeroDTO(heroToCompare2, heroToCompare1)
-        );
+        return limit;
     }
 
+    private String nextPageLink(HeroCursor next, int pageSize) {
+        String uri = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("limit", pageSize)
+                .replaceQueryParam("after", next.encode())
+                .build()
+                .toUriString();
 
-    private UpdateHeroRequest fieldsToDTO(Map<String, Object> fields) {
-        ObjectMapper heroMapper = new ObjectMapper();
-        heroMapper.configure(DeserializationFeature.FAIL_ON_IGNORED_PROPERTIES,true);
-        //heroMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES,true);
-
-        UpdateHeroRequest heroDTOInput = heroMapper.convertValue(fields, UpdateHeroRequest.class);
-        UpdateHeroRequest updateHeroRequest = new UpdateHeroRequest();
-
-        fields.forEach((key, value) -> {
-            Field heroField = ReflectionUtils.findField(UpdateHeroRequest.class, key);
-            if (heroField != null)
-                heroField.setAccessible(true);
-
-            Object newValue = null;
-            if (heroField != null)
-                newValue = ReflectionUtils.getField(heroField, heroDTOInput);
-
-            if (heroField != null)
-                ReflectionUtils.setField(heroField,updateHeroRequest,newValue);
-        });
-
-        return updateHeroRequest;
+        return format("<%s>; rel=\"next\"", uri);
     }
 }
@@ -0,0 +1,51 @@
+package br.com.gubee.interview.core.features.hero;
+
+import br.com.gubee.interview.model.HeroWithPowerStats;
+import br.com.gubee.interview.model.dto.HeroDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes heroes as newline-delimited JSON straight to the response stream, one {@link HeroDTO} per line.
+ * The first line is flushed right away and the rest in batches, so clients start reading immediately
+ * without paying a flush per row.
+ */
+class HeroExportWriter implements Consumer<HeroWithPowerStats> {
+    private static final int FLUSH_EVERY = 200;
+
+    private final JsonGenerator generator;
+    private final ObjectWriter heroWriter;
+    private long written;
+
+    HeroExportWriter(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(outputStream);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(null);
+        this.heroWriter = objectMapper.writerFor(HeroDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    public void accept(HeroWithPowerStats heroWithPowerStats) {
+        try {
+            heroWriter.writeValue(generator, new HeroDTO(heroWithPowerStats));
+            generator.writeRaw('\n');
+
+            if (++written % FLUSH_EVERY == 1)
+                generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void finish() throws IOException {
+        generator.flush();
+    }
+}
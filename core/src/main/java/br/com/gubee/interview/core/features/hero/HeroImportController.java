@@ -0,0 +1,38 @@
+package br.com.gubee.interview.core.features.hero;
+
+import br.com.gubee.interview.model.dto.HeroImportResultDTO;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+@RestController
+@Profile("!in-memory")
+@RequestMapping(value = "/api/v1/heroes/import", produces = APPLICATION_JSON_VALUE)
+public class HeroImportController {
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final HeroImportService heroImportService;
+
+    public HeroImportController(HeroImportService heroImportService) {
+        this.heroImportService = heroImportService;
+    }
+
+    @PostMapping(consumes = TEXT_CSV_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public HeroImportResultDTO importCsv(HttpServletRequest request) throws IOException {
+        Charset charset = request.getCharacterEncoding() == null ? UTF_8 : Charset.forName(request.getCharacterEncoding());
+
+        try (Reader csv = new InputStreamReader(request.getInputStream(), charset)) {
+            return heroImportService.importCsv(csv);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.gubee.interview.core.features.hero;
+
+import br.com.gubee.interview.model.dto.RejectedHeroRowDTO;
+import org.springframework.stereotype.Repository;
+
+import java.io.Reader;
+import java.util.List;
+
+/**
+ * Staging area for bulk imports. Every method must run inside the same transaction, the staged rows
+ * are dropped when it ends.
+ */
+@Repository
+public interface HeroImportRepository {
+    long stage(Reader csv);
+    void rejectInvalidRows();
+    void mergeAcceptedRows();
+    long countRejectedRows();
+    List<RejectedHeroRowDTO> findRejectedRows(int limit);
+}
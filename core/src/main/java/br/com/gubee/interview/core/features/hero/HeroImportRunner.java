@@ -0,0 +1,52 @@
+package br.com.gubee.interview.core.features.hero;
+
+import br.com.gubee.interview.model.dto.HeroImportResultDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Command-line mode: {@code java -jar gubee-interview.jar --import=heroes.csv} imports the file and exits.
+ */
+@Slf4j
+@Component
+@Profile("!in-memory")
+@RequiredArgsConstructor
+@ConditionalOnProperty(HeroImportRunner.IMPORT_OPTION)
+public class HeroImportRunner implements ApplicationRunner {
+    public static final String IMPORT_OPTION = "import";
+
+    private final HeroImportService heroImportService;
+
+    public static boolean isImport(String... args) {
+        return Arrays.stream(args).anyMatch(arg -> arg.startsWith("--" + IMPORT_OPTION + "="));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        for (String file : args.getOptionValues(IMPORT_OPTION)) {
+            HeroImportResultDTO result;
+
+            try (Reader csv = Files.newBufferedReader(Path.of(file), UTF_8)) {
+                result = heroImportService.importCsv(csv);
+            }
+
+            log.info("Imported file={}, read={}, imported={}, rejected={}",
+                    file, result.getRead(), result.getImported(), result.getRejected());
+            result.getRejectedRows().forEach(row ->
+                    log.warn("Rejected row={}, name={}, reason={}", row.getRow(), row.getName(), row.getReason()));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.gubee.interview.core.features.hero;
+
+import br.com.gubee.interview.model.dto.HeroImportResultDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.Reader;
+
+@Service
+@Profile("!in-memory")
+@RequiredArgsConstructor
+public class HeroImportService {
+    static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    private final HeroImportRepository heroImportRepository;
+
+    /**
+     * Loads a CSV with the header {@code name,race,strength,agility,dexterity,intelligence} through
+     * COPY and merges it with set-based statements. Only the first {@value #MAX_REPORTED_REJECTIONS}
+     * rejected rows are listed, the total is always reported.
+     */
+    @Transactional
+    public HeroImportResultDTO importCsv(Reader csv) {
+        long read = heroImportRepository.stage(csv);
+        heroImportRepository.rejectInvalidRows();
+        heroImportRepository.mergeAcceptedRows();
+
+        long rejected = heroImportRepository.countRejectedRows();
+        return new HeroImportResultDTO(
+                read,
+                read - rejected,
+                rejected,
+                heroImportRepository.findRejectedRows(MAX_REPORTED_REJECTIONS));
+    }
+}
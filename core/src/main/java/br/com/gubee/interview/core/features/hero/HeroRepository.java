@@ -1,19 +1,39 @@
 package br.com.gubee.interview.core.features.hero;
 
 import br.com.gubee.interview.model.Hero;
+import br.com.gubee.interview.model.HeroCursor;
+import br.com.gubee.interview.model.HeroFilter;
+import br.com.gubee.interview.model.HeroRanking;
+import br.com.gubee.interview.model.HeroVersion;
+import br.com.gubee.interview.model.HeroWithPowerStats;
+import br.com.gubee.interview.model.RaceHistogram;
+import br.com.gubee.interview.model.request.CreateHeroRequest;
 import br.com.gubee.interview.model.request.UpdateHeroRequest;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 @Repository
 public interface HeroRepository {
-    UUID create(Hero hero);
+    UUID createWithPowerStats(CreateHeroRequest createHeroRequest);
+    Map<String, UUID> createAllWithPowerStats(List<CreateHeroRequest> createHeroRequests);
     Optional<Hero> findById(UUID uuid);
-    List<Hero> findManyByName(String heroName);
+    Optional<HeroWithPowerStats> findByIdWithPowerStats(UUID uuid);
+    Optional<HeroVersion> findVersionById(UUID uuid);
+    List<Hero> findManyByName(String heroName, int limit);
     Optional<Hero> findByName(String heroName);
     List<Hero> findAll();
-    void update(Hero hero, UpdateHeroRequest updateHeroRequest);
-    void delete(Hero hero);
+    List<HeroWithPowerStats> findPageWithPowerStats(HeroCursor after, int limit);
+    List<HeroWithPowerStats> findFilteredPageWithPowerStats(HeroFilter filter, HeroCursor after, int limit);
+    List<HeroWithPowerStats> findManyByNameWithPowerStats(String heroName, int limit);
+    void streamAllWithPowerStats(UUID after, Consumer<HeroWithPowerStats> consumer);
+    List<HeroWithPowerStats> findAllByNamesWithPowerStats(Collection<String> heroNames);
+    List<HeroWithPowerStats> findTopWithPowerStats(HeroRanking ranking, int limit);
+    List<RaceHistogram> findRaceHistograms();
+    Optional<HeroWithPowerStats> updateWithPowerStats(UUID uuid, UpdateHeroRequest updateHeroRequest);
+    Optional<UUID> deleteWithPowerStats(UUID uuid);
 }
@@ -1,36 +1,64 @@
 package br.com.gubee.interview.core.features.hero;
 
 import br.com.gubee.interview.core.features.powerstats.PowerStatsService;
+import br.com.gubee.interview.core.jdbc.WriteCounters;
 import br.com.gubee.interview.model.Hero;
+import br.com.gubee.interview.model.HeroCursor;
+import br.com.gubee.interview.model.HeroFilter;
+import br.com.gubee.interview.model.HeroPage;
+import br.com.gubee.interview.model.HeroRanking;
+import br.com.gubee.interview.model.HeroVersion;
+import br.com.gubee.interview.model.HeroWithPowerStats;
 import br.com.gubee.interview.model.PowerStats;
+import br.com.gubee.interview.model.RaceHistogram;
+import br.com.gubee.interview.model.dto.ComparedHeroDTO;
+import br.com.gubee.interview.model.dto.ComparedHeroesResultDTO;
+import br.com.gubee.interview.model.dto.HeroStatsDTO;
+import br.com.gubee.interview.model.dto.RankedHeroDTO;
+import br.com.gubee.interview.model.dto.RaceStatsDTO;
+import br.com.gubee.interview.model.dto.WriteStatsDTO;
+import br.com.gubee.interview.model.request.CompareHeroesRequest;
 import br.com.gubee.interview.model.request.CreateHeroRequest;
 import br.com.gubee.interview.model.request.UpdateHeroRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
 
 @Service
 @RequiredArgsConstructor
 public class HeroService {
+    public static final int DEFAULT_SEARCH_LIMIT = 50;
+    public static final int MAX_COMPARE_BATCH_SIZE = 1000;
+    public static final String HERO_NOT_FOUND = "message.hero.not-found";
+
     private final HeroRepository heroRepository;
     private final PowerStatsService powerStatsService;
+    private final WriteCounters writeCounters;
 
-    @Transactional
     public UUID create(CreateHeroRequest createHeroRequest) {
-        UUID uuid = powerStatsService.create(new PowerStats(createHeroRequest));
-        return heroRepository.create(new Hero(createHeroRequest,uuid));
+        return heroRepository.createWithPowerStats(createHeroRequest);
     }
 
     public Optional<Hero> findById(UUID uuid) {
         return heroRepository.findById(uuid);
     }
 
-    public List<Hero> findManyByName(String heroName) {
-        return heroRepository.findManyByName(heroName);
+    public Optional<HeroWithPowerStats> findByIdWithPowerStats(UUID uuid) {
+        return heroRepository.findByIdWithPowerStats(uuid);
+    }
+
+    public Optional<HeroVersion> findVersionById(UUID uuid) {
+        return heroRepository.findVersionById(uuid);
+    }
+
+    public List<Hero> findManyByName(String heroName, int limit) {
+        return heroRepository.findManyByName(heroName, limit);
     }
 
     public Optional<Hero> findByName(String heroName) {
@@ -40,14 +68,189 @@ public class HeroService {
         return heroRepository.findAll();
     }
 
-    public void update(Hero hero, UpdateHeroRequest updateHeroRequest) {
-        heroRepository.update(hero,updateHeroRequest);
-        powerStatsService.update(hero.getPowerStatsId(),updateHeroRequest);
+    /**
+     * Fetches one more hero than requested so the next cursor is only handed out when another page exists.
+     */
+    public HeroPage findPage(HeroCursor after, int limit) {
+        return toPage(heroRepository.findPageWithPowerStats(after, limit + 1), limit);
+    }
+
+    /**
+     * Same as {@link #findPage(HeroCursor, int)} but only over the heroes matching the filter.
+     */
+    public HeroPage findPage(HeroFilter filter, HeroCursor after, int limit) {
+        if (filter.isEmpty())
+            return findPage(after, limit);
+
+        return toPage(heroRepository.findFilteredPageWithPowerStats(filter, after, limit + 1), limit);
+    }
+
+    /**
+     * Feeds every hero ordered by id to the consumer, starting right after {@code after} when given.
+     * The transaction keeps autocommit off so the Postgres driver can page through a server-side cursor.
+     */
+    @Transactional(readOnly = true)
+    public void export(UUID after, Consumer<HeroWithPowerStats> consumer) {
+        heroRepository.streamAllWithPowerStats(after, consumer);
+    }
+
+    public List<HeroWithPowerStats> findManyByNameWithPowerStats(String heroName, int limit) {
+        return heroRepository.findManyByNameWithPowerStats(heroName, limit);
+    }
+
+    public List<HeroWithPowerStats> findAllByNamesWithPowerStats(Collection<String> heroNames) {
+        return heroRepository.findAllByNamesWithPowerStats(heroNames);
+    }
+
+    /**
+     * Both heroes are fetched with a single query; empty when either name is unknown.
+     */
+    public Optional<List<ComparedHeroDTO>> compare(String hero1Name, String hero2Name) {
+        Map<String, HeroWithPowerStats> heroes = findByNames(List.of(hero1Name, hero2Name));
+
+        HeroWithPowerStats hero1 = heroes.get(nameKey(hero1Name));
+        HeroWithPowerStats hero2 = heroes.get(nameKey(hero2Name));
+
+        if (hero1 == null || hero2 == null)
+            return Optional.empty();
+
+        return Optional.of(compare(hero1, hero2));
+    }
+
+    /**
+     * Every distinct name of the batch is resolved with a single query before the pairs are compared.
+     */
+    public List<ComparedHeroesResultDTO> compareAll(List<CompareHeroesRequest> compareHeroesRequests) {
+        if (compareHeroesRequests.size() > MAX_COMPARE_BATCH_SIZE)
+            throw new IllegalArgumentException(format("message.compare.batch.size: 1..%d", MAX_COMPARE_BATCH_SIZE));
+
+        Set<String> names = new HashSet<>();
+        for (CompareHeroesRequest request : compareHeroesRequests) {
+            if (hasBothNames(request)) {
+                names.add(request.getHero1Name());
+                names.add(request.getHero2Name());
+            }
+        }
+
+        Map<String, HeroWithPowerStats> heroes = findByNames(names);
+        List<ComparedHeroesResultDTO> results = new ArrayList<>(compareHeroesRequests.size());
+
+        for (int index = 0; index < compareHeroesRequests.size(); index++) {
+            CompareHeroesRequest request = compareHeroesRequests.get(index);
+
+            if (!hasBothNames(request)) {
+                results.add(ComparedHeroesResultDTO.rejected(index, List.of("message.name.mandatory")));
+                continue;
+            }
+
+            HeroWithPowerStats hero1 = heroes.get(nameKey(request.getHero1Name()));
+            HeroWithPowerStats hero2 = heroes.get(nameKey(request.getHero2Name()));
+
+            if (hero1 == null || hero2 == null)
+                results.add(ComparedHeroesResultDTO.rejected(index, List.of(HERO_NOT_FOUND)));
+            else
+                results.add(ComparedHeroesResultDTO.compared(index, compare(hero1, hero2)));
+        }
+
+        return results;
+    }
+
+    public List<RankedHeroDTO> leaderboard(HeroRanking ranking, int limit) {
+        List<HeroWithPowerStats> heroes = heroRepository.findTopWithPowerStats(ranking, limit);
+        List<RankedHeroDTO> rankedHeroes = new ArrayList<>(heroes.size());
+
+        for (int i = 0; i < heroes.size(); i++) {
+            Hero hero = heroes.get(i).getHero();
+            rankedHeroes.add(new RankedHeroDTO(i + 1, hero.getId(), hero.getName(), hero.getRace(),
+                    ranking.score(heroes.get(i).getPowerStats())));
+        }
+
+        return rankedHeroes;
+    }
+
+    public HeroStatsDTO stats() {
+        return new HeroStatsDTO(toCollectionDTO(heroRepository.findRaceHistograms()), null);
+    }
+
+    /**
+     * Race statistics along with where the hero stands in its race, empty when the hero does not exist.
+     */
+    public Optional<HeroStatsDTO> stats(UUID heroId) {
+        Hero hero = heroRepository.findById(heroId).orElse(null);
+        PowerStats powerStats = hero == null ? null : powerStatsService.findById(hero.getPowerStatsId());
+        if (powerStats == null)
+            return Optional.empty();
+
+        List<RaceHistogram> histograms = heroRepository.findRaceHistograms();
+
+        return histograms.stream()
+                .filter(histogram -> histogram.getRace() == hero.getRace())
+                .findFirst()
+                .map(histogram -> new HeroStatsDTO(toCollectionDTO(histograms),
+                        histogram.percentileRanks(hero, powerStats)));
+    }
+
+    /**
+     * Patches the hero and its power stats in one write and returns them as written, empty when the
+     * hero does not exist.
+     */
+    public Optional<HeroWithPowerStats> update(UUID heroId, UpdateHeroRequest updateHeroRequest) {
+        Optional<HeroWithPowerStats> updated = heroRepository.updateWithPowerStats(heroId, updateHeroRequest);
+        updated.ifPresent(heroWithPowerStats -> powerStatsService.evict(heroWithPowerStats.getPowerStats().getId()));
+
+        return updated;
+    }
+
+    /**
+     * Deletes the hero along with its power stats in one write, false when the hero does not exist.
+     */
+    public boolean deleteById(UUID heroId) {
+        Optional<UUID> powerStatsId = heroRepository.deleteWithPowerStats(heroId);
+        powerStatsId.ifPresent(powerStatsService::evict);
+
+        return powerStatsId.isPresent();
+    }
+
+    public WriteStatsDTO writeStats() {
+        return writeCounters.toDTO();
+    }
+
+    private static HeroPage toPage(List<HeroWithPowerStats> heroes, int limit) {
+        if (heroes.size() <= limit)
+            return new HeroPage(heroes, null);
+
+        List<HeroWithPowerStats> page = heroes.subList(0, limit);
+        return new HeroPage(page, HeroCursor.of(page.get(limit - 1).getHero()));
+    }
+
+    private static List<RaceStatsDTO> toCollectionDTO(List<RaceHistogram> histograms) {
+        return histograms.stream().map(RaceHistogram::toDTO).collect(Collectors.toList());
+    }
+
+    private Map<String, HeroWithPowerStats> findByNames(Collection<String> heroNames) {
+        Map<String, HeroWithPowerStats> heroes = new HashMap<>();
+        for (HeroWithPowerStats hero : heroRepository.findAllByNamesWithPowerStats(heroNames))
+            heroes.put(nameKey(hero.getHero().getName()), hero);
+
+        return heroes;
+    }
+
+    private static List<ComparedHeroDTO> compare(HeroWithPowerStats hero1, HeroWithPowerStats hero2) {
+        return List.of(new ComparedHeroDTO(hero1, hero2), new ComparedHeroDTO(hero2, hero1));
+    }
+
+    private static String nameKey(String heroName) {
+        return heroName.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * False for a null pair as well, which a JSON array may carry.
+     */
+    private static boolean hasBothNames(CompareHeroesRequest request) {
+        return request != null && isNotBlank(request.getHero1Name()) && isNotBlank(request.getHero2Name());
     }
 
-    public void delete(Hero hero) {
-        UUID powerStatsId = hero.getPowerStatsId();
-        heroRepository.delete(hero);
-        powerStatsService.deleteById(powerStatsId);
+    private static boolean isNotBlank(String value) {
+        return value != null && !value.isBlank();
     }
 }
@@ -0,0 +1,123 @@
+package br.com.gubee.interview.core.features.hero.impl;
+
+import br.com.gubee.interview.model.HeroFilter;
+import br.com.gubee.interview.model.HeroRanking;
+import br.com.gubee.interview.model.HeroWithPowerStats;
+import br.com.gubee.interview.model.PowerStats;
+import br.com.gubee.interview.model.enums.Race;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * One bitmap per race and per (stat, value) over the 0..10 scale, where each hero owns a bit position
+ * (its slot). A filter is answered by ANDing the race bitmap with, for every restricted stat, the OR of
+ * the bitmaps of the values in its range. Slots of deleted heroes are reused so the bitmaps stay dense.
+ */
+class HeroBitmapIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Race, BitSet> races = new EnumMap<>(Race.class);
+    private final Map<HeroRanking, BitSet[]> stats = new EnumMap<>(HeroRanking.class);
+    private final BitSet occupied = new BitSet();
+    private final Map<UUID, Integer> slots = new HashMap<>();
+    private final List<UUID> heroIds = new ArrayList<>();
+
+    HeroBitmapIndex() {
+        for (Race race : Race.values())
+            races.put(race, new BitSet());
+
+        for (HeroRanking stat : HeroFilter.STATS) {
+            BitSet[] values = new BitSet[HeroFilter.MAX_STAT + 1];
+            Arrays.setAll(values, value -> new BitSet());
+            stats.put(stat, values);
+        }
+    }
+
+    /**
+     * Re-indexes the hero from its current state, or frees its slot when {@code current} finds nothing.
+     * The state is read under the write lock, so whichever refresh runs last indexes the latest values.
+     */
+    void refresh(UUID heroId, Supplier<HeroWithPowerStats> current) {
+        lock.writeLock().lock();
+        try {
+            HeroWithPowerStats heroWithPowerStats = current.get();
+            Integer slot = slots.get(heroId);
+
+            if (slot != null)
+                clear(slot);
+
+            if (heroWithPowerStats == null) {
+                if (slot != null) {
+                    slots.remove(heroId);
+                    heroIds.set(slot, null);
+                    occupied.clear(slot);
+                }
+                return;
+            }
+
+            if (slot == null) {
+                slot = occupied.nextClearBit(0);
+                slots.put(heroId, slot);
+                if (slot == heroIds.size())
+                    heroIds.add(heroId);
+                else
+                    heroIds.set(slot, heroId);
+            }
+
+            set(slot, heroWithPowerStats);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<UUID> match(HeroFilter filter) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = (BitSet) occupied.clone();
+
+            if (filter.getRace() != null)
+                matches.and(races.get(filter.getRace()));
+
+            filter.getRanges().forEach((stat, range) -> {
+                BitSet inRange = new BitSet();
+                BitSet[] values = stats.get(stat);
+                int max = Math.min(range.getMax(), HeroFilter.MAX_STAT);
+
+                for (int value = Math.max(range.getMin(), HeroFilter.MIN_STAT); value <= max; value++)
+                    inRange.or(values[value]);
+
+                matches.and(inRange);
+            });
+
+            List<UUID> ids = new ArrayList<>(matches.cardinality());
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1))
+                ids.add(heroIds.get(slot));
+
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void set(int slot, HeroWithPowerStats heroWithPowerStats) {
+        occupied.set(slot);
+
+        if (heroWithPowerStats.getHero().getRace() != null)
+            races.get(heroWithPowerStats.getHero().getRace()).set(slot);
+
+        PowerStats powerStats = heroWithPowerStats.getPowerStats();
+        stats.forEach((stat, values) -> {
+            int value = stat.score(powerStats);
+            if (value >= HeroFilter.MIN_STAT && value <= HeroFilter.MAX_STAT)
+                values[value].set(slot);
+        });
+    }
+
+    private void clear(int slot) {
+        races.values().forEach(race -> race.clear(slot));
+        stats.values().forEach(values -> Arrays.stream(values).forEach(value -> value.clear(slot)));
+    }
+}
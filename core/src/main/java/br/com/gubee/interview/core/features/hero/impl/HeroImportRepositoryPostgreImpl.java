@@ -0,0 +1,163 @@
+package br.com.gubee.interview.core.features.hero.impl;
+
+import br.com.gubee.interview.core.features.hero.HeroImportRepository;
+import br.com.gubee.interview.core.mapper.RejectedHeroRowMapper;
+import br.com.gubee.interview.model.dto.RejectedHeroRowDTO;
+import br.com.gubee.interview.model.enums.Race;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.util.PSQLException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Repository
+@Profile("!in-memory")
+@RequiredArgsConstructor
+public class HeroImportRepositoryPostgreImpl implements HeroImportRepository {
+
+    private static final String DUPLICATED_NAME = "message.name.duplicated";
+
+    /**
+     * Every column is text so a bad value ends up as a rejected row instead of aborting the COPY.
+     */
+    private static final String CREATE_STAGING_TABLE_QUERY = "CREATE TEMP TABLE hero_import" +
+            " (row_no BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY," +
+            " power_stats_id UUID NOT NULL DEFAULT uuid_generate_v4()," +
+            " name TEXT, race TEXT, strength TEXT, agility TEXT, dexterity TEXT, intelligence TEXT," +
+            " reason TEXT)" +
+            " ON COMMIT DROP";
+
+    private static final String COPY_STAGING_TABLE_QUERY = "COPY hero_import" +
+            " (name, race, strength, agility, dexterity, intelligence)" +
+            " FROM STDIN WITH (FORMAT csv, HEADER true)";
+
+    // Temp tables are never visited by autovacuum, without this the planner assumes they are tiny.
+    private static final String ANALYZE_STAGING_TABLE_QUERY = "ANALYZE hero_import";
+
+    private static final String REJECT_INVALID_ROWS_QUERY = "UPDATE hero_import i SET reason = CASE" +
+            " WHEN i.name IS NULL OR btrim(i.name) = '' THEN 'message.name.mandatory'" +
+            " WHEN length(i.name) > 255 THEN 'message.name.length'" +
+            " WHEN i.race IS NULL THEN 'message.race.mandatory'" +
+            " WHEN i.race NOT IN (" + Arrays.stream(Race.values())
+                    .map(race -> "'" + race.name() + "'")
+                    .collect(Collectors.joining(", ")) + ") THEN 'message.race.invalid'" +
+            rejectInvalidPowerStat("strength") +
+            rejectInvalidPowerStat("agility") +
+            rejectInvalidPowerStat("dexterity") +
+            rejectInvalidPowerStat("intelligence") +
+            " END";
+
+    private static final String REJECT_DUPLICATED_ROWS_QUERY = "UPDATE hero_import i" +
+            " SET reason = '" + DUPLICATED_NAME + "'" +
+            " FROM (SELECT row_no, row_number() OVER (PARTITION BY name ORDER BY row_no) AS occurrence" +
+            " FROM hero_import WHERE reason IS NULL) d" +
+            " WHERE d.row_no = i.row_no" +
+            " AND (d.occurrence > 1 OR EXISTS (SELECT 1 FROM hero h WHERE h.name = i.name))";
+
+    /**
+     * Writes the accepted rows into power_stats and hero with one statement. A name claimed by a
+     * concurrent writer since the duplicate check is skipped by ON CONFLICT and flagged back on the row.
+     */
+    private static final String MERGE_ACCEPTED_ROWS_QUERY = "WITH stats AS" +
+            " (INSERT INTO power_stats (id, strength, agility, dexterity, intelligence)" +
+            " SELECT power_stats_id, strength::SMALLINT, agility::SMALLINT, dexterity::SMALLINT, intelligence::SMALLINT" +
+            " FROM hero_import WHERE reason IS NULL" +
+            " RETURNING id)," +
+            " heroes AS (INSERT INTO hero (name, race, power_stats_id, strength, agility, dexterity, intelligence)" +
+            " SELECT i.name, i.race, s.id, i.strength::SMALLINT, i.agility::SMALLINT, i.dexterity::SMALLINT, i.intelligence::SMALLINT" +
+            " FROM hero_import i JOIN stats s ON s.id = i.power_stats_id" +
+            " ON CONFLICT (name) DO NOTHING" +
+            " RETURNING power_stats_id)" +
+            " UPDATE hero_import i SET reason = '" + DUPLICATED_NAME + "'" +
+            " WHERE i.reason IS NULL" +
+            " AND NOT EXISTS (SELECT 1 FROM heroes h WHERE h.power_stats_id = i.power_stats_id)";
+
+    private static final String DELETE_ORPHAN_POWER_STATS_QUERY = "DELETE FROM power_stats ps" +
+            " USING hero_import i" +
+            " WHERE ps.id = i.power_stats_id" +
+            " AND i.reason = '" + DUPLICATED_NAME + "'";
+
+    private static final String COUNT_REJECTED_ROWS_QUERY = "SELECT count(*)" +
+            " FROM hero_import" +
+            " WHERE reason IS NOT NULL";
+
+    private static final String FIND_REJECTED_ROWS_QUERY = "SELECT row_no, name, reason" +
+            " FROM hero_import" +
+            " WHERE reason IS NOT NULL" +
+            " ORDER BY row_no" +
+            " LIMIT :limit";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Override
+    public long stage(Reader csv) {
+        namedParameterJdbcTemplate.getJdbcOperations().execute(CREATE_STAGING_TABLE_QUERY);
+
+        Long rows = namedParameterJdbcTemplate.getJdbcOperations().execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class)
+                        .getCopyAPI()
+                        .copyIn(COPY_STAGING_TABLE_QUERY, csv);
+            } catch (PSQLException e) {
+                // Class 22 covers malformed input such as a row with a missing or extra column
+                if (e.getSQLState() == null || !e.getSQLState().startsWith("22"))
+                    throw e;
+                log.warn(e.getMessage());
+                throw new IllegalArgumentException("message.import.malformed-csv");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        namedParameterJdbcTemplate.getJdbcOperations().execute(ANALYZE_STAGING_TABLE_QUERY);
+        return rows == null ? 0 : rows;
+    }
+
+    @Override
+    public void rejectInvalidRows() {
+        namedParameterJdbcTemplate.getJdbcOperations().update(REJECT_INVALID_ROWS_QUERY);
+        namedParameterJdbcTemplate.getJdbcOperations().update(REJECT_DUPLICATED_ROWS_QUERY);
+    }
+
+    @Override
+    public void mergeAcceptedRows() {
+        int conflicts = namedParameterJdbcTemplate.getJdbcOperations().update(MERGE_ACCEPTED_ROWS_QUERY);
+
+        if (conflicts > 0)
+            namedParameterJdbcTemplate.getJdbcOperations().update(DELETE_ORPHAN_POWER_STATS_QUERY);
+    }
+
+    @Override
+    public long countRejectedRows() {
+        Long rejected = namedParameterJdbcTemplate.getJdbcOperations().queryForObject(COUNT_REJECTED_ROWS_QUERY, Long.class);
+        return rejected == null ? 0 : rejected;
+    }
+
+    @Override
+    public List<RejectedHeroRowDTO> findRejectedRows(int limit) {
+        return namedParameterJdbcTemplate.query(
+                FIND_REJECTED_ROWS_QUERY,
+                Map.of("limit", limit),
+                new RejectedHeroRowMapper()
+        );
+    }
+
+    private static String rejectInvalidPowerStat(String column) {
+        return " WHEN i." + column + " IS NULL THEN 'message.powerstats." + column + ".mandatory'" +
+                " WHEN i." + column + " !~ '^\\s*[+-]?[0-9]{1,9}\\s*$' THEN 'message.powerstats." + column + ".invalid'" +
+                " WHEN i." + column + "::INT < 0 THEN 'message.powerstats." + column + ".min'" +
+                " WHEN i." + column + "::INT > 10 THEN 'message.powerstats." + column + ".max'";
+    }
+}
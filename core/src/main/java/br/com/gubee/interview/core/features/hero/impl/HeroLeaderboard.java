@@ -0,0 +1,77 @@
+package br.com.gubee.interview.core.features.hero.impl;
+
+import br.com.gubee.interview.model.HeroRanking;
+import br.com.gubee.interview.model.HeroWithPowerStats;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Supplier;
+
+/**
+ * Heroes kept ordered by every {@link HeroRanking}, highest score first and then by name, so the top K
+ * are read by walking the first K entries. Each hero has one entry shared by all rankings; a change
+ * replaces it under the hero's slot in {@code entries}, which serialises the updates of the same hero.
+ */
+class HeroLeaderboard {
+
+    private final Map<HeroRanking, NavigableSet<Entry>> rankings = new EnumMap<>(HeroRanking.class);
+    private final ConcurrentMap<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    HeroLeaderboard() {
+        for (HeroRanking ranking : HeroRanking.values())
+            rankings.put(ranking, new ConcurrentSkipListSet<>(comparator(ranking)));
+    }
+
+    /**
+     * Re-ranks the hero from its current state, or drops it when {@code current} finds nothing. The state
+     * is read while holding the hero's slot, so whichever refresh runs last sees the latest hero and
+     * power stats.
+     */
+    void refresh(UUID heroId, Supplier<HeroWithPowerStats> current) {
+        entries.compute(heroId, (id, previous) -> {
+            if (previous != null)
+                rankings.values().forEach(ranking -> ranking.remove(previous));
+
+            HeroWithPowerStats heroWithPowerStats = current.get();
+            if (heroWithPowerStats == null)
+                return null;
+
+            Entry entry = new Entry(heroWithPowerStats);
+            rankings.values().forEach(ranking -> ranking.add(entry));
+            return entry;
+        });
+    }
+
+    List<UUID> top(HeroRanking ranking, int limit) {
+        List<UUID> ids = new ArrayList<>(limit);
+
+        for (Entry entry : rankings.get(ranking)) {
+            if (ids.size() == limit)
+                break;
+            ids.add(entry.id);
+        }
+
+        return ids;
+    }
+
+    private static Comparator<Entry> comparator(HeroRanking ranking) {
+        return Comparator.comparingInt((Entry entry) -> -entry.scores[ranking.ordinal()])
+                .thenComparing(entry -> entry.name)
+                .thenComparing(entry -> entry.id);
+    }
+
+    private static final class Entry {
+        private final UUID id;
+        private final String name;
+        private final int[] scores = new int[HeroRanking.values().length];
+
+        private Entry(HeroWithPowerStats heroWithPowerStats) {
+            this.id = heroWithPowerStats.getHero().getId();
+            this.name = heroWithPowerStats.getHero().getName();
+            for (HeroRanking ranking : HeroRanking.values())
+                scores[ranking.ordinal()] = ranking.score(heroWithPowerStats.getPowerStats());
+        }
+    }
+}
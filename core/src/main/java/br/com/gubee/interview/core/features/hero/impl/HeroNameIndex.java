@@ -0,0 +1,276 @@
+package br.com.gubee.interview.core.features.hero.impl;
+
+import br.com.gubee.interview.model.Hero;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram inverted index over hero names. Every hero gets an int ordinal and every trigram of its
+ * case-folded name keeps a sorted array of those ordinals, so a substring search intersects the
+ * posting lists of the search trigrams instead of scanning every name. Matching and ordering mirror
+ * the Postgres implementation: {@code ilike} for the match and pg_trgm {@code similarity} for relevance.
+ * The ordinal of a removed hero is handed to the next hero added, so the arrays stay as large as the most
+ * heroes indexed at once however many come and go. Searches share a read lock, changes take the write lock.
+ */
+class HeroNameIndex {
+    private static final int GRAM = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private Hero[] heroes = new Hero[64];
+    private String[] foldedNames = new String[64];
+    private int nextOrdinal;
+    private int[] freeOrdinals = new int[16];
+    private int freeCount;
+
+    void add(Hero hero) {
+        lock.writeLock().lock();
+        try {
+            addLocked(hero);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addLocked(Hero hero) {
+        int ordinal = freeCount > 0 ? freeOrdinals[--freeCount] : nextOrdinal++;
+        if (ordinal == heroes.length) {
+            heroes = Arrays.copyOf(heroes, ordinal * 2);
+            foldedNames = Arrays.copyOf(foldedNames, ordinal * 2);
+        }
+
+        ordinals.put(hero.getId(), ordinal);
+        heroes[ordinal] = hero;
+        index(ordinal, fold(hero.getName()));
+    }
+
+    /**
+     * Re-indexes the hero when its name changed since it was last indexed.
+     */
+    void update(Hero hero) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(hero.getId());
+            if (ordinal == null) {
+                addLocked(hero);
+                return;
+            }
+
+            heroes[ordinal] = hero;
+            String foldedName = fold(hero.getName());
+            if (foldedName.equals(foldedNames[ordinal]))
+                return;
+
+            unindex(ordinal);
+            index(ordinal, foldedName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(id);
+            if (ordinal == null)
+                return;
+
+            unindex(ordinal);
+            heroes[ordinal] = null;
+
+            if (freeCount == freeOrdinals.length)
+                freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+            freeOrdinals[freeCount++] = ordinal;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Slots of the ordinal arrays, for tests.
+     */
+    int capacity() {
+        lock.readLock().lock();
+        try {
+            return heroes.length;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Heroes whose name contains the search ignoring case, most similar first and then by name.
+     */
+    List<Hero> search(String search, int limit) {
+        String foldedSearch = fold(search);
+        List<Hero> matches = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (int ordinal : candidates(foldedSearch))
+                if (foldedNames[ordinal].contains(foldedSearch))
+                    matches.add(heroes[ordinal]);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Set<Long> searchTrigrams = similarityTrigrams(search);
+        Map<Hero, Double> similarities = new IdentityHashMap<>();
+        for (Hero hero : matches)
+            similarities.put(hero, similarity(similarityTrigrams(hero.getName()), searchTrigrams));
+
+        matches.sort(Comparator.comparing((Hero hero) -> similarities.get(hero)).reversed()
+                .thenComparing(Hero::getName));
+
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * Ordinals that contain every trigram of the search. Searches shorter than a trigram cannot be
+     * narrowed down and fall back to every indexed hero, the same way Postgres does.
+     */
+    private int[] candidates(String foldedSearch) {
+        if (foldedSearch.length() < GRAM)
+            return ordinals.values().stream().mapToInt(Integer::intValue).toArray();
+
+        List<Postings> lists = new ArrayList<>();
+        for (long trigram : trigrams(foldedSearch)) {
+            Postings list = postings.get(trigram);
+            if (list == null)
+                return new int[0];
+            lists.add(list);
+        }
+
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        int[] result = Arrays.copyOf(lists.get(0).ordinals, lists.get(0).size);
+        int size = result.length;
+        for (int i = 1; i < lists.size() && size > 0; i++)
+            size = lists.get(i).retainAll(result, size);
+
+        return Arrays.copyOf(result, size);
+    }
+
+    private void index(int ordinal, String foldedName) {
+        foldedNames[ordinal] = foldedName;
+        for (long trigram : trigrams(foldedName))
+            postings.computeIfAbsent(trigram, key -> new Postings()).add(ordinal);
+    }
+
+    private void unindex(int ordinal) {
+        for (long trigram : trigrams(foldedNames[ordinal])) {
+            Postings list = postings.get(trigram);
+            if (list != null && list.remove(ordinal) && list.size == 0)
+                postings.remove(trigram);
+        }
+        foldedNames[ordinal] = null;
+    }
+
+    static String fold(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<Long> trigrams(String foldedValue) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + GRAM <= foldedValue.length(); i++)
+            trigrams.add(pack(foldedValue.charAt(i), foldedValue.charAt(i + 1), foldedValue.charAt(i + 2)));
+        return trigrams;
+    }
+
+    /**
+     * Same trigram set pg_trgm builds: each run of letters and digits is lowercased and padded with
+     * two blanks in front and one behind.
+     */
+    static Set<Long> similarityTrigrams(String value) {
+        Set<Long> trigrams = new HashSet<>();
+        StringBuilder word = new StringBuilder("  ");
+
+        for (int i = 0; i <= value.length(); i++) {
+            if (i < value.length() && Character.isLetterOrDigit(value.charAt(i))) {
+                word.append(Character.toLowerCase(value.charAt(i)));
+                continue;
+            }
+
+            if (word.length() > 2) {
+                word.append(' ');
+                for (int j = 0; j + GRAM <= word.length(); j++)
+                    trigrams.add(pack(word.charAt(j), word.charAt(j + 1), word.charAt(j + 2)));
+            }
+            word.setLength(2);
+        }
+
+        return trigrams;
+    }
+
+    static double similarity(Set<Long> trigrams, Set<Long> otherTrigrams) {
+        if (trigrams.isEmpty() || otherTrigrams.isEmpty())
+            return 0;
+
+        int common = 0;
+        for (long trigram : trigrams)
+            if (otherTrigrams.contains(trigram))
+                common++;
+
+        return (double) common / (trigrams.size() + otherTrigrams.size() - common);
+    }
+
+    private static long pack(char first, char second, char third) {
+        return ((long) first << 32) | ((long) second << 16) | third;
+    }
+
+    /**
+     * Growable sorted array of ordinals.
+     */
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            int position = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (position >= 0)
+                return;
+
+            position = -position - 1;
+            if (size == ordinals.length)
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+
+            System.arraycopy(ordinals, position, ordinals, position + 1, size - position);
+            ordinals[position] = ordinal;
+            size++;
+        }
+
+        boolean remove(int ordinal) {
+            int position = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (position < 0)
+                return false;
+
+            System.arraycopy(ordinals, position + 1, ordinals, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Keeps in {@code candidates} only the ordinals also present here and returns how many are left.
+         */
+        int retainAll(int[] candidates, int candidatesSize) {
+            int kept = 0;
+            int from = 0;
+
+            for (int i = 0; i < candidatesSize; i++) {
+                int position = Arrays.binarySearch(ordinals, from, size, candidates[i]);
+                if (position >= 0) {
+                    candidates[kept++] = candidates[i];
+                    from = position + 1;
+                } else {
+                    from = -position - 1;
+                }
+            }
+
+            return kept;
+        }
+    }
+}
@@ -1,28 +1,82 @@
 package br.com.gubee.interview.core.features.hero.impl;
 
 import br.com.gubee.interview.core.features.hero.HeroRepository;
+import br.com.gubee.interview.core.features.powerstats.impl.PowerStatsRepositoryInMemoryImpl;
 import br.com.gubee.interview.model.Hero;
+import br.com.gubee.interview.model.HeroCursor;
+import br.com.gubee.interview.model.HeroFilter;
+import br.com.gubee.interview.model.HeroRanking;
+import br.com.gubee.interview.model.HeroVersion;
+import br.com.gubee.interview.model.HeroWithPowerStats;
+import br.com.gubee.interview.model.PowerStats;
+import br.com.gubee.interview.model.RaceHistogram;
+import br.com.gubee.interview.model.enums.Race;
+import br.com.gubee.interview.model.request.CreateHeroRequest;
 import br.com.gubee.interview.model.request.UpdateHeroRequest;
-import lombok.RequiredArgsConstructor;
-import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
-@RequiredArgsConstructor
-@NoRepositoryBean
+/**
+ * Thread-safe store selected by the {@code in-memory} profile. Heroes live in a hash map by id, a
+ * case-folded name to id map enforces unique names atomically and serves exact lookups, and writes to
+ * the same hero are serialised by {@link ConcurrentHashMap#compute}. A {@link HeroLeaderboard}, a
+ * {@link HeroBitmapIndex} and the {@link HeroStatsCounters} are refreshed after every hero or power stats
+ * change, so rankings, filters and race statistics are answered without scanning every hero.
+ */
+@Repository
+@Profile("in-memory")
 public class HeroRepositoryInMemoryImpl implements HeroRepository {
-    public static Map<UUID,Hero> heroStorage = new TreeMap<>();
+    private final ConcurrentMap<UUID,Hero> heroStorage = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String,UUID> heroIdsByName = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<HeroCursor,Hero> sortedHeroStorage = new ConcurrentSkipListMap<>();
+    private final HeroNameIndex heroNameIndex = new HeroNameIndex();
+    private final ConcurrentMap<UUID,UUID> heroIdsByPowerStatsId = new ConcurrentHashMap<>();
+    private final HeroLeaderboard heroLeaderboard = new HeroLeaderboard();
+    private final HeroBitmapIndex heroBitmapIndex = new HeroBitmapIndex();
+    private final HeroStatsCounters heroStatsCounters = new HeroStatsCounters();
+    private final PowerStatsRepositoryInMemoryImpl powerStatsRepository;
+
+    public HeroRepositoryInMemoryImpl(PowerStatsRepositoryInMemoryImpl powerStatsRepository) {
+        this.powerStatsRepository = powerStatsRepository;
+        powerStatsRepository.addChangeListener(this::refreshByPowerStatsId);
+    }
+
+    /**
+     * The power stats are only kept once the hero got its name, as the single insert statement of the
+     * Postgres implementation does.
+     */
     @Override
-    public UUID create(Hero hero) {
-        if (hero.getId() != null || hero.getName() == null)
+    public UUID createWithPowerStats(CreateHeroRequest createHeroRequest) {
+        if (createHeroRequest.getName() == null)
             throw new IllegalArgumentException();
 
-        for(Map.Entry<UUID,Hero> entry : heroStorage.entrySet())
-            if (entry.getValue().equals(hero))
-                throw new IllegalArgumentException();
+        UUID powerStatsId = powerStatsRepository.create(new PowerStats(createHeroRequest));
+
+        try {
+            return create(new Hero(createHeroRequest, powerStatsId));
+        } catch (IllegalArgumentException e) {
+            powerStatsRepository.delete(powerStatsId);
+            throw e;
+        }
+    }
+
+    UUID create(Hero hero) {
+        if (hero.getId() != null || hero.getName() == null)
+            throw new IllegalArgumentException();
 
         UUID uuid = UUID.randomUUID();
+        if (heroIdsByName.putIfAbsent(HeroNameIndex.fold(hero.getName()), uuid) != null)
+            throw new IllegalArgumentException();
+
         hero.setId(uuid);
         Instant now = Instant.now();
         hero.setCreatedAt(now);
@@ -30,76 +84,304 @@ public class HeroRepositoryInMemoryImpl implements HeroRepository {
         hero.setEnabled(true);
 
         heroStorage.put(uuid,hero);
+        sortedHeroStorage.put(HeroCursor.of(hero),hero);
+        heroNameIndex.add(hero);
+        if (hero.getPowerStatsId() != null)
+            heroIdsByPowerStatsId.put(hero.getPowerStatsId(), uuid);
+        refresh(uuid);
 
         return uuid;
     }
 
+    @Override
+    public Map<String, UUID> createAllWithPowerStats(List<CreateHeroRequest> createHeroRequests) {
+        Map<String, UUID> createdHeroes = new HashMap<>();
+
+        for (CreateHeroRequest createHeroRequest : createHeroRequests) {
+            UUID powerStatsId = powerStatsRepository.create(new PowerStats(createHeroRequest));
+
+            try {
+                createdHeroes.put(createHeroRequest.getName(), create(new Hero(createHeroRequest, powerStatsId)));
+            } catch (IllegalArgumentException e) {
+                powerStatsRepository.delete(powerStatsId);
+            }
+        }
+
+        return createdHeroes;
+    }
+
     @Override
     public Optional<Hero> findById(UUID uuid) {
         return Optional.ofNullable(heroStorage.get(uuid));
     }
 
     @Override
-    public List<Hero> findManyByName(String search) {
-        List<Hero> heroes = new ArrayList<>();
+    public Optional<HeroWithPowerStats> findByIdWithPowerStats(UUID uuid) {
+        return Optional.ofNullable(current(uuid));
+    }
 
-        for(Map.Entry<UUID,Hero> entry : heroStorage.entrySet())
-            if (entry.getValue().getName().contains(search))
-                heroes.add(entry.getValue());
+    @Override
+    public Optional<HeroVersion> findVersionById(UUID uuid) {
+        return findById(uuid)
+                .map(hero -> HeroVersion.of(hero, powerStatsRepository.findById(hero.getPowerStatsId())));
+    }
 
-        return heroes;
+    @Override
+    public List<Hero> findManyByName(String search, int limit) {
+        return heroNameIndex.search(search, limit);
     }
 
     @Override
     public Optional<Hero> findByName(String search) {
-        Hero hero = null;
+        UUID uuid = heroIdsByName.get(HeroNameIndex.fold(search));
 
-        for(Map.Entry<UUID,Hero> entry : heroStorage.entrySet())
-           if (entry.getValue().getName().equals(search))
-               hero = entry.getValue();
-
-        return Optional.ofNullable(hero);
+        return uuid == null ? Optional.empty() : findById(uuid);
     }
 
     @Override
     public List<Hero> findAll() {
-        List<Hero> heroes = new ArrayList<>();
+        return new ArrayList<>(sortedHeroStorage.values());
+    }
+
+    @Override
+    public List<HeroWithPowerStats> findPageWithPowerStats(HeroCursor after, int limit) {
+        NavigableMap<HeroCursor,Hero> remaining = after == null ? sortedHeroStorage : sortedHeroStorage.tailMap(after, false);
+        List<HeroWithPowerStats> heroes = new ArrayList<>(limit);
+
+        for (Hero hero : remaining.values()) {
+            if (heroes.size() == limit)
+                break;
 
-        for(Map.Entry<UUID,Hero> entry : heroStorage.entrySet())
-            heroes.add(entry.getValue());
+            HeroWithPowerStats heroWithPowerStats = withPowerStats(hero);
+            if (heroWithPowerStats != null)
+                heroes.add(heroWithPowerStats);
+        }
 
         return heroes;
     }
 
+    /**
+     * The bitmaps give the matching heroes; of those after the cursor only the first {@code limit} in
+     * {@code (name, id)} order are kept, in a bounded max-heap, and only they get their power stats loaded.
+     */
+    @Override
+    public List<HeroWithPowerStats> findFilteredPageWithPowerStats(HeroFilter filter, HeroCursor after, int limit) {
+        PriorityQueue<HeroCursor> page = new PriorityQueue<>(limit + 1, Comparator.reverseOrder());
+        Map<HeroCursor, Hero> heroesByCursor = new HashMap<>();
+
+        for (UUID uuid : heroBitmapIndex.match(filter)) {
+            Hero hero = heroStorage.get(uuid);
+            if (hero == null)
+                continue;
+
+            HeroCursor cursor = HeroCursor.of(hero);
+            if (after != null && cursor.compareTo(after) <= 0)
+                continue;
+            if (page.size() == limit && cursor.compareTo(page.peek()) >= 0)
+                continue;
+
+            page.add(cursor);
+            heroesByCursor.put(cursor, hero);
+            if (page.size() > limit)
+                heroesByCursor.remove(page.poll());
+        }
+
+        List<HeroCursor> cursors = new ArrayList<>(page);
+        Collections.sort(cursors);
+
+        List<HeroWithPowerStats> heroes = new ArrayList<>(cursors.size());
+        for (HeroCursor cursor : cursors) {
+            HeroWithPowerStats heroWithPowerStats = withPowerStats(heroesByCursor.get(cursor));
+            if (heroWithPowerStats != null)
+                heroes.add(heroWithPowerStats);
+        }
+
+        return heroes;
+    }
+
+    @Override
+    public void streamAllWithPowerStats(UUID after, Consumer<HeroWithPowerStats> consumer) {
+        heroStorage.values().stream()
+                .filter(hero -> after == null || hero.getId().compareTo(after) > 0)
+                .sorted(Comparator.comparing(Hero::getId))
+                .map(this::withPowerStats)
+                .filter(Objects::nonNull)
+                .forEach(consumer);
+    }
+
+    @Override
+    public List<HeroWithPowerStats> findManyByNameWithPowerStats(String search, int limit) {
+        return withPowerStats(findManyByName(search, limit));
+    }
+
     @Override
-    public void update(Hero hero, UpdateHeroRequest updateHeroRequest) {
-        if (hero == null || updateHeroRequest == null)
+    public List<HeroWithPowerStats> findAllByNamesWithPowerStats(Collection<String> heroNames) {
+        Set<UUID> ids = new LinkedHashSet<>();
+        for (String heroName : heroNames) {
+            UUID uuid = heroIdsByName.get(HeroNameIndex.fold(heroName));
+            if (uuid != null)
+                ids.add(uuid);
+        }
+
+        List<Hero> heroes = new ArrayList<>(ids.size());
+        for (UUID uuid : ids)
+            findById(uuid).ifPresent(heroes::add);
+
+        return withPowerStats(heroes);
+    }
+
+    @Override
+    public List<HeroWithPowerStats> findTopWithPowerStats(HeroRanking ranking, int limit) {
+        List<HeroWithPowerStats> heroes = new ArrayList<>(limit);
+
+        for (UUID uuid : heroLeaderboard.top(ranking, limit)) {
+            HeroWithPowerStats heroWithPowerStats = current(uuid);
+            if (heroWithPowerStats != null)
+                heroes.add(heroWithPowerStats);
+        }
+
+        return heroes;
+    }
+
+    @Override
+    public List<RaceHistogram> findRaceHistograms() {
+        return heroStatsCounters.snapshot();
+    }
+
+    /**
+     * Hero and power stats change together while holding the hero's slot in {@code heroStorage}, so
+     * concurrent patches of the same hero apply one after the other.
+     */
+    @Override
+    public Optional<HeroWithPowerStats> updateWithPowerStats(UUID uuid, UpdateHeroRequest updateHeroRequest) {
+        if (uuid == null || updateHeroRequest == null)
             throw new NullPointerException();
 
-        Hero modifiedhero = changeFields(hero, updateHeroRequest);
-        heroStorage.put(hero.getId(),modifiedhero);
+        AtomicReference<HeroWithPowerStats> updated = new AtomicReference<>();
+
+        heroStorage.computeIfPresent(uuid, (id, storedHero) -> {
+            Hero modifiedHero = applyUpdate(storedHero, updateHeroRequest);
+            PowerStats powerStats = powerStatsRepository.findById(modifiedHero.getPowerStatsId());
+
+            if (powerStats != null)
+                powerStatsRepository.update(powerStats, updateHeroRequest)
+                        .ifPresent(updatedPowerStats -> updated.set(new HeroWithPowerStats(modifiedHero, updatedPowerStats)));
+
+            return modifiedHero;
+        });
+        refresh(uuid);
+
+        return Optional.ofNullable(updated.get());
+    }
+
+    /**
+     * Builds the modified hero as a new instance and swaps it in, so a reader holding the stored hero never
+     * sees it half changed. Only a rename moves the hero in {@code sortedHeroStorage}; otherwise its entry is
+     * replaced in place.
+     */
+    private Hero applyUpdate(Hero storedHero, UpdateHeroRequest updateHeroRequest) {
+        Hero modifiedHero = changeFields(storedHero, updateHeroRequest);
+        if (modifiedHero == storedHero)
+            return storedHero;
+
+        UUID uuid = storedHero.getId();
+        String previousName = HeroNameIndex.fold(storedHero.getName());
+        boolean renamed = !previousName.equals(HeroNameIndex.fold(modifiedHero.getName()));
+
+        if (renamed && heroIdsByName.putIfAbsent(HeroNameIndex.fold(modifiedHero.getName()), uuid) != null)
+            throw new IllegalArgumentException();
+
+        if (modifiedHero.getName().equals(storedHero.getName())) {
+            sortedHeroStorage.replace(HeroCursor.of(storedHero), modifiedHero);
+        } else {
+            sortedHeroStorage.put(HeroCursor.of(modifiedHero), modifiedHero);
+            sortedHeroStorage.remove(HeroCursor.of(storedHero));
+        }
+        heroNameIndex.update(modifiedHero);
+
+        if (renamed)
+            heroIdsByName.remove(previousName, uuid);
+
+        return modifiedHero;
     }
 
     @Override
-    public void delete(Hero hero) {
-        if (hero == null)
+    public Optional<UUID> deleteWithPowerStats(UUID uuid) {
+        if (uuid == null)
             throw new NullPointerException();
 
-        heroStorage.remove(hero.getId());
+        AtomicReference<UUID> powerStatsId = new AtomicReference<>();
+
+        heroStorage.computeIfPresent(uuid, (id, storedHero) -> {
+            sortedHeroStorage.remove(HeroCursor.of(storedHero));
+            heroNameIndex.remove(id);
+            heroIdsByName.remove(HeroNameIndex.fold(storedHero.getName()), id);
+            if (storedHero.getPowerStatsId() != null) {
+                heroIdsByPowerStatsId.remove(storedHero.getPowerStatsId(), id);
+                powerStatsId.set(storedHero.getPowerStatsId());
+            }
+            return null;
+        });
+        refresh(uuid);
+
+        if (powerStatsId.get() != null && powerStatsRepository.findById(powerStatsId.get()) != null)
+            powerStatsRepository.delete(powerStatsId.get());
+
+        return Optional.ofNullable(powerStatsId.get());
     }
 
-    private Hero changeFields(Hero hero, UpdateHeroRequest updateHeroRequest) {
-        if (updateHeroRequest.getName() != null && !(hero.getName().equals(updateHeroRequest.getName())))
-            hero.setName(updateHeroRequest.getName());
+    private void refreshByPowerStatsId(UUID powerStatsId) {
+        UUID uuid = heroIdsByPowerStatsId.get(powerStatsId);
 
-        if (updateHeroRequest.getRace() != null && !(hero.getRace() == updateHeroRequest.getRace()))
-            hero.setRace(updateHeroRequest.getRace());
+        if (uuid != null)
+            refresh(uuid);
+    }
+
+    private void refresh(UUID uuid) {
+        heroLeaderboard.refresh(uuid, () -> current(uuid));
+        heroBitmapIndex.refresh(uuid, () -> current(uuid));
+        heroStatsCounters.refresh(uuid, () -> current(uuid));
+    }
+
+    private HeroWithPowerStats current(UUID uuid) {
+        Hero hero = heroStorage.get(uuid);
+
+        return hero == null || hero.getPowerStatsId() == null ? null : withPowerStats(hero);
+    }
+
+    private List<HeroWithPowerStats> withPowerStats(List<Hero> heroes) {
+        List<HeroWithPowerStats> heroesWithPowerStats = new ArrayList<>();
+
+        for (Hero hero : heroes) {
+            HeroWithPowerStats heroWithPowerStats = withPowerStats(hero);
+            if (heroWithPowerStats != null)
+                heroesWithPowerStats.add(heroWithPowerStats);
+        }
+
+        return heroesWithPowerStats;
+    }
+
+    /**
+     * Mirrors the inner join of the Postgres implementation: heroes without power stats are left out.
+     */
+    private HeroWithPowerStats withPowerStats(Hero hero) {
+        PowerStats powerStats = powerStatsRepository.findById(hero.getPowerStatsId());
+
+        return powerStats == null ? null : new HeroWithPowerStats(hero, powerStats);
+    }
 
-        if (updateHeroRequest.getEnabled() != null && !(hero.isEnabled() == updateHeroRequest.getEnabled()))
-            hero.setEnabled(updateHeroRequest.getEnabled());
+    /**
+     * Like the Postgres implementation, a patch that changes nothing leaves {@code updatedAt} alone; the
+     * hero itself is then returned, otherwise a modified copy.
+     */
+    private static Hero changeFields(Hero hero, UpdateHeroRequest updateHeroRequest) {
+        String name = updateHeroRequest.getName() != null ? updateHeroRequest.getName() : hero.getName();
+        Race race = updateHeroRequest.getRace() != null ? updateHeroRequest.getRace() : hero.getRace();
+        boolean enabled = updateHeroRequest.getEnabled() != null ? updateHeroRequest.getEnabled() : hero.isEnabled();
 
-        hero.setUpdatedAt(Instant.now());
+        if (name.equals(hero.getName()) && race == hero.getRace() && enabled == hero.isEnabled())
+            return hero;
 
-        return hero;
+        return new Hero(hero.getId(), name, race, hero.getPowerStatsId(), hero.getCreatedAt(), Instant.now(), enabled);
     }
 }
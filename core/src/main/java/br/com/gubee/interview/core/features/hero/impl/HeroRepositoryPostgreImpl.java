@@ -1,61 +1,293 @@
 package br.com.gubee.interview.core.features.hero.impl;
 
 import br.com.gubee.interview.core.features.hero.HeroRepository;
+import br.com.gubee.interview.core.features.powerstats.impl.PowerStatsRepositoryPostgreImpl;
+import br.com.gubee.interview.core.jdbc.PartialUpdate;
+import br.com.gubee.interview.core.jdbc.WriteCounters;
 import br.com.gubee.interview.core.mapper.HeroRowMapper;
+import br.com.gubee.interview.core.mapper.HeroVersionRowMapper;
+import br.com.gubee.interview.core.mapper.HeroWithPowerStatsRowMapper;
 import br.com.gubee.interview.model.Hero;
+import br.com.gubee.interview.model.HeroCursor;
+import br.com.gubee.interview.model.HeroFilter;
+import br.com.gubee.interview.model.HeroRanking;
+import br.com.gubee.interview.model.HeroVersion;
+import br.com.gubee.interview.model.HeroWithPowerStats;
+import br.com.gubee.interview.model.RaceHistogram;
+import br.com.gubee.interview.model.enums.Race;
+import br.com.gubee.interview.model.request.CreateHeroRequest;
 import br.com.gubee.interview.model.request.UpdateHeroRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.UUID;
+import java.sql.PreparedStatement;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
 
 @Repository
+@Profile("!in-memory")
 @RequiredArgsConstructor
 public class HeroRepositoryPostgreImpl implements HeroRepository {
 
-    private static final String CREATE_HERO_QUERY = "INSERT INTO hero" +
-        " (name, race, power_stats_id)" +
-        " VALUES (:name, :race, :powerStatsId) RETURNING id";
+    /**
+     * The power stats and the hero are written by one statement, the hero taking its inline stats from
+     * the power stats row just inserted. A taken name fails the whole statement, so no power stats are
+     * left behind.
+     */
+    private static final String CREATE_HERO_WITH_POWER_STATS_QUERY = "WITH ps AS (" +
+        " INSERT INTO power_stats (strength, agility, dexterity, intelligence)" +
+        " VALUES (:strength, :agility, :dexterity, :intelligence)" +
+        " RETURNING id, strength, agility, dexterity, intelligence)" +
+        " INSERT INTO hero (name, race, power_stats_id, strength, agility, dexterity, intelligence)" +
+        " SELECT :name, CAST(:race AS hero_race), ps.id, ps.strength, ps.agility, ps.dexterity, ps.intelligence" +
+        " FROM ps" +
+        " RETURNING id";
+
+    private static final String CREATE_HEROES_WITH_POWER_STATS_QUERY = "WITH input" +
+        " (power_stats_id, name, race, strength, agility, dexterity, intelligence) AS (VALUES %s)," +
+        " fresh AS (SELECT * FROM input i WHERE NOT EXISTS (SELECT 1 FROM hero h WHERE h.name = i.name))," +
+        " stats AS (INSERT INTO power_stats (id, strength, agility, dexterity, intelligence)" +
+        " SELECT power_stats_id, strength, agility, dexterity, intelligence FROM fresh RETURNING id)" +
+        " INSERT INTO hero (name, race, power_stats_id, strength, agility, dexterity, intelligence)" +
+        " SELECT f.name, f.race, s.id, f.strength, f.agility, f.dexterity, f.intelligence" +
+        " FROM fresh f JOIN stats s ON s.id = f.power_stats_id" +
+        " ON CONFLICT (name) DO NOTHING" +
+        " RETURNING id, name";
+
+    private static final String CREATE_HEROES_WITH_POWER_STATS_ROW = "(:powerStatsId%1$d, :name%1$d, :race%1$d," +
+        " :strength%1$d, :agility%1$d, :dexterity%1$d, :intelligence%1$d)";
+
+    private static final String DELETE_ORPHAN_POWER_STATS_QUERY = "DELETE FROM power_stats ps" +
+        " WHERE ps.id IN (:powerStatsIds)" +
+        " AND NOT EXISTS (SELECT 1 FROM hero h WHERE h.power_stats_id = ps.id)";
 
     private static final String FIND_HERO_BY_UUID_QUERY = "SELECT *" +
             " FROM hero" +
             " WHERE id = :uuid";
 
+    /**
+     * The stats come from their copy inline in hero; power_stats is joined only for its timestamps, which
+     * the hero's ETag is built from.
+     */
+    private static final String FIND_HERO_WITH_POWER_STATS_BY_UUID_QUERY = "SELECT h.*," +
+            " ps.created_at AS ps_created_at, ps.updated_at AS ps_updated_at" +
+            " FROM hero h" +
+            " JOIN power_stats ps ON ps.id = h.power_stats_id" +
+            " WHERE h.id = :uuid";
+
+    private static final String FIND_HERO_VERSION_BY_UUID_QUERY = "SELECT h.updated_at, ps.updated_at AS ps_updated_at" +
+            " FROM hero h" +
+            " LEFT JOIN power_stats ps ON ps.id = h.power_stats_id" +
+            " WHERE h.id = :uuid";
+
     private static final String FIND_HERO_BY_NAME_QUERY = "SELECT *" +
             " FROM hero" +
             " WHERE name ilike :heroName";
 
-    private static final String UPDATE_HERO_BY_ID_QUERY = "UPDATE hero" +
-            " SET name = :name, race = :race, enabled = :enabled, updated_at = now()" +
-            " WHERE id = :id";
+    /**
+     * Served by the trigram index on hero.name, matches come back most similar first.
+     */
+    private static final String FIND_HEROES_BY_NAME_QUERY = "SELECT *" +
+            " FROM hero" +
+            " WHERE name ilike :pattern" +
+            " ORDER BY similarity(name, :heroName) DESC, name" +
+            " LIMIT :limit";
+
+    private static final int NAME = PartialUpdate.bit(0);
+    private static final int RACE = PartialUpdate.bit(1);
+    private static final int ENABLED = PartialUpdate.bit(2);
+    private static final int HERO_COLUMNS = NAME | RACE | ENABLED;
+    private static final int HERO_COLUMN_COUNT = 3;
 
-    private static final String DELETE_HERO_QUERY = "DELETE FROM hero" +
-            " WHERE id = :id";
+    private static final PartialUpdate UPDATE_HERO = new PartialUpdate(
+            "name", "race=CAST(:race AS hero_race)", "enabled");
+
+    private static final String HERO_RETURNING = "id, name, race, power_stats_id, created_at, updated_at, enabled";
+    private static final String POWER_STATS_RETURNING = "id, strength, agility, dexterity, intelligence, created_at, updated_at";
+
+    /**
+     * Applies the members of a PATCH to the hero and its power stats in one statement and returns the joined
+     * row as written. Each table is only updated for the members present in the patch, and only when one of
+     * them differs from the stored value; a table left alone is read as it is. {@code hero_written} and
+     * {@code power_stats_written} tell which tables were written. The inline copy of the stats in
+     * {@code hero} is refreshed by the {@code power_stats} trigger once the statement ends, so the stats
+     * are read from the power stats side.
+     */
+    private static final String UPDATE_HERO_WITH_POWER_STATS_QUERY = "WITH cur AS (SELECT id, power_stats_id FROM hero WHERE id = :id)," +
+            " h AS (%s)," +
+            " ps AS (%s)" +
+            " SELECT x.*, y.strength, y.agility, y.dexterity, y.intelligence," +
+            " y.created_at AS ps_created_at, y.updated_at AS ps_updated_at," +
+            " EXISTS (SELECT 1 FROM h) AS hero_written, EXISTS (SELECT 1 FROM ps) AS power_stats_written" +
+            " FROM (SELECT * FROM h UNION ALL" +
+            " SELECT " + HERO_RETURNING + " FROM hero WHERE id = :id AND NOT EXISTS (SELECT 1 FROM h)) x" +
+            " JOIN (SELECT * FROM ps UNION ALL" +
+            " SELECT " + POWER_STATS_RETURNING + " FROM power_stats" +
+            " WHERE id = (SELECT power_stats_id FROM cur) AND NOT EXISTS (SELECT 1 FROM ps)) y" +
+            " ON y.id = x.power_stats_id";
+
+    private static final String UPDATE_HERO_CTE = "UPDATE hero SET %s WHERE id = :id AND %s RETURNING " + HERO_RETURNING;
+    private static final String UPDATE_POWER_STATS_CTE = "UPDATE power_stats SET %s" +
+            " WHERE id = (SELECT power_stats_id FROM cur) AND %s RETURNING " + POWER_STATS_RETURNING;
+    private static final String UNCHANGED_HERO_CTE = "SELECT " + HERO_RETURNING + " FROM hero WHERE false";
+    private static final String UNCHANGED_POWER_STATS_CTE = "SELECT " + POWER_STATS_RETURNING + " FROM power_stats WHERE false";
+
+    /**
+     * Deletes the hero and then its power stats in one statement; the foreign key is only checked once
+     * the statement ends, when the hero is already gone. No row comes back when the hero does not exist.
+     */
+    private static final String DELETE_HERO_WITH_POWER_STATS_QUERY = "WITH h AS (" +
+            " DELETE FROM hero WHERE id = :id RETURNING power_stats_id)" +
+            " DELETE FROM power_stats" +
+            " WHERE id IN (SELECT power_stats_id FROM h)" +
+            " RETURNING id";
 
     private static final String FIND_ALL_HEROES_QUERY = "SELECT *" +
             " FROM hero" +
             " ORDER BY hero.name";
 
+    /**
+     * The power stats are read from their copy inline in hero, no join with power_stats is needed.
+     */
+    private static final String SELECT_HERO_WITH_POWER_STATS = "SELECT h.*" +
+            " FROM hero h";
+
+    private static final String FIND_FIRST_HEROES_PAGE_WITH_POWER_STATS_QUERY = SELECT_HERO_WITH_POWER_STATS +
+            " ORDER BY h.name, h.id" +
+            " LIMIT :limit";
+
+    private static final String FIND_HEROES_PAGE_WITH_POWER_STATS_QUERY = SELECT_HERO_WITH_POWER_STATS +
+            " WHERE (h.name, h.id) > (:afterName, :afterId)" +
+            " ORDER BY h.name, h.id" +
+            " LIMIT :limit";
+
+    private static final String FIND_FILTERED_HEROES_PAGE_WITH_POWER_STATS_QUERY = SELECT_HERO_WITH_POWER_STATS +
+            " WHERE %s" +
+            " ORDER BY h.name, h.id" +
+            " LIMIT :limit";
+
+    private static final String FILTER_BY_RACE = "h.race = CAST(:race AS hero_race)";
+
+    /**
+     * The hero column holding each score; the model only knows the scores themselves.
+     */
+    private static final Map<HeroRanking, String> RANKING_COLUMNS = new EnumMap<>(Map.of(
+            HeroRanking.TOTAL, "total_power",
+            HeroRanking.STRENGTH, "strength",
+            HeroRanking.AGILITY, "agility",
+            HeroRanking.DEXTERITY, "dexterity",
+            HeroRanking.INTELLIGENCE, "intelligence"));
+
+    private static final String FILTER_BY_STAT = "h.%1$s BETWEEN :%1$sMin AND :%1$sMax";
+
+    private static final String FILTER_AFTER = "(h.name, h.id) > (:afterName, :afterId)";
+
+    /**
+     * One grouping set per stat: in each row only the grouped stat column is not null.
+     */
+    private static final String RACE_HISTOGRAMS_QUERY = "SELECT race, strength, agility, dexterity, intelligence," +
+            " count(*) AS heroes" +
+            " FROM hero" +
+            " GROUP BY GROUPING SETS ((race, strength), (race, agility), (race, dexterity), (race, intelligence))";
+
+    private static final String STREAM_ALL_HEROES_WITH_POWER_STATS_QUERY = SELECT_HERO_WITH_POWER_STATS +
+            " ORDER BY h.id";
+
+    private static final String STREAM_HEROES_WITH_POWER_STATS_AFTER_QUERY = SELECT_HERO_WITH_POWER_STATS +
+            " WHERE h.id > ?" +
+            " ORDER BY h.id";
+
+    /**
+     * Rows pulled per round-trip while streaming. PgJDBC only honours it through a server-side cursor,
+     * which requires the caller to run inside a transaction (autocommit off).
+     */
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String FIND_HEROES_WITH_POWER_STATS_BY_NAMES_QUERY = SELECT_HERO_WITH_POWER_STATS +
+            " WHERE lower(h.name) IN (:heroNames)";
+
+    private static final String FIND_TOP_HEROES_WITH_POWER_STATS_QUERY = SELECT_HERO_WITH_POWER_STATS +
+            " ORDER BY h.%s DESC, h.name" +
+            " LIMIT :limit";
+
+    private static final String FIND_HEROES_WITH_POWER_STATS_BY_NAME_QUERY = SELECT_HERO_WITH_POWER_STATS +
+            " WHERE h.name ilike :pattern" +
+            " ORDER BY similarity(h.name, :heroName) DESC, h.name" +
+            " LIMIT :limit";
+
+    private final AtomicReferenceArray<String> updateWithPowerStatsQueries =
+            new AtomicReferenceArray<>(1 << (HERO_COLUMN_COUNT + PowerStatsRepositoryPostgreImpl.COLUMN_COUNT));
+
     private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final WriteCounters writeCounters;
 
     @Override
-    public UUID create(Hero hero) {
-        final Map<String, Object> params = Map.of("name", hero.getName(),
-            "race", hero.getRace().name(),
-            "powerStatsId", hero.getPowerStatsId());
+    public UUID createWithPowerStats(CreateHeroRequest createHeroRequest) {
+        final Map<String, Object> params = Map.of("name", createHeroRequest.getName(),
+            "race", createHeroRequest.getRace().name(),
+            "strength", createHeroRequest.getStrength(),
+            "agility", createHeroRequest.getAgility(),
+            "dexterity", createHeroRequest.getDexterity(),
+            "intelligence", createHeroRequest.getIntelligence());
 
         return namedParameterJdbcTemplate.queryForObject(
-            CREATE_HERO_QUERY,
+            CREATE_HERO_WITH_POWER_STATS_QUERY,
             params,
             UUID.class);
     }
 
+    /**
+     * Inserts the whole chunk with a single multi-row statement. Names already taken are filtered out
+     * before their power stats are written; a name claimed concurrently is skipped by ON CONFLICT and
+     * the power stats it left behind are removed right after.
+     */
+    @Override
+    public Map<String, UUID> createAllWithPowerStats(List<CreateHeroRequest> createHeroRequests) {
+        final MapSqlParameterSource params = new MapSqlParameterSource();
+        final StringJoiner rows = new StringJoiner(", ");
+        final List<UUID> powerStatsIds = new ArrayList<>(createHeroRequests.size());
+
+        for (int i = 0; i < createHeroRequests.size(); i++) {
+            CreateHeroRequest request = createHeroRequests.get(i);
+            UUID powerStatsId = UUID.randomUUID();
+            powerStatsIds.add(powerStatsId);
+
+            rows.add(format(CREATE_HEROES_WITH_POWER_STATS_ROW, i));
+            params.addValue("powerStatsId" + i, powerStatsId)
+                    .addValue("name" + i, request.getName())
+                    .addValue("race" + i, request.getRace().name())
+                    .addValue("strength" + i, request.getStrength())
+                    .addValue("agility" + i, request.getAgility())
+                    .addValue("dexterity" + i, request.getDexterity())
+                    .addValue("intelligence" + i, request.getIntelligence());
+        }
+
+        final Map<String, UUID> createdHeroes = new HashMap<>();
+        namedParameterJdbcTemplate.query(
+                format(CREATE_HEROES_WITH_POWER_STATS_QUERY, rows),
+                params,
+                (RowCallbackHandler) rs -> createdHeroes.put(rs.getString("name"), (UUID) rs.getObject("id"))
+        );
+
+        if (createdHeroes.size() < createHeroRequests.size())
+            namedParameterJdbcTemplate.update(
+                    DELETE_ORPHAN_POWER_STATS_QUERY,
+                    Map.of("powerStatsIds", powerStatsIds)
+            );
+
+        return createdHeroes;
+    }
+
     @Override
     public Optional<Hero> findById(UUID uuid) {
         final Map<String, Object> params = Map.of("uuid",uuid);
@@ -78,11 +310,35 @@ public class HeroRepositoryPostgreImpl implements HeroRepository {
     }
 
     @Override
-    public List<Hero> findManyByName(String heroName) {
-        final Map<String, Object> params = Map.of("heroName","%" + heroName + "%");
+    public Optional<HeroWithPowerStats> findByIdWithPowerStats(UUID uuid) {
+        final Map<String, Object> params = Map.of("uuid",uuid);
 
         return namedParameterJdbcTemplate.query(
-                FIND_HERO_BY_NAME_QUERY,
+                FIND_HERO_WITH_POWER_STATS_BY_UUID_QUERY,
+                params,
+                new HeroWithPowerStatsRowMapper(true)
+        ).stream().findFirst();
+    }
+
+    @Override
+    public Optional<HeroVersion> findVersionById(UUID uuid) {
+        final Map<String, Object> params = Map.of("uuid",uuid);
+
+        return namedParameterJdbcTemplate.query(
+                FIND_HERO_VERSION_BY_UUID_QUERY,
+                params,
+                new HeroVersionRowMapper()
+        ).stream().findFirst();
+    }
+
+    @Override
+    public List<Hero> findManyByName(String heroName, int limit) {
+        final Map<String, Object> params = Map.of("pattern", "%" + escapeLike(heroName) + "%",
+                "heroName", heroName,
+                "limit", limit);
+
+        return namedParameterJdbcTemplate.query(
+                FIND_HEROES_BY_NAME_QUERY,
                 params,
                 new HeroRowMapper()
         );
@@ -91,7 +347,7 @@ public class HeroRepositoryPostgreImpl implements HeroRepository {
     @Override
     public Optional<Hero> findByName(String heroName) {
 
-        final Map<String, Object> params = Map.of("heroName",heroName);
+        final Map<String, Object> params = Map.of("heroName", escapeLike(heroName));
 
         Hero hero;
 
@@ -119,38 +375,221 @@ public class HeroRepositoryPostgreImpl implements HeroRepository {
     }
 
     @Override
-    public void update(Hero hero, UpdateHeroRequest updateHeroRequest) {
-        Hero modifiedHero = changeFields(hero, updateHeroRequest);
+    public List<HeroWithPowerStats> findPageWithPowerStats(HeroCursor after, int limit) {
+        if (after == null)
+            return namedParameterJdbcTemplate.query(
+                    FIND_FIRST_HEROES_PAGE_WITH_POWER_STATS_QUERY,
+                    Map.of("limit", limit),
+                    new HeroWithPowerStatsRowMapper(false)
+            );
+
+        final Map<String, Object> params = Map.of("afterName", after.getName(),
+                "afterId", after.getId(),
+                "limit", limit);
+
+        return namedParameterJdbcTemplate.query(
+                FIND_HEROES_PAGE_WITH_POWER_STATS_QUERY,
+                params,
+                new HeroWithPowerStatsRowMapper(false)
+        );
+    }
+
+    /**
+     * Race equality is served by the {@code (race, name, id)} index, which also yields the page order;
+     * stat ranges are combined by Postgres from the per-stat indexes with a bitmap AND.
+     */
+    @Override
+    public List<HeroWithPowerStats> findFilteredPageWithPowerStats(HeroFilter filter, HeroCursor after, int limit) {
+        List<String> conditions = new ArrayList<>();
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+
+        if (filter.getRace() != null) {
+            conditions.add(FILTER_BY_RACE);
+            params.addValue("race", filter.getRace().name());
+        }
+
+        filter.getRanges().forEach((stat, range) -> {
+            String column = RANKING_COLUMNS.get(stat);
+            conditions.add(format(FILTER_BY_STAT, column));
+            params.addValue(column + "Min", range.getMin())
+                    .addValue(column + "Max", range.getMax());
+        });
+
+        if (after != null) {
+            conditions.add(FILTER_AFTER);
+            params.addValue("afterName", after.getName())
+                    .addValue("afterId", after.getId());
+        }
+
+        return namedParameterJdbcTemplate.query(
+                format(FIND_FILTERED_HEROES_PAGE_WITH_POWER_STATS_QUERY,
+                        conditions.isEmpty() ? "true" : String.join(" AND ", conditions)),
+                params,
+                new HeroWithPowerStatsRowMapper(false)
+        );
+    }
+
+    @Override
+    public void streamAllWithPowerStats(UUID after, Consumer<HeroWithPowerStats> consumer) {
+        HeroWithPowerStatsRowMapper rowMapper = new HeroWithPowerStatsRowMapper(false);
+
+        namedParameterJdbcTemplate.getJdbcOperations().query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(after == null
+                            ? STREAM_ALL_HEROES_WITH_POWER_STATS_QUERY
+                            : STREAM_HEROES_WITH_POWER_STATS_AFTER_QUERY);
+                    statement.setFetchSize(STREAM_FETCH_SIZE);
+                    if (after != null)
+                        statement.setObject(1, after);
+                    return statement;
+                },
+                (RowCallbackHandler) rs -> consumer.accept(rowMapper.mapRow(rs, rs.getRow()))
+        );
+    }
 
-        final Map<String, Object> params = Map.of("name", modifiedHero.getName(),
-                "race", modifiedHero.getRace().name(),
-                "enabled", modifiedHero.isEnabled(),
-                "id", modifiedHero.getId());
+    @Override
+    public List<HeroWithPowerStats> findManyByNameWithPowerStats(String heroName, int limit) {
+        final Map<String, Object> params = Map.of("pattern", "%" + escapeLike(heroName) + "%",
+                "heroName", heroName,
+                "limit", limit);
 
-        namedParameterJdbcTemplate.update(
-                UPDATE_HERO_BY_ID_QUERY,
-                params
+        return namedParameterJdbcTemplate.query(
+                FIND_HEROES_WITH_POWER_STATS_BY_NAME_QUERY,
+                params,
+                new HeroWithPowerStatsRowMapper(false)
         );
     }
 
+    /**
+     * Names are lower-cased here so the lookup is served by the index on {@code lower(name)}.
+     */
     @Override
-    public void delete(Hero hero) {
-        final Map<String, Object> params = Map.of("id", hero.getId());
+    public List<HeroWithPowerStats> findAllByNamesWithPowerStats(Collection<String> heroNames) {
+        if (heroNames.isEmpty())
+            return List.of();
 
-        namedParameterJdbcTemplate.update(
-                DELETE_HERO_QUERY,
-                params
+        final Map<String, Object> params = Map.of("heroNames", heroNames.stream()
+                .map(heroName -> heroName.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet()));
+
+        return namedParameterJdbcTemplate.query(
+                FIND_HEROES_WITH_POWER_STATS_BY_NAMES_QUERY,
+                params,
+                new HeroWithPowerStatsRowMapper(false)
         );
     }
 
-    private Hero changeFields(Hero hero, UpdateHeroRequest updateHeroRequest) {
-        if (updateHeroRequest.getName() != null && !hero.getName().equals(updateHeroRequest.getName()))
-            hero.setName(updateHeroRequest.getName());
-        if (updateHeroRequest.getRace() != null && !hero.getRace().equals(updateHeroRequest.getRace()))
-            hero.setRace(updateHeroRequest.getRace());
-        if (updateHeroRequest.getEnabled() != null && !hero.isEnabled() == updateHeroRequest.getEnabled())
-            hero.setEnabled(updateHeroRequest.getEnabled());
+    /**
+     * Each ranking column has a {@code (column DESC, name)} index, so only the first {@code limit} entries
+     * of the index are read instead of sorting every hero.
+     */
+    @Override
+    public List<HeroWithPowerStats> findTopWithPowerStats(HeroRanking ranking, int limit) {
+        final Map<String, Object> params = Map.of("limit", limit);
+
+        return namedParameterJdbcTemplate.query(
+                format(FIND_TOP_HEROES_WITH_POWER_STATS_QUERY, RANKING_COLUMNS.get(ranking)),
+                params,
+                new HeroWithPowerStatsRowMapper(false)
+        );
+    }
+
+    /**
+     * Every race is reported, those without heroes with empty histograms.
+     */
+    @Override
+    public List<RaceHistogram> findRaceHistograms() {
+        Map<Race, RaceHistogram> histograms = new EnumMap<>(Race.class);
+        for (Race race : Race.values())
+            histograms.put(race, new RaceHistogram(race));
+
+        namedParameterJdbcTemplate.query(RACE_HISTOGRAMS_QUERY, (RowCallbackHandler) rs -> {
+            RaceHistogram histogram = histograms.get(Race.valueOf(rs.getString("race")));
+
+            for (HeroRanking stat : HeroFilter.STATS) {
+                int value = rs.getInt(RANKING_COLUMNS.get(stat));
+                if (!rs.wasNull())
+                    histogram.add(stat, value, rs.getLong("heroes"));
+            }
+        });
+
+        return new ArrayList<>(histograms.values());
+    }
+
+    @Override
+    public Optional<HeroWithPowerStats> updateWithPowerStats(UUID uuid, UpdateHeroRequest updateHeroRequest) {
+        MapSqlParameterSource params = new MapSqlParameterSource("id", uuid)
+                .addValue("name", updateHeroRequest.getName())
+                .addValue("race", updateHeroRequest.getRace() == null ? null : updateHeroRequest.getRace().name())
+                .addValue("enabled", updateHeroRequest.getEnabled())
+                .addValue("strength", updateHeroRequest.getStrength())
+                .addValue("agility", updateHeroRequest.getAgility())
+                .addValue("dexterity", updateHeroRequest.getDexterity())
+                .addValue("intelligence", updateHeroRequest.getIntelligence());
+
+        HeroWithPowerStatsRowMapper heroWithPowerStatsRowMapper = new HeroWithPowerStatsRowMapper(true);
+        int presentColumns = presentColumns(updateHeroRequest);
+
+        return namedParameterJdbcTemplate.query(
+                updateWithPowerStatsQuery(presentColumns),
+                params,
+                (rs, rowNum) -> {
+                    if ((presentColumns & HERO_COLUMNS) != 0)
+                        writeCounters.record(rs.getBoolean("hero_written"));
+                    if (presentColumns >>> HERO_COLUMN_COUNT != 0)
+                        writeCounters.record(rs.getBoolean("power_stats_written"));
+                    return heroWithPowerStatsRowMapper.mapRow(rs, rowNum);
+                }
+        ).stream().findFirst();
+    }
+
+    @Override
+    public Optional<UUID> deleteWithPowerStats(UUID uuid) {
+        final Map<String, Object> params = Map.of("id", uuid);
+
+        return namedParameterJdbcTemplate.queryForList(
+                DELETE_HERO_WITH_POWER_STATS_QUERY,
+                params,
+                UUID.class
+        ).stream().findFirst();
+    }
+
+    /**
+     * Keeps the name literal inside a LIKE pattern, otherwise "%" or "_" in a search would act as wildcards.
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    /**
+     * Hero columns in the low bits, power stats columns above them.
+     */
+    private static int presentColumns(UpdateHeroRequest updateHeroRequest) {
+        int columns = (updateHeroRequest.getName() != null ? NAME : 0)
+                | (updateHeroRequest.getRace() != null ? RACE : 0)
+                | (updateHeroRequest.getEnabled() != null ? ENABLED : 0);
+
+        return columns | PowerStatsRepositoryPostgreImpl.presentColumns(updateHeroRequest) << HERO_COLUMN_COUNT;
+    }
+
+    private String updateWithPowerStatsQuery(int presentColumns) {
+        String query = updateWithPowerStatsQueries.get(presentColumns);
+
+        if (query == null) {
+            int heroColumns = presentColumns & HERO_COLUMNS;
+            int powerStatsColumns = presentColumns >>> HERO_COLUMN_COUNT;
+
+            query = format(UPDATE_HERO_WITH_POWER_STATS_QUERY,
+                    heroColumns == 0 ? UNCHANGED_HERO_CTE : format(UPDATE_HERO_CTE,
+                            UPDATE_HERO.setClause(heroColumns), UPDATE_HERO.changedPredicate(heroColumns)),
+                    powerStatsColumns == 0 ? UNCHANGED_POWER_STATS_CTE : format(UPDATE_POWER_STATS_CTE,
+                            PowerStatsRepositoryPostgreImpl.UPDATE_POWER_STATS.setClause(powerStatsColumns),
+                            PowerStatsRepositoryPostgreImpl.UPDATE_POWER_STATS.changedPredicate(powerStatsColumns)));
+            updateWithPowerStatsQueries.set(presentColumns, query);
+        }
 
-        return hero;
+        return query;
     }
 }
@@ -0,0 +1,83 @@
+package br.com.gubee.interview.core.features.hero.impl;
+
+import br.com.gubee.interview.model.HeroFilter;
+import br.com.gubee.interview.model.HeroRanking;
+import br.com.gubee.interview.model.HeroWithPowerStats;
+import br.com.gubee.interview.model.RaceHistogram;
+import br.com.gubee.interview.model.enums.Race;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Per-race histogram counters kept up to date on every hero or power stats change, so reading the race
+ * statistics never visits the heroes. Each hero's counted state is remembered to take it back out when
+ * the hero changes or goes away.
+ */
+class HeroStatsCounters {
+    private static final int BUCKETS = HeroFilter.MAX_STAT + 1;
+    private static final List<HeroRanking> STATS = List.copyOf(HeroFilter.STATS);
+
+    private final Map<Race, AtomicLongArray> counters = new EnumMap<>(Race.class);
+    private final ConcurrentMap<UUID, Counted> counted = new ConcurrentHashMap<>();
+
+    HeroStatsCounters() {
+        for (Race race : Race.values())
+            counters.put(race, new AtomicLongArray(STATS.size() * BUCKETS));
+    }
+
+    /**
+     * Swaps the hero's previous contribution for its current one, or drops it when {@code current} finds
+     * nothing. Changes to the same hero are serialised by its slot in {@code counted}.
+     */
+    void refresh(UUID heroId, Supplier<HeroWithPowerStats> current) {
+        counted.compute(heroId, (id, previous) -> {
+            if (previous != null)
+                previous.addTo(counters, -1);
+
+            HeroWithPowerStats heroWithPowerStats = current.get();
+            if (heroWithPowerStats == null || heroWithPowerStats.getHero().getRace() == null)
+                return null;
+
+            Counted next = new Counted(heroWithPowerStats);
+            next.addTo(counters, 1);
+            return next;
+        });
+    }
+
+    List<RaceHistogram> snapshot() {
+        List<RaceHistogram> histograms = new ArrayList<>();
+
+        counters.forEach((race, counter) -> {
+            RaceHistogram histogram = new RaceHistogram(race);
+            for (int i = 0; i < STATS.size(); i++)
+                for (int value = 0; value < BUCKETS; value++)
+                    histogram.add(STATS.get(i), value, counter.get(i * BUCKETS + value));
+            histograms.add(histogram);
+        });
+
+        return histograms;
+    }
+
+    private static final class Counted {
+        private final Race race;
+        private final int[] values = new int[STATS.size()];
+
+        private Counted(HeroWithPowerStats heroWithPowerStats) {
+            this.race = heroWithPowerStats.getHero().getRace();
+            for (int i = 0; i < STATS.size(); i++)
+                values[i] = STATS.get(i).score(heroWithPowerStats.getPowerStats());
+        }
+
+        private void addTo(Map<Race, AtomicLongArray> counters, int delta) {
+            AtomicLongArray counter = counters.get(race);
+
+            for (int i = 0; i < values.length; i++)
+                if (values[i] >= HeroFilter.MIN_STAT && values[i] <= HeroFilter.MAX_STAT)
+                    counter.addAndGet(i * BUCKETS + values[i], delta);
+        }
+    }
+}
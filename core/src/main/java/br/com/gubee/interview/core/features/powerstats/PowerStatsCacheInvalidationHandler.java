@@ -0,0 +1,33 @@
+package br.com.gubee.interview.core.features.powerstats;
+
+import br.com.gubee.interview.core.cache.CacheInvalidationHandler;
+import br.com.gubee.interview.model.PowerStats;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+@Profile("!in-memory")
+@RequiredArgsConstructor
+public class PowerStatsCacheInvalidationHandler implements CacheInvalidationHandler {
+
+    private final AsyncCache<UUID, PowerStats> powerStatsCache;
+
+    @Override
+    public String table() {
+        return "power_stats";
+    }
+
+    @Override
+    public void evict(UUID id) {
+        powerStatsCache.synchronous().invalidate(id);
+    }
+
+    @Override
+    public void evictAll() {
+        powerStatsCache.synchronous().invalidateAll();
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.gubee.interview.core.features.powerstats;
+
+import br.com.gubee.interview.model.dto.CacheStatsDTO;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+@RestController
+@RequestMapping(value = "/api/v1/power-stats", produces = APPLICATION_JSON_VALUE)
+public class PowerStatsController {
+
+    private final PowerStatsService powerStatsService;
+
+    public PowerStatsController(PowerStatsService powerStatsService) {
+        this.powerStatsService = powerStatsService;
+    }
+
+    @GetMapping("/cache-stats")
+    @ResponseStatus(HttpStatus.OK)
+    public CacheStatsDTO cacheStats() {
+        return powerStatsService.cacheStats();
+    }
+}
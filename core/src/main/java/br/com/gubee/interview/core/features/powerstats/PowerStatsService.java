@@ -1,21 +1,34 @@
 package br.com.gubee.interview.core.features.powerstats;
 
-import br.com.gubee.interview.model.Hero;
 import br.com.gubee.interview.model.PowerStats;
-import br.com.gubee.interview.model.request.UpdateHeroRequest;
+import br.com.gubee.interview.model.dto.CacheStatsDTO;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+/**
+ * Power stats change far less often than they are read, so lookups by id go through a bounded
+ * read-through cache. Every write evicts the entry, and again once the surrounding transaction
+ * completes so a concurrent read cannot put back the row as it was before the commit.
+ * <p>
+ * A miss is loaded by the reading thread, outside the cache: loading inside {@code Cache.get} would hold the
+ * map's lock for the whole query and pin a virtual thread to its carrier. The cache only holds the pending
+ * future, so the other readers of that id wait on it and an eviction still drops the row being loaded.
+ */
 @Service
 @RequiredArgsConstructor
 public class PowerStatsService {
 
     private final PowerStatsRepository powerStatsRepository;
+    private final AsyncCache<UUID, PowerStats> powerStatsCache;
 
     @Transactional
     public UUID create(PowerStats powerStats) {
@@ -23,25 +36,48 @@ public class PowerStatsService {
     }
 
     public PowerStats findById(UUID powerStatsId) {
-        return powerStatsRepository.findById(powerStatsId);
-    }
+        CompletableFuture<PowerStats> load = new CompletableFuture<>();
+        CompletableFuture<PowerStats> powerStats = powerStatsCache.get(powerStatsId, (id, executor) -> load);
 
-    public List<PowerStats> createPowerStatsList(List<Hero> heroes) {
-        List<PowerStats> powerStatsList =  new ArrayList<>();
+        if (powerStats == load) {
+            try {
+                load.complete(powerStatsRepository.findById(powerStatsId));
+            } catch (RuntimeException e) {
+                load.completeExceptionally(e);
+            }
+        }
 
-        heroes.forEach(hero -> {
-            powerStatsList.add(powerStatsRepository.findById(hero.getPowerStatsId()));
-        });
+        try {
+            return powerStats.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
 
-        return powerStatsList;
+    public void deleteById(UUID powerStatsId) {
+        powerStatsRepository.delete(powerStatsId);
+        evict(powerStatsId);
     }
 
-    public void update(UUID powerStatsId, UpdateHeroRequest updateHeroRequest) {
-        PowerStats powerStats = findById(powerStatsId);
-        powerStatsRepository.update(powerStats,updateHeroRequest);
+    /**
+     * For power stats written without going through this service.
+     */
+    public void evict(UUID powerStatsId) {
+        powerStatsCache.synchronous().invalidate(powerStatsId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    powerStatsCache.synchronous().invalidate(powerStatsId);
+                }
+            });
     }
 
-    public void deleteById(UUID powerStatsId) {
-        powerStatsRepository.delete(powerStatsId);
+    public CacheStatsDTO cacheStats() {
+        CacheStats stats = powerStatsCache.synchronous().stats();
+
+        return new CacheStatsDTO(powerStatsCache.synchronous().estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
     }
 }
@@ -3,20 +3,32 @@ package br.com.gubee.interview.core.features.powerstats.impl;
 import br.com.gubee.interview.core.features.powerstats.PowerStatsRepository;
 import br.com.gubee.interview.model.PowerStats;
 import br.com.gubee.interview.model.request.UpdateHeroRequest;
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
-import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
-@RequiredArgsConstructor
-@NoRepositoryBean
-@Getter
+import static java.util.Objects.requireNonNullElse;
+
+@Repository
+@Profile("in-memory")
 public class PowerStatsRepositoryInMemoryImpl implements PowerStatsRepository {
-    public static final Map<UUID, PowerStats> powerStatsStorage = new TreeMap<>();
+    private final Map<UUID, PowerStats> powerStatsStorage = new ConcurrentHashMap<>();
+    private final List<Consumer<UUID>> changeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registers a callback run with the power stats id after every update or delete.
+     */
+    public void addChangeListener(Consumer<UUID> changeListener) {
+        changeListeners.add(changeListener);
+    }
 
     @Override
     public UUID create(PowerStats powerStats) {
@@ -40,38 +52,48 @@ public class PowerStatsRepositoryInMemoryImpl implements PowerStatsRepository {
         return powerStatsStorage.get(powerStatsId);
     }
 
-    @Override
-    public void update(PowerStats powerStats, UpdateHeroRequest updateHeroRequest) {
+    /**
+     * The power stats as written, empty when they no longer exist.
+     */
+    public Optional<PowerStats> update(PowerStats powerStats, UpdateHeroRequest updateHeroRequest) {
         if (powerStats == null || updateHeroRequest == null)
             throw new NullPointerException();
 
-        PowerStats modifiedPowerStats = changeFields(powerStats, updateHeroRequest);
-        powerStatsStorage.put(powerStats.getId(),modifiedPowerStats);
+        PowerStats updated = powerStatsStorage.computeIfPresent(powerStats.getId(),
+                (id, stored) -> changeFields(stored, updateHeroRequest));
+        if (updated == null)
+            return Optional.empty();
+
+        notifyChange(powerStats.getId());
+        return Optional.of(updated);
     }
 
     @Override
     public void delete(UUID powerStatsId) {
-        if (powerStatsStorage.get(powerStatsId) == null)
+        if (powerStatsStorage.remove(powerStatsId) == null)
             throw new NullPointerException();
-
-        powerStatsStorage.remove(powerStatsId);
+        notifyChange(powerStatsId);
     }
 
-    private PowerStats changeFields(PowerStats powerStats, UpdateHeroRequest updateHeroRequest) {
-        if (updateHeroRequest.getStrength() != null && !(powerStats.getStrength() == updateHeroRequest.getStrength()))
-            powerStats.setStrength(updateHeroRequest.getStrength());
-
-        if (updateHeroRequest.getAgility() != null && !(powerStats.getAgility() == updateHeroRequest.getAgility()))
-            powerStats.setAgility(updateHeroRequest.getAgility());
-
-        if (updateHeroRequest.getDexterity() != null && !(powerStats.getDexterity() == updateHeroRequest.getDexterity()))
-            powerStats.setDexterity(updateHeroRequest.getDexterity());
-
-        if (updateHeroRequest.getStrength() != null && !(powerStats.getIntelligence() == updateHeroRequest.getIntelligence()))
-            powerStats.setIntelligence(updateHeroRequest.getIntelligence());
-
-        powerStats.setUpdatedAt(Instant.now());
+    private void notifyChange(UUID powerStatsId) {
+        changeListeners.forEach(changeListener -> changeListener.accept(powerStatsId));
+    }
 
-        return powerStats;
+    /**
+     * Returns the stored power stats when the request changes nothing, otherwise a modified copy, so a
+     * reader holding the stored instance never sees it half changed.
+     */
+    private static PowerStats changeFields(PowerStats powerStats, UpdateHeroRequest updateHeroRequest) {
+        int strength = requireNonNullElse(updateHeroRequest.getStrength(), powerStats.getStrength());
+        int agility = requireNonNullElse(updateHeroRequest.getAgility(), powerStats.getAgility());
+        int dexterity = requireNonNullElse(updateHeroRequest.getDexterity(), powerStats.getDexterity());
+        int intelligence = requireNonNullElse(updateHeroRequest.getIntelligence(), powerStats.getIntelligence());
+
+        if (strength == powerStats.getStrength() && agility == powerStats.getAgility()
+                && dexterity == powerStats.getDexterity() && intelligence == powerStats.getIntelligence())
+            return powerStats;
+
+        return new PowerStats(powerStats.getId(), strength, agility, dexterity, intelligence,
+                powerStats.getCreatedAt(), Instant.now());
     }
 }
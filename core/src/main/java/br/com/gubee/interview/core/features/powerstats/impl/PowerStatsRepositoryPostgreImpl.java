@@ -1,10 +1,12 @@
 package br.com.gubee.interview.core.features.powerstats.impl;
 
 import br.com.gubee.interview.core.features.powerstats.PowerStatsRepository;
+import br.com.gubee.interview.core.jdbc.PartialUpdate;
 import br.com.gubee.interview.core.mapper.PowerStatsRowMapper;
 import br.com.gubee.interview.model.PowerStats;
 import br.com.gubee.interview.model.request.UpdateHeroRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
@@ -15,6 +17,7 @@ import java.util.Map;
 import java.util.UUID;
 
 @Repository("PowerStatsRepositoryPostgreImpl")
+@Profile("!in-memory")
 @RequiredArgsConstructor
 public class PowerStatsRepositoryPostgreImpl implements PowerStatsRepository {
 
@@ -26,13 +29,14 @@ public class PowerStatsRepositoryPostgreImpl implements PowerStatsRepository {
             " FROM power_stats" +
             " WHERE id = :uuid";
 
-    private static final String UPDATE_POWER_STATS_BY_ID_QUERY = "UPDATE power_stats" +
-            " SET strength = :strength," +
-            " agility = :agility," +
-            " dexterity = :dexterity," +
-            " intelligence = :intelligence," +
-            " updated_at = now()" +
-            " WHERE id = :id";
+    private static final int STRENGTH = PartialUpdate.bit(0);
+    private static final int AGILITY = PartialUpdate.bit(1);
+    private static final int DEXTERITY = PartialUpdate.bit(2);
+    private static final int INTELLIGENCE = PartialUpdate.bit(3);
+    public static final int COLUMN_COUNT = 4;
+
+    public static final PartialUpdate UPDATE_POWER_STATS = new PartialUpdate(
+            "strength", "agility", "dexterity", "intelligence");
 
     private static final String DELETE_POWER_STATS_BY_ID_QUERY = "DELETE FROM power_stats" +
             " WHERE id = :id";
@@ -67,22 +71,6 @@ public class PowerStatsRepositoryPostgreImpl implements PowerStatsRepository {
         return powerStats;
     }
 
-    @Override
-    public void update(PowerStats powerStats, UpdateHeroRequest updateHeroRequest) {
-        PowerStats modifiedPowerStats = changeFields(powerStats, updateHeroRequest);
-
-        final Map<String, Object> params = Map.of("strength", modifiedPowerStats.getStrength(),
-                "agility", modifiedPowerStats.getAgility(),
-                "dexterity", modifiedPowerStats.getDexterity(),
-                "intelligence", modifiedPowerStats.getIntelligence(),
-                "id", modifiedPowerStats.getId());
-
-        namedParameterJdbcTemplate.update(
-                UPDATE_POWER_STATS_BY_ID_QUERY,
-                params
-        );
-    }
-
     @Override
     public void delete(UUID powerStatsId) {
         final Map<String, Object> params = Map.of("id", powerStatsId);
@@ -93,19 +81,10 @@ public class PowerStatsRepositoryPostgreImpl implements PowerStatsRepository {
         );
     }
 
-    private PowerStats changeFields(PowerStats powerStats, UpdateHeroRequest updateHeroRequest) {
-        if (updateHeroRequest.getStrength() != null && !(powerStats.getStrength() == updateHeroRequest.getStrength()))
-            powerStats.setStrength(updateHeroRequest.getStrength());
-
-        if (updateHeroRequest.getAgility() != null && !(powerStats.getAgility() == updateHeroRequest.getAgility()))
-            powerStats.setAgility(updateHeroRequest.getAgility());
-
-        if (updateHeroRequest.getDexterity() != null && !(powerStats.getDexterity() == updateHeroRequest.getDexterity()))
-            powerStats.setDexterity(updateHeroRequest.getDexterity());
-
-        if (updateHeroRequest.getStrength() != null && !(powerStats.getIntelligence() == updateHeroRequest.getIntelligence()))
-            powerStats.setIntelligence(updateHeroRequest.getIntelligence());
-
-        return powerStats;
+    public static int presentColumns(UpdateHeroRequest updateHeroRequest) {
+        return (updateHeroRequest.getStrength() != null ? STRENGTH : 0)
+                | (updateHeroRequest.getAgility() != null ? AGILITY : 0)
+                | (updateHeroRequest.getDexterity() != null ? DEXTERITY : 0)
+                | (updateHeroRequest.getIntelligence() != null ? INTELLIGENCE : 0);
     }
 }
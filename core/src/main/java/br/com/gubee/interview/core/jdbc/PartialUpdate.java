@@ -0,0 +1,67 @@
+package br.com.gubee.interview.core.jdbc;
+
+import java.util.StringJoiner;
+import java.util.function.IntConsumer;
+
+/**
+ * The pieces of an UPDATE of one table that sets only the columns a write carries, named by a bit mask
+ * where bit {@code i} stands for the i-th column. Leaving the other columns out keeps an update that
+ * touches no indexed column eligible for a HOT update.
+ */
+public class PartialUpdate {
+
+    private final String[] columns;
+    private final String[] values;
+
+    /**
+     * @param columns every column as {@code name} bound to {@code :name}, or as {@code name=expression}
+     *                when the parameter needs a cast.
+     */
+    public PartialUpdate(String... columns) {
+        this.columns = new String[columns.length];
+        this.values = new String[columns.length];
+
+        for (int i = 0; i < columns.length; i++) {
+            int separator = columns[i].indexOf('=');
+            this.columns[i] = separator < 0 ? columns[i] : columns[i].substring(0, separator);
+            this.values[i] = separator < 0 ? ":" + columns[i] : columns[i].substring(separator + 1);
+        }
+    }
+
+    public static int bit(int column) {
+        return 1 << column;
+    }
+
+    public String setClause(int changedColumns) {
+        StringJoiner set = new StringJoiner(", ");
+
+        forEachColumn(changedColumns, i -> set.add(columns[i] + " = " + values[i]));
+
+        return set.add("updated_at = now()").toString();
+    }
+
+    /**
+     * True for a row where any of the given columns differs from its parameter, which lets the database
+     * itself leave a row alone when a write would not change it.
+     */
+    public String changedPredicate(int changedColumns) {
+        StringJoiner predicate = new StringJoiner(" OR ", "(", ")");
+
+        forEachColumn(changedColumns, i -> predicate.add(columns[i] + " IS DISTINCT FROM " + values[i]));
+
+        return predicate.toString();
+    }
+
+    private void forEachColumn(int changedColumns, IntConsumer action) {
+        checkColumns(changedColumns);
+
+        for (int i = 0; i < columns.length; i++)
+            if ((changedColumns & bit(i)) != 0)
+                action.accept(i);
+    }
+
+    private void checkColumns(int changedColumns) {
+        if (changedColumns <= 0 || changedColumns >= bit(columns.length))
+            throw new IllegalArgumentException("Invalid set of changed columns: " + changedColumns);
+    }
+}
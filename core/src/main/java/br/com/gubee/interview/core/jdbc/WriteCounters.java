@@ -0,0 +1,28 @@
+package br.com.gubee.interview.core.jdbc;
+
+import br.com.gubee.interview.model.dto.WriteStatsDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the row updates actually written against those skipped because the request would not have
+ * changed the row.
+ */
+@Component
+public class WriteCounters {
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    public void record(boolean written) {
+        if (written)
+            executed.increment();
+        else
+            skipped.increment();
+    }
+
+    public WriteStatsDTO toDTO() {
+        return new WriteStatsDTO(executed.sum(), skipped.sum());
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.gubee.interview.core.mapper;
+
+import br.com.gubee.interview.model.HeroVersion;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Maps the {@code updated_at} of a hero and the {@code ps_updated_at} of its power stats, which is null
+ * when the hero has none.
+ */
+public class HeroVersionRowMapper implements RowMapper<HeroVersion> {
+
+    @Override
+    public HeroVersion mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp powerStatsUpdatedAt = rs.getTimestamp("ps_updated_at");
+
+        return new HeroVersion(rs.getTimestamp("updated_at").toInstant(),
+                powerStatsUpdatedAt == null ? null : powerStatsUpdatedAt.toInstant());
+    }
+}
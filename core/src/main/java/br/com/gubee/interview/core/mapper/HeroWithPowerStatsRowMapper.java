@@ -0,0 +1,49 @@
+package br.com.gubee.interview.core.mapper;
+
+import br.com.gubee.interview.model.Hero;
+import br.com.gubee.interview.model.HeroWithPowerStats;
+import br.com.gubee.interview.model.PowerStats;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Maps a hero row along with its power stats. The stats are read from the {@code strength},
+ * {@code agility}, {@code dexterity} and {@code intelligence} columns, which is both the copy inline in
+ * {@code hero} and the shape of {@code hero JOIN power_stats}. The power stats timestamps only exist in the
+ * joined shape, aliased as {@code ps_created_at} and {@code ps_updated_at}; each query says which shape it
+ * returns, and they are left null for the inline one.
+ */
+public class HeroWithPowerStatsRowMapper implements RowMapper<HeroWithPowerStats> {
+
+    private final HeroRowMapper heroRowMapper = new HeroRowMapper();
+    private final boolean joined;
+
+    public HeroWithPowerStatsRowMapper(boolean joined) {
+        this.joined = joined;
+    }
+
+    @Override
+    public HeroWithPowerStats mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Hero hero = heroRowMapper.mapRow(rs, rowNum);
+
+        PowerStats powerStats = PowerStats.builder()
+                .id(hero.getPowerStatsId())
+                .strength(rs.getInt("strength"))
+                .agility(rs.getInt("agility"))
+                .dexterity(rs.getInt("dexterity"))
+                .intelligence(rs.getInt("intelligence"))
+                .createdAt(joined ? toInstant(rs.getTimestamp("ps_created_at")) : null)
+                .updatedAt(joined ? toInstant(rs.getTimestamp("ps_updated_at")) : null)
+                .build();
+
+        return new HeroWithPowerStats(hero, powerStats);
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+}
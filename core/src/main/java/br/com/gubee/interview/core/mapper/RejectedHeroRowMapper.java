@@ -0,0 +1,17 @@
+package br.com.gubee.interview.core.mapper;
+
+import br.com.gubee.interview.model.dto.RejectedHeroRowDTO;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class RejectedHeroRowMapper implements RowMapper<RejectedHeroRowDTO> {
+    @Override
+    public RejectedHeroRowDTO mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new RejectedHeroRowDTO(
+                rs.getLong("row_no"),
+                rs.getString("name"),
+                rs.getString("reason"));
+    }
+}
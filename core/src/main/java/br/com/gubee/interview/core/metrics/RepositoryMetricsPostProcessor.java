@@ -0,0 +1,87 @@
+package br.com.gubee.interview.core.metrics;
+
+import br.com.gubee.interview.core.features.hero.HeroRepository;
+import br.com.gubee.interview.core.features.powerstats.PowerStatsRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Times every call to a {@link HeroRepository} or {@link PowerStatsRepository} method as
+ * {@value #METRIC}, tagged with the repository, the implementation answering it, the method and the
+ * exception thrown, if any. Calls a repository makes to itself are not timed.
+ */
+public class RepositoryMetricsPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+    public static final String METRIC = "repository.invocations";
+
+    private static final Class<?>[] REPOSITORIES = {HeroRepository.class, PowerStatsRepository.class};
+
+    public RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.advisor = new DefaultPointcutAdvisor(new RepositoryMethodPointcut(), new TimingInterceptor(meterRegistry));
+        this.beforeExistingAdvisors = true;
+        setProxyTargetClass(true);
+    }
+
+    @Override
+    protected boolean isEligible(Object bean, String beanName) {
+        return repository(bean.getClass()) != null && super.isEligible(bean, beanName);
+    }
+
+    private static Class<?> repository(Class<?> type) {
+        for (Class<?> repository : REPOSITORIES)
+            if (repository.isAssignableFrom(type))
+                return repository;
+
+        return null;
+    }
+
+    /**
+     * Only the methods of the repository interfaces, not the extra ones an implementation has.
+     */
+    private static class RepositoryMethodPointcut extends StaticMethodMatcherPointcut {
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            Class<?> repository = repository(targetClass);
+            return repository != null && ReflectionUtils.findMethod(repository, method.getName(), method.getParameterTypes()) != null;
+        }
+    }
+
+    private static class TimingInterceptor implements MethodInterceptor {
+        private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+        TimingInterceptor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+            this.meterRegistryProvider = meterRegistryProvider;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            MeterRegistry meterRegistry = meterRegistryProvider.getObject();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String exception = "none";
+
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                exception = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                Class<?> implementation = AopUtils.getTargetClass(invocation.getThis());
+                sample.stop(Timer.builder(METRIC)
+                        .tag("repository", repository(implementation).getSimpleName())
+                        .tag("implementation", implementation.getSimpleName())
+                        .tag("method", invocation.getMethod().getName())
+                        .tag("exception", exception)
+                        .register(meterRegistry));
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.gubee.interview.core.configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reports virtual threads pinned to their carrier, typically by blocking inside a {@code synchronized}
+ * block, longer than the threshold. Each one is counted as {@code jvm.threads.virtual.pinned} and logged
+ * with the frame it blocked in followed by the application frames that led there: the monitor is often
+ * held further up, by a library such as the cache, so the frame that blocked alone does not name it.
+ */
+@Slf4j
+@Component
+@Profile("virtual-threads")
+public class PinnedThreadMonitor implements MeterBinder {
+    private static final String VIRTUAL_THREAD_PINNED = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "br.com.gubee.";
+
+    @Value("${virtual-threads.pinned-threshold:20ms}")
+    private Duration threshold;
+
+    private final LongAdder pinned = new LongAdder();
+    private RecordingStream recording;
+
+    @PostConstruct
+    void start() {
+        recording = new RecordingStream();
+        recording.enable(VIRTUAL_THREAD_PINNED).withThreshold(threshold).withStackTrace();
+        recording.onEvent(VIRTUAL_THREAD_PINNED, this::report);
+        recording.startAsync();
+    }
+
+    @PreDestroy
+    void stop() {
+        recording.close();
+    }
+
+    public long pinnedCount() {
+        return pinned.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("jvm.threads.virtual.pinned", pinned, LongAdder::sum)
+                .description("Virtual threads pinned to their carrier longer than the threshold")
+                .register(meterRegistry);
+    }
+
+    private void report(RecordedEvent event) {
+        pinned.increment();
+
+        if (event.getStackTrace() == null) {
+            log.warn("Virtual thread pinned for {}ms", event.getDuration().toMillis());
+            return;
+        }
+
+        List<RecordedFrame> frames = event.getStackTrace().getFrames().stream()
+                .dropWhile(PinnedThreadMonitor::isJdkFrame)
+                .collect(Collectors.toList());
+        String reported = Stream.concat(frames.stream().limit(1), frames.stream().skip(1).filter(PinnedThreadMonitor::isApplicationFrame))
+                .map(PinnedThreadMonitor::frame)
+                .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+
+        log.warn("Virtual thread pinned for {}ms{}", event.getDuration().toMillis(), reported);
+    }
+
+    private static boolean isJdkFrame(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.");
+    }
+
+    private static boolean isApplicationFrame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE);
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,46 @@
+-- Row width and read latency of hero, to compare before and after V1.7 (inline power stats).
+-- Run it with psql against a populated database, once on each schema version:
+--   psql -h localhost -U gubee -d postgres -f hero_row_width.sql
+SET search_path = interview_service, public;
+
+SELECT EXISTS (SELECT 1
+               FROM information_schema.columns
+               WHERE table_schema = 'interview_service'
+                 AND table_name = 'hero'
+                 AND column_name = 'strength') AS inline_power_stats \gset
+
+\echo '== Rows and sizes'
+SELECT count(*)                                             AS heroes,
+       round(avg(pg_column_size(h.*)), 1)                   AS avg_hero_row_bytes,
+       pg_size_pretty(pg_table_size('hero'))                AS hero_table,
+       pg_size_pretty(pg_indexes_size('hero'))              AS hero_indexes,
+       pg_size_pretty(pg_total_relation_size('power_stats')) AS power_stats_total
+FROM hero h;
+
+\echo '== Listing page, hero JOIN power_stats'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT h.id, h.name, h.race, ps.strength, ps.agility, ps.dexterity, ps.intelligence
+FROM hero h
+         JOIN power_stats ps ON ps.id = h.power_stats_id
+ORDER BY h.name, h.id
+LIMIT 100;
+
+\echo '== Full scan, hero JOIN power_stats'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT h.id, h.name, h.race, ps.strength, ps.agility, ps.dexterity, ps.intelligence
+FROM hero h
+         JOIN power_stats ps ON ps.id = h.power_stats_id;
+
+\if :inline_power_stats
+\echo '== Listing page, inline power stats'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT h.id, h.name, h.race, h.strength, h.agility, h.dexterity, h.intelligence
+FROM hero h
+ORDER BY h.name, h.id
+LIMIT 100;
+
+\echo '== Full scan, inline power stats'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT h.id, h.name, h.race, h.strength, h.agility, h.dexterity, h.intelligence
+FROM hero h;
+\endif
@@ -0,0 +1,6 @@
+-- One index per leaderboard ranking: the top K heroes are the first K entries, ties broken by name.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_hero_total_power ON hero (total_power DESC, name);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_hero_strength ON hero (strength DESC, name);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_hero_agility ON hero (agility DESC, name);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_hero_dexterity ON hero (dexterity DESC, name);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_hero_intelligence ON hero (intelligence DESC, name);
@@ -0,0 +1,2 @@
+-- Serves the filtered listing by race in page order; stat ranges reuse the per-stat leaderboard indexes.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_hero_race_name_id ON hero (race, name, id);
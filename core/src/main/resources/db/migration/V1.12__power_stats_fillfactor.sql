@@ -0,0 +1,4 @@
+-- Leave room in power_stats pages so stat updates stay HOT, written in the same page without touching the
+-- primary key, its only index. hero keeps full pages: its writes change indexed columns, name and race or
+-- the inline stats the V1.7 trigger copies, so they could never be HOT. Applies to pages written from now on.
+ALTER TABLE power_stats SET (fillfactor = 90);
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_hero_name_id ON hero (name, id);
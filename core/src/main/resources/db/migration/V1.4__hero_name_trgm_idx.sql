@@ -0,0 +1,2 @@
+-- CONCURRENTLY keeps hero writable while the index builds; Flyway runs this script outside a transaction.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_hero_name_trgm ON hero USING gin (name gin_trgm_ops);
@@ -0,0 +1,17 @@
+-- Lets every node evict its local caches when another node changes a row: the payload is '<table>:<id>'
+-- and is only delivered once the writing transaction commits.
+CREATE OR REPLACE FUNCTION notify_cache_invalidation() RETURNS trigger AS
+$$
+BEGIN
+    PERFORM pg_notify('cache_invalidation', TG_TABLE_NAME || ':' || CASE TG_OP WHEN 'DELETE' THEN OLD.id ELSE NEW.id END);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER power_stats_cache_invalidation
+    AFTER UPDATE OR DELETE ON power_stats
+    FOR EACH ROW EXECUTE PROCEDURE notify_cache_invalidation();
+
+CREATE TRIGGER hero_cache_invalidation
+    AFTER UPDATE OR DELETE ON hero
+    FOR EACH ROW EXECUTE PROCEDURE notify_cache_invalidation();
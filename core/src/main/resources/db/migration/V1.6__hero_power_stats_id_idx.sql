@@ -0,0 +1,2 @@
+-- Serves the FK check on power_stats deletes and the copy of power stats changes into hero.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_hero_power_stats_id ON hero (power_stats_id);
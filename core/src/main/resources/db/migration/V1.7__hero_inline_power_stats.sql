@@ -0,0 +1,76 @@
+-- Compact hero rows: race becomes a 4 byte enum instead of VARCHAR(255) + CHECK, and the four power stats
+-- are copied inline as SMALLINTs so reads no longer join power_stats.
+--
+-- power_stats stays the table writers go through. The triggers below keep the inline copy in sync, so
+-- nodes still writing only to power_stats keep working while the others are rolled out. The assignment
+-- casts do the same for writers still binding race as a string.
+CREATE TYPE hero_race AS ENUM ('HUMAN', 'ALIEN', 'DIVINE', 'CYBORG');
+CREATE CAST (varchar AS hero_race) WITH INOUT AS ASSIGNMENT;
+CREATE CAST (text AS hero_race) WITH INOUT AS ASSIGNMENT;
+
+ALTER TABLE hero
+    DROP CONSTRAINT IF EXISTS hero_race_check,
+    ALTER COLUMN race TYPE hero_race USING race::hero_race,
+    ADD COLUMN strength     SMALLINT CHECK ( strength BETWEEN 0 AND 10 ),
+    ADD COLUMN agility      SMALLINT CHECK ( agility BETWEEN 0 AND 10 ),
+    ADD COLUMN dexterity    SMALLINT CHECK ( dexterity BETWEEN 0 AND 10 ),
+    ADD COLUMN intelligence SMALLINT CHECK ( intelligence BETWEEN 0 AND 10 );
+
+ALTER TABLE hero DISABLE TRIGGER hero_cache_invalidation;
+UPDATE hero h
+SET strength     = ps.strength,
+    agility      = ps.agility,
+    dexterity    = ps.dexterity,
+    intelligence = ps.intelligence
+FROM power_stats ps
+WHERE ps.id = h.power_stats_id;
+ALTER TABLE hero ENABLE TRIGGER hero_cache_invalidation;
+
+ALTER TABLE hero
+    ALTER COLUMN strength SET NOT NULL,
+    ALTER COLUMN agility SET NOT NULL,
+    ALTER COLUMN dexterity SET NOT NULL,
+    ALTER COLUMN intelligence SET NOT NULL;
+
+-- A hero inserted without its stats, or moved to other power stats, copies them from power_stats.
+CREATE OR REPLACE FUNCTION copy_power_stats_into_hero() RETURNS trigger AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' AND NEW.strength IS NOT NULL THEN
+        RETURN NEW;
+    END IF;
+
+    SELECT ps.strength, ps.agility, ps.dexterity, ps.intelligence
+    INTO NEW.strength, NEW.agility, NEW.dexterity, NEW.intelligence
+    FROM power_stats ps
+    WHERE ps.id = NEW.power_stats_id;
+
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER hero_inline_power_stats
+    BEFORE INSERT OR UPDATE OF power_stats_id ON hero
+    FOR EACH ROW EXECUTE PROCEDURE copy_power_stats_into_hero();
+
+-- Changed power stats are copied into their hero, whose updated_at then also covers the stats.
+CREATE OR REPLACE FUNCTION copy_power_stats_into_heroes() RETURNS trigger AS
+$$
+BEGIN
+    UPDATE hero
+    SET strength     = NEW.strength,
+        agility      = NEW.agility,
+        dexterity    = NEW.dexterity,
+        intelligence = NEW.intelligence,
+        updated_at   = greatest(updated_at, NEW.updated_at)
+    WHERE power_stats_id = NEW.id;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER power_stats_inline_copy
+    AFTER UPDATE ON power_stats
+    FOR EACH ROW
+    WHEN (OLD.* IS DISTINCT FROM NEW.*)
+    EXECUTE PROCEDURE copy_power_stats_into_heroes();
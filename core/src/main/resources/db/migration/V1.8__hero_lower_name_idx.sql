@@ -0,0 +1,2 @@
+-- Serves the case-insensitive lookup of many names at once used by compare.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_hero_lower_name ON hero (lower(name));
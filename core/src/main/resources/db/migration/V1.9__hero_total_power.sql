@@ -0,0 +1,3 @@
+-- Sum of the inline power stats, kept by Postgres so the leaderboard can be read from an index.
+ALTER TABLE hero
+    ADD COLUMN total_power SMALLINT GENERATED ALWAYS AS (strength + agility + dexterity + intelligence) STORED;
@@ -12,3 +12,4 @@ GRANT EXECUTE ON ALL FUNCTIONS IN SCHEMA interview_service TO gubee;
 SET SCHEMA 'interview_service';
 CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
 GRANT EXECUTE ON FUNCTION uuid_generate_v4() TO gubee;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
@@ -0,0 +1,62 @@
+package br.com.gubee.interview.core.cache;
+
+import br.com.gubee.interview.core.features.hero.HeroService;
+import br.com.gubee.interview.core.features.powerstats.PowerStatsService;
+import br.com.gubee.interview.model.Hero;
+import br.com.gubee.interview.model.PowerStats;
+import br.com.gubee.interview.model.enums.Race;
+import br.com.gubee.interview.model.request.CreateHeroRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CacheInvalidationListenerIT {
+
+    @Autowired
+    private HeroService heroService;
+    @Autowired
+    private PowerStatsService powerStatsService;
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        heroService.findAll().forEach(h -> heroService.deleteById(h.getId()));
+    }
+
+    @Test
+    public void listenerDeveriaRemoverDoCacheOPowerStatsAlteradoPorOutroNo() throws InterruptedException {
+        // given
+        UUID uuid = heroService.create(CreateHeroRequest.builder()
+                .name("Batman")
+                .race(Race.HUMAN)
+                .strength(5)
+                .agility(5)
+                .dexterity(5)
+                .intelligence(5)
+                .build());
+        UUID powerStatsId = heroService.findById(uuid).map(Hero::getPowerStatsId).get();
+        assertEquals(5, powerStatsService.findById(powerStatsId).getStrength());
+
+        // when
+        namedParameterJdbcTemplate.update("UPDATE power_stats SET strength = 9 WHERE id = :id", Map.of("id", powerStatsId));
+
+        // then
+        PowerStats powerStats = powerStatsService.findById(powerStatsId);
+        for (int attempt = 0; attempt < 50 && powerStats.getStrength() != 9; attempt++) {
+            Thread.sleep(100);
+            powerStats = powerStatsService.findById(powerStatsId);
+        }
+        assertEquals(9, powerStats.getStrength());
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.gubee.interview.core.configuration;
+
+import br.com.gubee.interview.core.features.hero.HeroRepository;
+import br.com.gubee.interview.core.features.hero.impl.HeroRepositoryInMemoryImpl;
+import br.com.gubee.interview.model.enums.Race;
+import br.com.gubee.interview.model.request.CreateHeroRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("in-memory")
+class InMemoryConfigurationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private HeroRepository heroRepository;
+
+    @Test
+    void inMemoryProfileShouldServeTheApiWithoutADatabase() throws Exception {
+        // given
+        CreateHeroRequest request = CreateHeroRequest.builder()
+                .name("Batman")
+                .race(Race.HUMAN)
+                .strength(6)
+                .agility(5)
+                .dexterity(8)
+                .intelligence(10)
+                .build();
+
+        // when
+        mockMvc.perform(post("/api/v1/heroes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        // then
+        assertTrue(heroRepository instanceof HeroRepositoryInMemoryImpl);
+        mockMvc.perform(get("/api/v1/heroes/search/{heroName}", "bat"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].name").value("Batman"))
+                .andExpect(jsonPath("$.[0].power_stats.intelligence").value(10));
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.gubee.interview.core.configuration;
+
+import br.com.gubee.interview.model.enums.Race;
+import br.com.gubee.interview.model.request.CreateHeroRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@ActiveProfiles("in-memory")
+class MetricsConfigurationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void prometheusShouldPublishEndpointRepositoryPoolAndCacheMetrics() throws Exception {
+        // given
+        CreateHeroRequest request = CreateHeroRequest.builder()
+                .name("Batman")
+                .race(Race.HUMAN)
+                .strength(6)
+                .agility(5)
+                .dexterity(8)
+                .intelligence(10)
+                .build();
+
+        // when
+        mockMvc.perform(post("/api/v1/heroes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/v1/heroes/search/{heroName}", "bat"))
+                .andExpect(status().isOk());
+
+        // then
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("repository_invocations_seconds_count{")))
+                .andExpect(content().string(containsString("implementation=\"HeroRepositoryInMemoryImpl\"")))
+                .andExpect(content().string(containsString("repository=\"PowerStatsRepository\"")))
+                .andExpect(content().string(containsString("hikaricp_connections{")))
+                .andExpect(content().string(containsString("pool=\"metrics-test-pool\"")))
+                .andExpect(content().string(containsString("cache_gets_total{")))
+                .andExpect(content().string(containsString("cache=\"power-stats\"")));
+    }
+
+    @TestConfiguration
+    static class PoolConfiguration {
+
+        /**
+         * Started before the registry exists, as Flyway starts the {@link JdbcConfiguration} pool.
+         */
+        @Bean
+        DataSource dataSource() throws SQLException {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("metrics-test-pool");
+            dataSource.setJdbcUrl("jdbc:h2:mem:metrics");
+
+            try (Connection ignored = dataSource.getConnection()) {
+                return dataSource;
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.gubee.interview.core.features.hero;
+
+import br.com.gubee.interview.model.dto.CreatedHeroResultDTO;
+import br.com.gubee.interview.model.enums.Race;
+import br.com.gubee.interview.model.request.CreateHeroRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(HeroBatchController.class)
+class HeroBatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private HeroBatchService heroBatchService;
+
+    @Test
+    void createDeveriaRetornarCodigo200ComOResultadoDeCadaItem() throws Exception {
+        //given
+        UUID batmanId = UUID.randomUUID();
+        final String body = objectMapper.writeValueAsString(List.of(createHeroRequest("Batman"), createHeroRequest("Batman")));
+
+        when(heroBatchService.createAll(any())).thenReturn(List.of(
+                CreatedHeroResultDTO.created(0, batmanId),
+                CreatedHeroResultDTO.rejected(1, List.of(HeroBatchService.DUPLICATED_NAME))));
+
+        //when
+        final ResultActions resultActions = mockMvc.perform(post("/api/v1/heroes/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+
+        //then
+        resultActions.andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(2))
+                .andExpect(jsonPath("$.[0].index").value(0))
+                .andExpect(jsonPath("$.[0].id").value(batmanId.toString()))
+                .andExpect(jsonPath("$.[0].errors").doesNotExist())
+                .andExpect(jsonPath("$.[1].index").value(1))
+                .andExpect(jsonPath("$.[1].id").doesNotExist())
+                .andExpect(jsonPath("$.[1].errors[0]").value(HeroBatchService.DUPLICATED_NAME));
+    }
+
+    @Test
+    void createDeveriaLerUmHeroiPorLinhaQuandoOCorpoForNdjson() throws Exception {
+        //given
+        final String body = objectMapper.writeValueAsString(createHeroRequest("Batman")) + "\n"
+                + objectMapper.writeValueAsString(createHeroRequest("Superman")) + "\n";
+
+        List<String> names = new ArrayList<>();
+        when(heroBatchService.createAll(any())).thenAnswer(invocation -> {
+            Iterator<CreateHeroRequest> requests = invocation.getArgument(0);
+            requests.forEachRemaining(request -> names.add(request.getName()));
+            return List.of();
+        });
+
+        //when
+        final ResultActions resultActions = mockMvc.perform(post("/api/v1/heroes/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body));
+
+        //then
+        resultActions.andExpect(status().isOk());
+        verify(heroBatchService).createAll(any());
+        assertEquals(List.of("Batman", "Superman"), names);
+    }
+
+    @Test
+    void createDeveriaRejeitarSoALinhaNdjsonInvalidaESeguirComAsProximas() throws Exception {
+        //given
+        final String body = objectMapper.writeValueAsString(createHeroRequest("Batman")) + "\n"
+                + "{\"name\": \"Martian Manhunter\", \"race\": \"MARTIAN\"}\n"
+                + objectMapper.writeValueAsString(createHeroRequest("Superman")) + "\n";
+
+        List<String> names = new ArrayList<>();
+        when(heroBatchService.createAll(any())).thenAnswer(invocation -> {
+            Iterator<CreateHeroRequest> requests = invocation.getArgument(0);
+            requests.forEachRemaining(request -> names.add(request == null ? null : request.getName()));
+            return List.of();
+        });
+
+        //when
+        final ResultActions resultActions = mockMvc.perform(post("/api/v1/heroes/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body));
+
+        //then
+        resultActions.andExpect(status().isOk());
+        assertEquals(Arrays.asList("Batman", null, "Superman"), names);
+    }
+
+    private CreateHeroRequest createHeroRequest(String name) {
+        return CreateHeroRequest.builder()
+                .name(name)
+                .race(Race.HUMAN)
+                .strength(5)
+                .agility(5)
+                .dexterity(5)
+                .intelligence(5)
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.gubee.interview.core.features.hero;
+
+import br.com.gubee.interview.core.features.hero.impl.HeroRepositoryInMemoryImpl;
+import br.com.gubee.interview.core.features.powerstats.impl.PowerStatsRepositoryInMemoryImpl;
+import br.com.gubee.interview.model.Hero;
+import br.com.gubee.interview.model.HeroWithPowerStats;
+import br.com.gubee.interview.model.dto.CreatedHeroResultDTO;
+import br.com.gubee.interview.model.enums.Race;
+import br.com.gubee.interview.model.request.CreateHeroRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.Validation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class HeroBatchServiceTest {
+
+    private HeroRepositoryInMemoryImpl heroRepositoryInMemory;
+    private HeroBatchService heroBatchService;
+
+    @BeforeEach
+    void init() {
+        heroRepositoryInMemory = new HeroRepositoryInMemoryImpl(new PowerStatsRepositoryInMemoryImpl());
+        heroBatchService = new HeroBatchService(
+                heroRepositoryInMemory,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    void createAllShouldCreateEveryValidHeroAlongWithItsPowerStats() {
+        // given
+        List<CreateHeroRequest> requests = List.of(createHeroRequest("Batman"), createHeroRequest("Superman"));
+
+        // when
+        List<CreatedHeroResultDTO> results = heroBatchService.createAll(requests.iterator());
+
+        // then
+        assertEquals(2, results.size());
+        results.forEach(result -> {
+            assertNotNull(result.getId());
+            assertNull(result.getErrors());
+        });
+
+        Optional<HeroWithPowerStats> batman = heroRepositoryInMemory.findAllByNamesWithPowerStats(List.of("Batman"))
+                .stream()
+                .findFirst();
+        assertTrue(batman.isPresent());
+        assertEquals(results.get(0).getId(), batman.get().getHero().getId());
+        assertEquals(7, batman.get().getPowerStats().getStrength());
+    }
+
+    @Test
+    void createAllShouldReportInvalidAndDuplicatedItemsWithoutAbortingTheBatch() {
+        // given
+        heroRepositoryInMemory.createWithPowerStats(createHeroRequest("Superman"));
+
+        List<CreateHeroRequest> requests = new ArrayList<>();
+        requests.add(createHeroRequest("Batman"));
+        requests.add(createHeroRequest("Superman"));
+        requests.add(createHeroRequest("Batman"));
+        requests.add(CreateHeroRequest.builder().name("Flash").race(Race.HUMAN).strength(11).build());
+        requests.add(null);
+        requests.add(createHeroRequest("Robin"));
+
+        // when
+        List<CreatedHeroResultDTO> results = heroBatchService.createAll(requests.iterator());
+
+        // then
+        assertEquals(6, results.size());
+        assertNotNull(results.get(0).getId());
+        assertEquals(List.of(HeroBatchService.DUPLICATED_NAME), results.get(1).getErrors());
+        assertEquals(List.of(HeroBatchService.DUPLICATED_NAME), results.get(2).getErrors());
+        assertEquals(List.of("message.powerstats.strength.max"), results.get(3).getErrors());
+        assertEquals(List.of("message.malformed-request"), results.get(4).getErrors());
+        assertNotNull(results.get(5).getId());
+        IntStream.range(0, results.size()).forEach(i -> assertEquals(i, results.get(i).getIndex()));
+    }
+
+    @Test
+    void createAllShouldSpreadLargeBatchesOverSeveralChunks() {
+        // given
+        List<CreateHeroRequest> requests = IntStream.range(0, HeroBatchService.CHUNK_SIZE * 2 + 1)
+                .mapToObj(i -> createHeroRequest("Hero " + i))
+                .collect(Collectors.toList());
+
+        // when
+        List<CreatedHeroResultDTO> results = heroBatchService.createAll(requests.iterator());
+
+        // then
+        assertEquals(requests.size(), results.size());
+        assertTrue(results.stream().allMatch(result -> result.getId() != null));
+        assertEquals(requests.size(), heroRepositoryInMemory.findAll().size());
+    }
+
+    private CreateHeroRequest createHeroRequest(String name) {
+        return CreateHeroRequest.builder()
+                .name(name)
+                .race(Race.HUMAN)
+                .strength(7)
+                .agility(6)
+                .dexterity(5)
+                .intelligence(4)
+                .build();
+    }
+}
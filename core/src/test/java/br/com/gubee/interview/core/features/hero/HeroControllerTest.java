@@ -1,10 +1,25 @@
 package br.com.gubee.interview.core.features.hero;
 
-import br.com.gubee.interview.core.features.powerstats.PowerStatsService;
 import br.com.gubee.interview.model.Hero;
+import br.com.gubee.interview.model.HeroCursor;
+import br.com.gubee.interview.model.HeroFilter;
+import br.com.gubee.interview.model.HeroPage;
+import br.com.gubee.interview.model.HeroRanking;
+import br.com.gubee.interview.model.HeroVersion;
+import br.com.gubee.interview.model.HeroWithPowerStats;
 import br.com.gubee.interview.model.PowerStats;
+import br.com.gubee.interview.model.dto.ComparedHeroDTO;
+import br.com.gubee.interview.model.dto.ComparedHeroesResultDTO;
+import br.com.gubee.interview.model.dto.HeroPercentileRankDTO;
+import br.com.gubee.interview.model.dto.HeroStatsDTO;
+import br.com.gubee.interview.model.dto.RaceStatsDTO;
+import br.com.gubee.interview.model.dto.StatHistogramDTO;
+import br.com.gubee.interview.model.dto.RankedHeroDTO;
+import br.com.gubee.interview.model.dto.WriteStatsDTO;
 import br.com.gubee.interview.model.enums.Race;
+import br.com.gubee.interview.model.request.CompareHeroesRequest;
 import br.com.gubee.interview.model.request.CreateHeroRequest;
+import br.com.gubee.interview.model.request.UpdateHeroRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,13 +27,22 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -32,9 +56,6 @@ class HeroControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
-    @MockBean
-    private PowerStatsService powerStatsService;
-
     @MockBean
     private HeroService heroService;
 
@@ -77,8 +98,7 @@ class HeroControllerTest {
         Hero hero = getBatman(heroId, powerStatsId);
         PowerStats powerStats = getBatmanPowerStats(powerStatsId);
 
-        when(heroService.findById(heroId)).thenReturn(Optional.of(hero));
-        when(powerStatsService.findById(hero.getPowerStatsId())).thenReturn(powerStats);
+        when(heroService.findByIdWithPowerStats(heroId)).thenReturn(Optional.of(new HeroWithPowerStats(hero, powerStats)));
 
         // when
         final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes/{heroId}",heroId)
@@ -95,7 +115,51 @@ class HeroControllerTest {
                 .andExpect(jsonPath("$.power_stats.strength").value(powerStats.getStrength()))
                 .andExpect(jsonPath("$.power_stats.agility").value(powerStats.getAgility()))
                 .andExpect(jsonPath("$.power_stats.dexterity").value(powerStats.getDexterity()))
-                .andExpect(jsonPath("$.power_stats.intelligence").value(powerStats.getIntelligence()));
+                .andExpect(jsonPath("$.power_stats.intelligence").value(powerStats.getIntelligence()))
+                .andExpect(header().string("ETag", HeroVersion.of(hero, powerStats).toETag()));
+    }
+
+    @Test
+    void getByIdDeveriaRetornarCodigo304SemCarregarOHeroiQuandoOETagAindaForValido() throws Exception {
+        //given
+        UUID heroId = UUID.randomUUID();
+        HeroVersion version = new HeroVersion(Instant.now(), Instant.now());
+
+        when(heroService.findVersionById(heroId)).thenReturn(Optional.of(version));
+
+        // when
+        final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes/{heroId}",heroId)
+                .header("If-None-Match", version.toETag())
+                .accept(MediaType.APPLICATION_JSON));
+
+        //then
+        resultActions.andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", version.toETag()))
+                .andExpect(content().string(""));
+        verify(heroService, never()).findByIdWithPowerStats(any());
+    }
+
+    @Test
+    void getByIdDeveriaRetornarCodigo200ComNovoETagQuandoOHeroiMudou() throws Exception {
+        //given
+        UUID heroId = UUID.randomUUID();
+        UUID powerStatsId = UUID.randomUUID();
+        Hero hero = getBatman(heroId, powerStatsId);
+        PowerStats powerStats = getBatmanPowerStats(powerStatsId);
+        HeroVersion version = HeroVersion.of(hero, powerStats);
+
+        when(heroService.findVersionById(heroId)).thenReturn(Optional.of(version));
+        when(heroService.findByIdWithPowerStats(heroId)).thenReturn(Optional.of(new HeroWithPowerStats(hero, powerStats)));
+
+        // when
+        final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes/{heroId}",heroId)
+                .header("If-None-Match", new HeroVersion(Instant.EPOCH, Instant.EPOCH).toETag())
+                .accept(MediaType.APPLICATION_JSON));
+
+        //then
+        resultActions.andExpect(status().isOk())
+                .andExpect(header().string("ETag", version.toETag()))
+                .andExpect(jsonPath("$.id").value(heroId.toString()));
     }
 
     @Test
@@ -103,7 +167,7 @@ class HeroControllerTest {
         //given
         final UUID heroId = UUID.randomUUID();
 
-        when(heroService.findById(heroId)).thenReturn(Optional.empty());
+        when(heroService.findByIdWithPowerStats(heroId)).thenReturn(Optional.empty());
 
         //when
         final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes/{heroId}", heroId)
@@ -130,9 +194,9 @@ class HeroControllerTest {
         PowerStats supermanPowerStats = getBatmanPowerStats(powerStatsSupermanId);
 
         // when
-        when(heroService.findManyByName(search)).thenReturn(Arrays.asList(batman,superman));
-        when(powerStatsService.findById(batman.getPowerStatsId())).thenReturn(batmanPowerStats);
-        when(powerStatsService.findById(superman.getPowerStatsId())).thenReturn(supermanPowerStats);
+        when(heroService.findManyByNameWithPowerStats(search, HeroService.DEFAULT_SEARCH_LIMIT)).thenReturn(Arrays.asList(
+                new HeroWithPowerStats(batman, batmanPowerStats),
+                new HeroWithPowerStats(superman, supermanPowerStats)));
 
 
         final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes/search/{heroName}",search)
@@ -153,7 +217,7 @@ class HeroControllerTest {
         String search = "man";
 
         // when
-        when(heroService.findManyByName(search)).thenReturn(new ArrayList<>());
+        when(heroService.findManyByNameWithPowerStats(search, HeroService.DEFAULT_SEARCH_LIMIT)).thenReturn(new ArrayList<>());
 
         final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes/search/{heroName}",search)
                 .accept(MediaType.APPLICATION_JSON)
@@ -165,6 +229,33 @@ class HeroControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
 
+    @Test
+    void findManyByNameDeveriaRepassarOLimiteInformado() throws Exception {
+        //given
+        String search = "man";
+        when(heroService.findManyByNameWithPowerStats(search, 5)).thenReturn(new ArrayList<>());
+
+        // when
+        final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes/search/{heroName}",search)
+                .param("limit", "5")
+                .accept(MediaType.APPLICATION_JSON));
+
+        //then
+        resultActions.andExpect(status().isOk());
+        verify(heroService).findManyByNameWithPowerStats(search, 5);
+    }
+
+    @Test
+    void findManyByNameDeveriaRetornarCodigo400QuandoOLimiteForInvalido() throws Exception {
+        // when
+        final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes/search/{heroName}","man")
+                .param("limit", "0")
+                .accept(MediaType.APPLICATION_JSON));
+
+        //then
+        resultActions.andExpect(status().isBadRequest());
+    }
+
     @Test
     void listDeveriaRetornarListaCom1HeroiExistente() throws Exception {
         //given
@@ -174,8 +265,7 @@ class HeroControllerTest {
         PowerStats powerStats = getSupermanPowerStats(powerStatsId);
 
         // when
-        when(heroService.findAll()).thenReturn(List.of(hero));
-        when(powerStatsService.findById(powerStatsId)).thenReturn(powerStats);
+        when(heroService.findPage(any(HeroFilter.class), isNull(), eq(100))).thenReturn(new HeroPage(List.of(new HeroWithPowerStats(hero, powerStats)), null));
 
         final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes/")
                 .accept(MediaType.APPLICATION_JSON)
@@ -185,7 +275,151 @@ class HeroControllerTest {
         resultActions.andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.size()").value(1))
-                .andExpect(jsonPath("$.[0].id").value(heroId.toString()));
+                .andExpect(jsonPath("$.[0].id").value(heroId.toString()))
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().doesNotExist("Link"));
+    }
+
+    @Test
+    void listDeveriaRetornarCodigo304QuandoAPaginaNaoMudou() throws Exception {
+        //given
+        UUID powerStatsId = UUID.randomUUID();
+        List<HeroWithPowerStats> heroes = List.of(new HeroWithPowerStats(
+                getSuperman(UUID.randomUUID(), powerStatsId), getSupermanPowerStats(powerStatsId)));
+
+        // when
+        when(heroService.findPage(any(HeroFilter.class), isNull(), eq(100))).thenReturn(new HeroPage(heroes, null));
+
+        final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes")
+                .header("If-None-Match", HeroVersion.toETag(heroes))
+                .accept(MediaType.APPLICATION_JSON));
+
+        //then
+        resultActions.andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void listDeveriaRetornarLinkParaProximaPaginaQuandoHouverMaisHerois() throws Exception {
+        //given
+        UUID powerStatsId = UUID.randomUUID();
+        Hero hero = getBatman(UUID.randomUUID(), powerStatsId);
+        HeroCursor cursor = HeroCursor.of(hero);
+        HeroCursor next = new HeroCursor("Superman", UUID.randomUUID());
+
+        // when
+        when(heroService.findPage(any(HeroFilter.class), eq(cursor), eq(1))).thenReturn(new HeroPage(
+                List.of(new HeroWithPowerStats(hero, getBatmanPowerStats(powerStatsId))), next));
+
+        final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes")
+                .param("limit", "1")
+                .param("after", cursor.encode())
+                .accept(MediaType.APPLICATION_JSON));
+
+        //then
+        resultActions.andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(1))
+                .andExpect(header().string("Link", containsString("after=" + next.encode())))
+                .andExpect(header().string("Link", containsString("rel=\"next\"")));
+    }
+
+    @Test
+    void listDeveriaFiltrarPorRacaEFaixaDeAtributosMantendoOFiltroNoLinkDaProximaPagina() throws Exception {
+        //given
+        UUID powerStatsId = UUID.randomUUID();
+        Hero hero = getSuperman(UUID.randomUUID(), powerStatsId);
+        HeroCursor next = HeroCursor.of(hero);
+
+        when(heroService.findPage(argThat(filter -> filter.getRace() == Race.ALIEN
+                        && filter.getRanges().get(HeroRanking.STRENGTH).getMin() == 7
+                        && filter.getRanges().get(HeroRanking.AGILITY).getMax() == 3
+                        && !filter.getRanges().containsKey(HeroRanking.DEXTERITY)),
+                isNull(), eq(1)))
+                .thenReturn(new HeroPage(List.of(new HeroWithPowerStats(hero, getSupermanPowerStats(powerStatsId))), next));
+
+        //when
+        final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes?race=ALIEN&strengthMin=7&agilityMax=3")
+                .param("limit", "1")
+                .accept(MediaType.APPLICATION_JSON));
+
+        //then
+        resultActions.andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(1))
+                .andExpect(header().string("Link", containsString("race=ALIEN")))
+                .andExpect(header().string("Link", containsString("strengthMin=7")));
+    }
+
+    @Test
+    void listDeveriaRetornarCodigo400ParaFaixaDeAtributoInvalida() throws Exception {
+        //when
+        final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes")
+                .param("strengthMin", "11")
+                .accept(MediaType.APPLICATION_JSON));
+
+        //then
+        resultActions.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.[0]").value("message.filter.strength.max"));
+    }
+
+    @Test
+    void listDeveriaRetornarCodigo400ParaLimiteForaDoIntervalo() throws Exception {
+        //when
+        final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes")
+                .param("limit", "0")
+                .accept(MediaType.APPLICATION_JSON));
+
+        //then
+        resultActions.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void listDeveriaRetornarCodigo400ParaCursorInvalido() throws Exception {
+        //when
+        final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes")
+                .param("after", "not-a-cursor")
+                .accept(MediaType.APPLICATION_JSON));
+
+        //then
+        resultActions.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportDeveriaEscreverUmHeroiPorLinhaEmNdjsonAPartirDoUltimoIdRecebido() throws Exception {
+        //given
+        UUID after = UUID.randomUUID();
+        UUID batmanPowerStatsId = UUID.randomUUID();
+        UUID supermanPowerStatsId = UUID.randomUUID();
+        Hero batman = getBatman(UUID.randomUUID(), batmanPowerStatsId);
+        Hero superman = getSuperman(UUID.randomUUID(), supermanPowerStatsId);
+
+        doAnswer(invocation -> {
+            Consumer<HeroWithPowerStats> consumer = invocation.getArgument(1);
+            consumer.accept(new HeroWithPowerStats(batman, getBatmanPowerStats(batmanPowerStatsId)));
+            consumer.accept(new HeroWithPowerStats(superman, getSupermanPowerStats(supermanPowerStatsId)));
+            return null;
+        }).when(heroService).export(eq(after), any(Consumer.class));
+
+        // when
+        final MvcResult mvcResult = mockMvc.perform(get("/api/v1/heroes/export")
+                .param("after", after.toString())
+                .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        final String[] lines = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .split("\n");
+
+        assertEquals(2, lines.length);
+        assertEquals(batman.getId().toString(), objectMapper.readTree(lines[0]).get("id").asText());
+        assertEquals(superman.getId().toString(), objectMapper.readTree(lines[1]).get("id").asText());
+        assertEquals(10, objectMapper.readTree(lines[1]).get("power_stats").get("strength").asInt());
     }
 
     @Test
@@ -205,10 +439,11 @@ class HeroControllerTest {
         PowerStats supermanPowerStats = getBatmanPowerStats(powerStatsSupermanId);
 
         // when
-        when(heroService.findByName(name1)).thenReturn(Optional.of(batman));
-        when(heroService.findByName(name2)).thenReturn(Optional.of(superman));
-        when(powerStatsService.findById(batman.getPowerStatsId())).thenReturn(batmanPowerStats);
-        when(powerStatsService.findById(superman.getPowerStatsId())).thenReturn(supermanPowerStats);
+        HeroWithPowerStats batmanWithPowerStats = new HeroWithPowerStats(batman, batmanPowerStats);
+        HeroWithPowerStats supermanWithPowerStats = new HeroWithPowerStats(superman, supermanPowerStats);
+        when(heroService.compare(name1, name2)).thenReturn(Optional.of(List.of(
+                new ComparedHeroDTO(batmanWithPowerStats, supermanWithPowerStats),
+                new ComparedHeroDTO(supermanWithPowerStats, batmanWithPowerStats))));
 
         final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes/compare?hero1Name=" + name1 + "&hero2Name=" + name2)
                 .accept(MediaType.APPLICATION_JSON)
@@ -238,8 +473,7 @@ class HeroControllerTest {
         String name2 = "spider";
 
         // when
-        when(heroService.findByName(name1)).thenReturn(Optional.empty());
-        when(heroService.findByName(name2)).thenReturn(any());
+        when(heroService.compare(name1, name2)).thenReturn(Optional.empty());
 
         final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes/compare?hero1Name=" + name1 + "&hero2Name=" + name2)
                 .contentType(MediaType.APPLICATION_JSON));
@@ -248,6 +482,148 @@ class HeroControllerTest {
         resultActions.andExpect(status().isNotFound());
     }
 
+    @Test
+    void compareAllDeveriaRetornarCodigo200ComOResultadoDeCadaPar() throws Exception {
+        //given
+        List<CompareHeroesRequest> requests = List.of(
+                CompareHeroesRequest.builder().hero1Name("Batman").hero2Name("Superman").build(),
+                CompareHeroesRequest.builder().hero1Name("Batman").hero2Name("Spider").build());
+
+        UUID batmanPowerStatsId = UUID.randomUUID();
+        UUID supermanPowerStatsId = UUID.randomUUID();
+        HeroWithPowerStats batman = new HeroWithPowerStats(getBatman(UUID.randomUUID(), batmanPowerStatsId), getBatmanPowerStats(batmanPowerStatsId));
+        HeroWithPowerStats superman = new HeroWithPowerStats(getSuperman(UUID.randomUUID(), supermanPowerStatsId), getSupermanPowerStats(supermanPowerStatsId));
+
+        when(heroService.compareAll(any())).thenReturn(List.of(
+                ComparedHeroesResultDTO.compared(0, List.of(new ComparedHeroDTO(batman, superman), new ComparedHeroDTO(superman, batman))),
+                ComparedHeroesResultDTO.rejected(1, List.of(HeroService.HERO_NOT_FOUND))));
+
+        // when
+        final ResultActions resultActions = mockMvc.perform(post("/api/v1/heroes/compare/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requests)));
+
+        // then
+        resultActions.andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(2))
+                .andExpect(jsonPath("$.[0].index").value(0))
+                .andExpect(jsonPath("$.[0].heroes[0].name").value("Batman"))
+                .andExpect(jsonPath("$.[0].heroes[0].strength").value(-1))
+                .andExpect(jsonPath("$.[0].errors").doesNotExist())
+                .andExpect(jsonPath("$.[1].index").value(1))
+                .andExpect(jsonPath("$.[1].heroes").doesNotExist())
+                .andExpect(jsonPath("$.[1].errors[0]").value(HeroService.HERO_NOT_FOUND));
+        verify(heroService).compareAll(argThat(pairs -> pairs.size() == 2
+                && pairs.get(1).getHero2Name().equals("Spider")));
+    }
+
+    @Test
+    void writeStatsDeveriaRetornarAsEscritasFeitasEEvitadas() throws Exception {
+        //given
+        when(heroService.writeStats()).thenReturn(new WriteStatsDTO(3, 5));
+
+        //when
+        final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes/write-stats")
+                .accept(MediaType.APPLICATION_JSON));
+
+        //then
+        resultActions.andExpect(status().isOk())
+                .andExpect(jsonPath("$.executed").value(3))
+                .andExpect(jsonPath("$.skipped").value(5));
+    }
+
+    @Test
+    void leaderboardDeveriaRetornarOsHeroisMaisFortesPeloAtributoPedido() throws Exception {
+        //given
+        when(heroService.leaderboard(HeroRanking.STRENGTH, 2)).thenReturn(List.of(
+                new RankedHeroDTO(1, UUID.randomUUID(), "Superman", Race.ALIEN, 10),
+                new RankedHeroDTO(2, UUID.randomUUID(), "Batman", Race.HUMAN, 6)));
+
+        //when
+        final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes/leaderboard")
+                .param("by", "strength")
+                .param("k", "2")
+                .accept(MediaType.APPLICATION_JSON));
+
+        //then
+        resultActions.andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(2))
+                .andExpect(jsonPath("$.[0].rank").value(1))
+                .andExpect(jsonPath("$.[0].name").value("Superman"))
+                .andExpect(jsonPath("$.[0].score").value(10))
+                .andExpect(jsonPath("$.[1].rank").value(2));
+    }
+
+    @Test
+    void leaderboardDeveriaUsarOTotalEDezHeroisPorPadrao() throws Exception {
+        //given
+        when(heroService.leaderboard(HeroRanking.TOTAL, 10)).thenReturn(List.of());
+
+        //when
+        final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes/leaderboard")
+                .accept(MediaType.APPLICATION_JSON));
+
+        //then
+        resultActions.andExpect(status().isOk());
+        verify(heroService).leaderboard(HeroRanking.TOTAL, 10);
+    }
+
+    @Test
+    void leaderboardDeveriaRetornarCodigo400ParaAtributoDesconhecido() throws Exception {
+        //when
+        final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes/leaderboard")
+                .param("by", "speed")
+                .accept(MediaType.APPLICATION_JSON));
+
+        //then
+        resultActions.andExpect(status().isBadRequest());
+        verify(heroService, never()).leaderboard(any(), eq(10));
+    }
+
+    @Test
+    void statsDeveriaRetornarContagensMediasEHistogramasPorRaca() throws Exception {
+        //given
+        StatHistogramDTO histogram = new StatHistogramDTO(10, new long[]{0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1});
+        when(heroService.stats()).thenReturn(new HeroStatsDTO(List.of(
+                new RaceStatsDTO(Race.DIVINE, 1, histogram, histogram, histogram, histogram)), null));
+
+        //when
+        final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes/stats")
+                .accept(MediaType.APPLICATION_JSON));
+
+        //then
+        resultActions.andExpect(status().isOk())
+                .andExpect(jsonPath("$.races[0].race").value("DIVINE"))
+                .andExpect(jsonPath("$.races[0].count").value(1))
+                .andExpect(jsonPath("$.races[0].strength.mean").value(10.0))
+                .andExpect(jsonPath("$.races[0].strength.histogram.size()").value(11))
+                .andExpect(jsonPath("$.hero").doesNotExist());
+    }
+
+    @Test
+    void statsDeveriaRetornarOPercentilDoHeroiOu404CasoNaoExista() throws Exception {
+        //given
+        UUID heroId = UUID.randomUUID();
+        UUID missingHeroId = UUID.randomUUID();
+        when(heroService.stats(heroId)).thenReturn(Optional.of(new HeroStatsDTO(List.of(),
+                new HeroPercentileRankDTO(heroId, Race.HUMAN, 75, 50, 25, 100))));
+        when(heroService.stats(missingHeroId)).thenReturn(Optional.empty());
+
+        //when
+        final ResultActions resultActions = mockMvc.perform(get("/api/v1/heroes/stats")
+                .param("heroId", heroId.toString())
+                .accept(MediaType.APPLICATION_JSON));
+        final ResultActions missingResultActions = mockMvc.perform(get("/api/v1/heroes/stats")
+                .param("heroId", missingHeroId.toString())
+                .accept(MediaType.APPLICATION_JSON));
+
+        //then
+        resultActions.andExpect(status().isOk())
+                .andExpect(jsonPath("$.hero.id").value(heroId.toString()))
+                .andExpect(jsonPath("$.hero.strength").value(75.0));
+        missingResultActions.andExpect(status().isNotFound());
+    }
+
     @Test
     void updateDeveriaRetornarCodigo200EDadosDeHeroiAtulizadoCasoIdExista() throws Exception {
         //given
@@ -278,8 +654,8 @@ class HeroControllerTest {
         final String body = objectMapper.writeValueAsString(updateRequest);
 
         // when
-        when(heroService.findById(heroId)).thenReturn(Optional.of(hero));
-        when(powerStatsService.findById(hero.getPowerStatsId())).thenReturn(powerStats);
+        when(heroService.update(eq(heroId), any(UpdateHeroRequest.class)))
+                .thenReturn(Optional.of(new HeroWithPowerStats(hero, powerStats)));
 
         final ResultActions resultActions = mockMvc.perform(patch("/api/v1/heroes/{heroId}", heroId)
                 .accept(MediaType.APPLICATION_JSON)
@@ -301,6 +677,53 @@ class HeroControllerTest {
                 .andExpect(jsonPath("$.power_stats.intelligence").value(updateRequest.get("intelligence")));
     }
 
+    @Test
+    void updateDeveriaAplicarSomenteOsMembrosPresentesNoMergePatch() throws Exception {
+        //given
+        UUID heroId = UUID.randomUUID();
+        UUID powerStatsId = UUID.randomUUID();
+        Hero hero = getBatman(heroId, powerStatsId);
+
+        when(heroService.update(eq(heroId), any(UpdateHeroRequest.class)))
+                .thenReturn(Optional.of(new HeroWithPowerStats(hero, getBatmanPowerStats(powerStatsId))));
+
+        //when
+        final ResultActions resultActions = mockMvc.perform(patch("/api/v1/heroes/{heroId}", heroId)
+                .contentType("application/merge-patch+json")
+                .content("{\"strength\": 9}"));
+
+        //then
+        resultActions.andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(hero.getName()));
+        verify(heroService).update(eq(heroId), argThat((UpdateHeroRequest request) -> request.getStrength() == 9
+                && request.getName() == null && request.getRace() == null && request.getEnabled() == null));
+    }
+
+    @Test
+    void updateDeveriaRetornarCodigo400ParaMembroNuloOuDesconhecido() throws Exception {
+        //given
+        UUID heroId = UUID.randomUUID();
+
+        //when
+        final ResultActions nullMember = mockMvc.perform(patch("/api/v1/heroes/{heroId}", heroId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": null}"));
+        final ResultActions unknownMember = mockMvc.perform(patch("/api/v1/heroes/{heroId}", heroId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"speed\": 3}"));
+        final ResultActions outOfRange = mockMvc.perform(patch("/api/v1/heroes/{heroId}", heroId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"strength\": 11}"));
+
+        //then
+        nullMember.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.[0]").value("message.patch.null-member"));
+        unknownMember.andExpect(status().isBadRequest());
+        outOfRange.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.[0]").value("message.powerstats.strength.max"));
+        verify(heroService, never()).update(any(UUID.class), any(UpdateHeroRequest.class));
+    }
+
     @Test
     void updateDeveriaRetornarCodigo404CasoIdDoHeroiNaoExista() throws Exception {
         //given
@@ -309,7 +732,7 @@ class HeroControllerTest {
         final String body = objectMapper.writeValueAsString(heroData);
 
         // when
-        when(heroService.findById(heroId)).thenReturn(Optional.empty());
+        when(heroService.update(eq(heroId), any(UpdateHeroRequest.class))).thenReturn(Optional.empty());
 
         final ResultActions resultActions = mockMvc.perform(patch("/api/v1/heroes/{heroId}", heroId)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -324,17 +747,16 @@ class HeroControllerTest {
     void deleteDeveriaRetornarCodigo204EDeletarHeroiCasoIdExista() throws Exception {
         //given
         UUID heroId = UUID.randomUUID();
-        UUID powerStatsId = UUID.randomUUID();
-        Hero hero = getBatman(heroId,powerStatsId);
 
         // when
-        when(heroService.findById(heroId)).thenReturn(Optional.of(hero));
+        when(heroService.deleteById(heroId)).thenReturn(true);
 
         final ResultActions resultActions = mockMvc.perform(delete("/api/v1/heroes/{heroId}", heroId)
                 .contentType(MediaType.APPLICATION_JSON));
 
         //then
         resultActions.andExpect(status().isNoContent());
+        verify(heroService, never()).findById(any());
     }
 
     @Test
@@ -343,7 +765,7 @@ class HeroControllerTest {
         UUID heroId = UUID.randomUUID();
 
         // when
-        when(heroService.findById(heroId)).thenReturn(Optional.empty());
+        when(heroService.deleteById(heroId)).thenReturn(false);
 
         final ResultActions resultActions = mockMvc.perform(delete("/api/v1/heroes/{heroId}", heroId)
                 .contentType(MediaType.APPLICATION_JSON));
@@ -0,0 +1,89 @@
+package br.com.gubee.interview.core.features.hero;
+
+import br.com.gubee.interview.model.dto.HeroImportResultDTO;
+import br.com.gubee.interview.model.dto.RejectedHeroRowDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(HeroImportController.class)
+class HeroImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private HeroImportService heroImportService;
+
+    @Test
+    void importCsvDeveriaRetornarCodigo200ComOsTotaisEAsLinhasRejeitadas() throws Exception {
+        //given
+        final String csv = "name,race,strength,agility,dexterity,intelligence\n"
+                + "Batman,HUMAN,5,5,5,5\n"
+                + "Superman,KRYPTONIAN,10,10,10,10\n";
+
+        StringBuilder received = new StringBuilder();
+        when(heroImportService.importCsv(any())).thenAnswer(invocation -> {
+            Reader reader = invocation.getArgument(0);
+            received.append(new BufferedReader(reader).lines().collect(Collectors.joining("\n", "", "\n")));
+            return new HeroImportResultDTO(2, 1, 1,
+                    List.of(new RejectedHeroRowDTO(2, "Superman", "message.race.invalid")));
+        });
+
+        //when
+        final ResultActions resultActions = mockMvc.perform(post("/api/v1/heroes/import")
+                .contentType(MediaType.valueOf(HeroImportController.TEXT_CSV_VALUE))
+                .content(csv));
+
+        //then
+        resultActions.andExpect(status().isOk())
+                .andExpect(jsonPath("$.read").value(2))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.rejected_rows[0].row").value(2))
+                .andExpect(jsonPath("$.rejected_rows[0].name").value("Superman"))
+                .andExpect(jsonPath("$.rejected_rows[0].reason").value("message.race.invalid"));
+        assertEquals(csv, received.toString());
+    }
+
+    @Test
+    void importCsvDeveriaRetornarCodigo400QuandoOArquivoForMalformado() throws Exception {
+        //given
+        when(heroImportService.importCsv(any())).thenThrow(new IllegalArgumentException("message.import.malformed-csv"));
+
+        //when
+        final ResultActions resultActions = mockMvc.perform(post("/api/v1/heroes/import")
+                .contentType(MediaType.valueOf(HeroImportController.TEXT_CSV_VALUE))
+                .content("name,race\nBatman"));
+
+        //then
+        resultActions.andExpect(status().isBadRequest())
+                .andExpect(content().string("message.import.malformed-csv"));
+    }
+
+    @Test
+    void importCsvDeveriaRetornarCodigo415QuandoOCorpoNaoForCsv() throws Exception {
+        //when
+        final ResultActions resultActions = mockMvc.perform(post("/api/v1/heroes/import")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"));
+
+        //then
+        resultActions.andExpect(status().isUnsupportedMediaType());
+    }
+}
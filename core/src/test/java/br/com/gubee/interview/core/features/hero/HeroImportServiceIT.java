@@ -0,0 +1,118 @@
+package br.com.gubee.interview.core.features.hero;
+
+import br.com.gubee.interview.model.HeroWithPowerStats;
+import br.com.gubee.interview.model.dto.HeroImportResultDTO;
+import br.com.gubee.interview.model.enums.Race;
+import br.com.gubee.interview.model.request.CreateHeroRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class HeroImportServiceIT {
+
+    private static final String HEADER = "name,race,strength,agility,dexterity,intelligence\n";
+
+    @Autowired
+    private HeroImportService heroImportService;
+    @Autowired
+    private HeroService heroService;
+
+    @BeforeEach
+    public void setUp() {
+        heroService.findAll().forEach(h -> heroService.deleteById(h.getId()));
+    }
+
+    @Test
+    public void importCsvDeveriaImportarAsLinhasValidasComSeusPowerStats() {
+        // given
+        String csv = HEADER
+                + "Batman,HUMAN,6,5,8,10\n"
+                + "\"Superman, the Man of Steel\",DIVINE, 10 ,10,10,10\n";
+
+        // when
+        HeroImportResultDTO result = heroImportService.importCsv(new StringReader(csv));
+
+        // then
+        assertEquals(2, result.getRead());
+        assertEquals(2, result.getImported());
+        assertEquals(0, result.getRejected());
+        assertTrue(result.getRejectedRows().isEmpty());
+
+        Optional<HeroWithPowerStats> batman = findByNameWithPowerStats("Batman");
+        assertTrue(batman.isPresent());
+        assertEquals(Race.HUMAN, batman.get().getHero().getRace());
+        assertEquals(6, batman.get().getPowerStats().getStrength());
+        assertEquals(10, batman.get().getPowerStats().getIntelligence());
+        assertTrue(heroService.findByName("Superman, the Man of Steel").isPresent());
+    }
+
+    @Test
+    public void importCsvDeveriaReportarAsLinhasRejeitadasSemAbortarOImport() {
+        // given
+        heroService.create(CreateHeroRequest.builder()
+                .name("Superman").race(Race.DIVINE)
+                .strength(10).agility(10).dexterity(10).intelligence(10)
+                .build());
+
+        String csv = HEADER
+                + "Batman,HUMAN,6,5,8,10\n"
+                + "Superman,DIVINE,10,10,10,10\n"
+                + "Batman,HUMAN,1,1,1,1\n"
+                + "Flash,SPEEDSTER,5,5,5,5\n"
+                + "Hulk,HUMAN,11,5,5,5\n"
+                + "Robin,HUMAN,five,5,5,5\n"
+                + ",HUMAN,5,5,5,5\n"
+                + "Cyborg,CYBORG,5,5,,5\n";
+
+        // when
+        HeroImportResultDTO result = heroImportService.importCsv(new StringReader(csv));
+
+        // then
+        assertEquals(8, result.getRead());
+        assertEquals(1, result.getImported());
+        assertEquals(7, result.getRejected());
+        assertEquals(List.of(
+                "2 Superman message.name.duplicated",
+                "3 Batman message.name.duplicated",
+                "4 Flash message.race.invalid",
+                "5 Hulk message.powerstats.strength.max",
+                "6 Robin message.powerstats.strength.invalid",
+                "7 null message.name.mandatory",
+                "8 Cyborg message.powerstats.dexterity.mandatory"
+        ), result.getRejectedRows().stream()
+                .map(row -> row.getRow() + " " + row.getName() + " " + row.getReason())
+                .collect(Collectors.toList()));
+
+        assertEquals(2, heroService.findPage(null, 10).getHeroes().size());
+        assertEquals(6, findByNameWithPowerStats("Batman").get().getPowerStats().getStrength());
+    }
+
+    @Test
+    public void importCsvDeveriaLancarIllegalArgumentExceptionQuandoOArquivoForMalformado() {
+        // given
+        String csv = HEADER + "Batman,HUMAN,6,5\n";
+
+        // when
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> heroImportService.importCsv(new StringReader(csv)));
+
+        // then
+        assertEquals("message.import.malformed-csv", e.getMessage());
+        assertTrue(heroService.findAll().isEmpty());
+    }
+
+    private Optional<HeroWithPowerStats> findByNameWithPowerStats(String heroName) {
+        return heroService.findAllByNamesWithPowerStats(List.of(heroName)).stream().findFirst();
+    }
+}
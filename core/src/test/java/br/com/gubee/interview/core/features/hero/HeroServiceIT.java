@@ -2,9 +2,21 @@ package br.com.gubee.interview.core.features.hero;
 
 import br.com.gubee.interview.core.features.powerstats.PowerStatsService;
 import br.com.gubee.interview.model.Hero;
+import br.com.gubee.interview.model.HeroFilter;
+import br.com.gubee.interview.model.HeroPage;
+import br.com.gubee.interview.model.HeroRanking;
+import br.com.gubee.interview.model.HeroVersion;
+import br.com.gubee.interview.model.HeroWithPowerStats;
 import br.com.gubee.interview.model.PowerStats;
+import br.com.gubee.interview.model.dto.ComparedHeroDTO;
+import br.com.gubee.interview.model.dto.CreatedHeroResultDTO;
+import br.com.gubee.interview.model.dto.HeroStatsDTO;
+import br.com.gubee.interview.model.dto.RaceStatsDTO;
+import br.com.gubee.interview.model.dto.RankedHeroDTO;
+import br.com.gubee.interview.model.dto.WriteStatsDTO;
 import br.com.gubee.interview.model.enums.Race;
 import br.com.gubee.interview.model.request.CreateHeroRequest;
+import br.com.gubee.interview.model.request.HeroFilterRequest;
 import br.com.gubee.interview.model.request.UpdateHeroRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,6 +38,8 @@ public class HeroServiceIT {
     private HeroService heroService;
     @Autowired
     private PowerStatsService powerStatsService;
+    @Autowired
+    private HeroBatchService heroBatchService;
     private final String INVALID_HERO_NAME = "invalid_hero_name";
 
     @BeforeEach
@@ -61,6 +75,11 @@ public class HeroServiceIT {
         assertEquals(heroRequest.getIntelligence(), createdPowerStats.getIntelligence());
         assertNotNull(createdPowerStats.getCreatedAt());
         assertNotNull(createdPowerStats.getUpdatedAt());
+
+        PowerStats inlinePowerStats = findByNameWithPowerStats(heroRequest.getName()).get().getPowerStats();
+        assertEquals(createdPowerStats.getId(), inlinePowerStats.getId());
+        assertEquals(heroRequest.getStrength(), inlinePowerStats.getStrength());
+        assertEquals(heroRequest.getIntelligence(), inlinePowerStats.getIntelligence());
     }
 
     @Test
@@ -104,6 +123,24 @@ public class HeroServiceIT {
         assertEquals(heroOptional, Optional.empty());
     }
 
+    @Test
+    public void findByIdWithPowerStats_DeveriaRetornarOHeroiComSeusPowerStatsEAMesmaVersao() {
+        // given
+        UUID uuid = heroService.create(createHeroRequest());
+        heroService.update(uuid, UpdateHeroRequest.builder().strength(2).build());
+
+        // when
+        Optional<HeroWithPowerStats> heroWithPowerStats = heroService.findByIdWithPowerStats(uuid);
+
+        // then
+        assertTrue(heroWithPowerStats.isPresent());
+        assertEquals(createHeroRequest().getName(), heroWithPowerStats.get().getHero().getName());
+        assertEquals(2, heroWithPowerStats.get().getPowerStats().getStrength());
+        assertEquals(createHeroRequest().getAgility(), heroWithPowerStats.get().getPowerStats().getAgility());
+        assertEquals(heroService.findVersionById(uuid).get().toETag(), HeroVersion.of(heroWithPowerStats.get()).toETag());
+        assertTrue(heroService.findByIdWithPowerStats(UUID.randomUUID()).isEmpty());
+    }
+
     @Test
     public void findManyByNameDeveriaRetornarListaCom2HeroisContendoABuscaNoNome() {
         // given
@@ -112,7 +149,7 @@ public class HeroServiceIT {
         UUID uuid2 = heroService.create(createHeroRequest());
 
         // when
-        List<Hero> heroes = heroService.findManyByName(search);
+        List<Hero> heroes = heroService.findManyByName(search, HeroService.DEFAULT_SEARCH_LIMIT);
 
         // then
         Hero hero = heroService.findById(uuid).get();
@@ -132,7 +169,7 @@ public class HeroServiceIT {
         UUID uuidBatman = heroService.create(createHeroRequest());
 
         // when
-        List<Hero> heroes = heroService.findManyByName(INVALID_HERO_NAME);
+        List<Hero> heroes = heroService.findManyByName(INVALID_HERO_NAME, HeroService.DEFAULT_SEARCH_LIMIT);
 
         // then
         Hero hero = heroService.findById(uuidSuperMan).get();
@@ -143,6 +180,42 @@ public class HeroServiceIT {
         assertFalse(hero2.getName().contains(INVALID_HERO_NAME));
     }
 
+    @Test
+    public void findManyByNameDeveriaOrdenarPorSimilaridadeERespeitarOLimite() {
+        // given
+        heroService.create(createSuperManRequest());
+        heroService.create(createHeroRequest());
+        heroService.create(CreateHeroRequest.builder()
+                .name("Man")
+                .agility(1)
+                .dexterity(1)
+                .strength(1)
+                .intelligence(1)
+                .race(Race.HUMAN)
+                .build());
+
+        // when
+        List<Hero> heroes = heroService.findManyByName("man", 2);
+
+        // then
+        assertEquals(2, heroes.size());
+        assertEquals("Man", heroes.get(0).getName());
+    }
+
+    @Test
+    public void findManyByNameDeveriaTratarCuringasDoLikeComoTextoLiteral() {
+        // given
+        heroService.create(createHeroRequest());
+
+        // when
+        List<Hero> heroes = heroService.findManyByName("_", HeroService.DEFAULT_SEARCH_LIMIT);
+        Optional<Hero> heroOptional = heroService.findByName("Bat%");
+
+        // then
+        assertTrue(heroes.isEmpty());
+        assertTrue(heroOptional.isEmpty());
+    }
+
     @Test
     public void findByNameDeveriaRetornarOptionalDeHeroSeNomeForIgualAPesquisa() {
         // given
@@ -198,6 +271,86 @@ public class HeroServiceIT {
         assertEquals(heroId2, heroes.get(1).getId());
     }
 
+    @Test
+    public void findPage_DeveriaRetornarHeroisComSeusPowerStatsEmUmaUnicaConsulta() {
+        //given
+        UUID heroId = heroService.create(createHeroRequest());
+        UUID heroId2 = heroService.create(createSuperManRequest());
+
+        // when
+        List<HeroWithPowerStats> heroes = heroService.findPage(null, 10).getHeroes();
+
+        // then
+        assertEquals(2, heroes.size());
+        assertEquals(heroId, heroes.get(0).getHero().getId());
+        assertEquals(heroId2, heroes.get(1).getHero().getId());
+        assertEquals(createHeroRequest().getDexterity(), heroes.get(0).getPowerStats().getDexterity());
+        assertEquals(createSuperManRequest().getStrength(), heroes.get(1).getPowerStats().getStrength());
+    }
+
+    @Test
+    public void createAll_DeveriaCriarOsHeroisNovosEReportarOsNomesJaExistentes() {
+        //given
+        heroService.create(createSuperManRequest());
+
+        // when
+        List<CreatedHeroResultDTO> results = heroBatchService.createAll(
+                List.of(createHeroRequest(), createSuperManRequest()).iterator());
+
+        // then
+        assertEquals(2, results.size());
+        assertNotNull(results.get(0).getId());
+        assertEquals(List.of(HeroBatchService.DUPLICATED_NAME), results.get(1).getErrors());
+
+        Optional<HeroWithPowerStats> batman = findByNameWithPowerStats(createHeroRequest().getName());
+        assertTrue(batman.isPresent());
+        assertEquals(results.get(0).getId(), batman.get().getHero().getId());
+        assertEquals(createHeroRequest().getIntelligence(), batman.get().getPowerStats().getIntelligence());
+        assertEquals(2, heroService.findPage(null, 10).getHeroes().size());
+    }
+
+    @Test
+    public void findVersionById_DeveriaCorresponderAoHeroiCarregadoEMudarAposAtualizacao() {
+        // given
+        UUID uuid = heroService.create(createHeroRequest());
+        Hero hero = heroService.findById(uuid).get();
+        HeroVersion loaded = HeroVersion.of(hero, powerStatsService.findById(hero.getPowerStatsId()));
+
+        // when
+        HeroVersion before = heroService.findVersionById(uuid).get();
+        heroService.update(uuid, createUpdatedHeroRequest());
+        HeroVersion after = heroService.findVersionById(uuid).get();
+
+        // then
+        assertEquals(loaded.toETag(), before.toETag());
+        assertNotEquals(before.toETag(), after.toETag());
+        assertTrue(heroService.findVersionById(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    public void compare_DeveriaBuscarOsDoisHeroisIgnorandoMaiusculasEmUmaUnicaConsulta() {
+        // given
+        heroService.create(createHeroRequest());
+        heroService.create(CreateHeroRequest.builder()
+                .name("Superman")
+                .race(Race.ALIEN)
+                .strength(10)
+                .agility(10)
+                .dexterity(10)
+                .intelligence(10)
+                .build());
+
+        // when
+        Optional<List<ComparedHeroDTO>> comparedHeroes = heroService.compare("BATMAN", "superman");
+
+        // then
+        assertTrue(comparedHeroes.isPresent());
+        assertEquals(createHeroRequest().getName(), comparedHeroes.get().get(0).getName());
+        assertEquals(createHeroRequest().getStrength() - 10, comparedHeroes.get().get(0).getStrength());
+        assertEquals("Superman", comparedHeroes.get().get(1).getName());
+        assertTrue(heroService.compare("Batman", INVALID_HERO_NAME).isEmpty());
+    }
+
     @Test
     public void update_DeveriaAtualizarDadosDoHeroi() {
         // given
@@ -206,19 +359,156 @@ public class HeroServiceIT {
         UpdateHeroRequest updatedHeroRequest = createUpdatedHeroRequest();
 
         // when
-        heroService.update(hero,updatedHeroRequest);
+        heroService.update(uuid,updatedHeroRequest);
 
         // then
+        Hero updatedHero = heroService.findById(uuid).get();
         PowerStats powerStats = powerStatsService.findById(hero.getPowerStatsId());
-        assertEquals(updatedHeroRequest.getName(), hero.getName());
-        assertEquals(updatedHeroRequest.getRace(), hero.getRace());
-        assertEquals(updatedHeroRequest.getEnabled(), hero.isEnabled());
+        assertEquals(updatedHeroRequest.getName(), updatedHero.getName());
+        assertEquals(updatedHeroRequest.getRace(), updatedHero.getRace());
+        assertEquals(updatedHeroRequest.getEnabled(), updatedHero.isEnabled());
         assertEquals(updatedHeroRequest.getAgility(), powerStats.getAgility());
         assertEquals(updatedHeroRequest.getDexterity(), powerStats.getDexterity());
         assertEquals(updatedHeroRequest.getIntelligence(), powerStats.getIntelligence());
         assertEquals(updatedHeroRequest.getStrength(), powerStats.getStrength());
     }
 
+    @Test
+    public void update_DeveriaAplicarOPatchEmUmaUnicaInstrucaoERetornarOHeroiGravado() {
+        // given
+        UUID uuid = heroService.create(createHeroRequest());
+        UUID powerStatsId = heroService.findById(uuid).get().getPowerStatsId();
+        powerStatsService.findById(powerStatsId);
+        UpdateHeroRequest patch = UpdateHeroRequest.builder().race(Race.CYBORG).agility(2).build();
+
+        // when
+        Optional<HeroWithPowerStats> updated = heroService.update(uuid, patch);
+
+        // then
+        assertTrue(updated.isPresent());
+        assertEquals("Batman", updated.get().getHero().getName());
+        assertEquals(Race.CYBORG, updated.get().getHero().getRace());
+        assertEquals(2, updated.get().getPowerStats().getAgility());
+        assertEquals(6, updated.get().getPowerStats().getStrength());
+        assertEquals(2, powerStatsService.findById(powerStatsId).getAgility());
+        assertEquals(2, findByNameWithPowerStats("Batman").get().getPowerStats().getAgility());
+        assertTrue(heroService.update(UUID.randomUUID(), patch).isEmpty());
+    }
+
+    @Test
+    public void update_NaoDeveriaReescreverOHeroiQuandoOPatchNaoMudaNada() {
+        // given
+        UUID uuid = heroService.create(createHeroRequest());
+        HeroWithPowerStats created = findByNameWithPowerStats("Batman").get();
+        WriteStatsDTO before = heroService.writeStats();
+
+        // when
+        Optional<HeroWithPowerStats> unchanged = heroService.update(uuid,
+                UpdateHeroRequest.builder().name("Batman").strength(created.getPowerStats().getStrength()).build());
+        WriteStatsDTO afterUnchanged = heroService.writeStats();
+        Hero readAfterUnchanged = heroService.findById(uuid).get();
+        Optional<HeroWithPowerStats> strengthOnly = heroService.update(uuid, UpdateHeroRequest.builder().strength(1).build());
+        WriteStatsDTO afterStrengthOnly = heroService.writeStats();
+
+        // then
+        assertTrue(unchanged.isPresent());
+        assertEquals("Batman", unchanged.get().getHero().getName());
+        assertEquals(created.getHero().getUpdatedAt(), unchanged.get().getHero().getUpdatedAt());
+        assertEquals(created.getHero().getUpdatedAt(), readAfterUnchanged.getUpdatedAt());
+        assertEquals(before.getExecuted(), afterUnchanged.getExecuted());
+        assertEquals(before.getSkipped() + 2, afterUnchanged.getSkipped());
+
+        assertEquals(1, strengthOnly.get().getPowerStats().getStrength());
+        assertEquals(created.getPowerStats().getAgility(), strengthOnly.get().getPowerStats().getAgility());
+        assertEquals(afterUnchanged.getExecuted() + 1, afterStrengthOnly.getExecuted());
+        assertEquals(afterUnchanged.getSkipped(), afterStrengthOnly.getSkipped());
+        assertEquals(1, findByNameWithPowerStats("Batman").get().getPowerStats().getStrength());
+    }
+
+    @Test
+    public void update_DeveriaRefletirOsNovosPowerStatsNaLeituraSemJoin() {
+        // given
+        UUID uuid = heroService.create(createHeroRequest());
+        UpdateHeroRequest updatedHeroRequest = createUpdatedHeroRequest();
+
+        // when
+        heroService.update(uuid,updatedHeroRequest);
+
+        // then
+        HeroWithPowerStats heroWithPowerStats = heroService.findPage(null, 10).getHeroes().get(0);
+        assertEquals(updatedHeroRequest.getRace(), heroWithPowerStats.getHero().getRace());
+        assertEquals(updatedHeroRequest.getStrength(), heroWithPowerStats.getPowerStats().getStrength());
+        assertEquals(updatedHeroRequest.getAgility(), heroWithPowerStats.getPowerStats().getAgility());
+        assertEquals(updatedHeroRequest.getDexterity(), heroWithPowerStats.getPowerStats().getDexterity());
+        assertEquals(updatedHeroRequest.getIntelligence(), heroWithPowerStats.getPowerStats().getIntelligence());
+    }
+
+    @Test
+    public void leaderboard_DeveriaOrdenarPeloTotalGeradoESeguirAsAtualizacoesDosPowerStats() {
+        // given
+        heroService.create(createHeroRequest());
+        UUID supermanId = heroService.create(createSuperManRequest());
+
+        // when
+        List<RankedHeroDTO> byTotal = heroService.leaderboard(HeroRanking.TOTAL, 10);
+        heroService.update(supermanId, UpdateHeroRequest.builder()
+                .strength(1).agility(1).dexterity(1).intelligence(1).build());
+        List<RankedHeroDTO> byTotalAfterUpdate = heroService.leaderboard(HeroRanking.TOTAL, 1);
+
+        // then
+        assertEquals(2, byTotal.size());
+        assertEquals("Superman", byTotal.get(0).getName());
+        assertEquals(40, byTotal.get(0).getScore());
+        assertEquals(2, byTotal.get(1).getRank());
+        assertEquals(1, byTotalAfterUpdate.size());
+        assertEquals("Batman", byTotalAfterUpdate.get(0).getName());
+        assertEquals(29, byTotalAfterUpdate.get(0).getScore());
+    }
+
+    @Test
+    public void findPage_DeveriaFiltrarPorRacaEFaixaDeAtributosPaginandoPorNome() {
+        // given
+        heroService.create(createHeroRequest());
+        heroService.create(createSuperManRequest());
+        heroService.create(CreateHeroRequest.builder().name("Aquaman").race(Race.DIVINE)
+                .strength(7).agility(3).dexterity(6).intelligence(6).build());
+        HeroFilter strongDivines = HeroFilter.of(HeroFilterRequest.builder().race(Race.DIVINE).strengthMin(7).build());
+
+        // when
+        HeroPage firstPage = heroService.findPage(strongDivines, null, 1);
+        HeroPage secondPage = heroService.findPage(strongDivines, firstPage.getNext().get(), 1);
+        HeroPage slowPage = heroService.findPage(HeroFilter.of(HeroFilterRequest.builder()
+                .strengthMin(6).agilityMax(5).build()), null, 10);
+
+        // then
+        assertEquals("Aquaman", firstPage.getHeroes().get(0).getHero().getName());
+        assertEquals("Superman", secondPage.getHeroes().get(0).getHero().getName());
+        assertTrue(secondPage.getNext().isEmpty());
+        assertEquals(2, slowPage.getHeroes().size());
+        assertEquals("Batman", slowPage.getHeroes().get(1).getHero().getName());
+    }
+
+    @Test
+    public void stats_DeveriaAgruparOsHistogramasPorRacaEPosicionarOHeroiNaSuaRaca() {
+        // given
+        UUID batmanId = heroService.create(createHeroRequest());
+        heroService.create(createSuperManRequest());
+        heroService.create(CreateHeroRequest.builder().name("Robin").race(Race.HUMAN)
+                .strength(4).agility(7).dexterity(8).intelligence(6).build());
+
+        // when
+        HeroStatsDTO stats = heroService.stats(batmanId).get();
+
+        // then
+        RaceStatsDTO humans = stats.getRaces().stream().filter(race -> race.getRace() == Race.HUMAN).findFirst().get();
+        assertEquals(Race.values().length, stats.getRaces().size());
+        assertEquals(2, humans.getCount());
+        assertEquals(5.0, humans.getStrength().getMean());
+        assertEquals(2, humans.getDexterity().getHistogram()[8]);
+        assertEquals(75.0, stats.getHero().getStrength());
+        assertEquals(50.0, stats.getHero().getDexterity());
+    }
+
     @Test
     public void deleteDeveriaDeletarHeroiSeHeroExistir() {
         // given
@@ -226,11 +516,13 @@ public class HeroServiceIT {
         Hero hero = heroService.findById(uuid).get();
 
         // when
-        heroService.delete(hero);
+        boolean deleted = heroService.deleteById(uuid);
 
         // then
+        assertTrue(deleted);
         Optional<Hero> heroOptional = heroService.findById(uuid);
         assertTrue(heroOptional.isEmpty());
+        assertFalse(heroService.deleteById(uuid));
 
         PowerStats powerStats = powerStatsService.findById(hero.getPowerStatsId());
         assertNull(powerStats);
@@ -282,6 +574,10 @@ public class HeroServiceIT {
     }
 
     private void dbCleaner() {
-        heroService.findAll().forEach(h -> heroService.delete(h));
+        heroService.findAll().forEach(h -> heroService.deleteById(h.getId()));
+    }
+
+    private Optional<HeroWithPowerStats> findByNameWithPowerStats(String heroName) {
+        return heroService.findAllByNamesWithPowerStats(List.of(heroName)).stream().findFirst();
     }
 }
@@ -3,15 +3,28 @@ package br.com.gubee.interview.core.features.hero;
 import br.com.gubee.interview.core.features.hero.impl.HeroRepositoryInMemoryImpl;
 import br.com.gubee.interview.core.features.powerstats.PowerStatsService;
 import br.com.gubee.interview.core.features.powerstats.impl.PowerStatsRepositoryInMemoryImpl;
+import br.com.gubee.interview.core.jdbc.WriteCounters;
 import br.com.gubee.interview.model.Hero;
+import br.com.gubee.interview.model.HeroCursor;
+import br.com.gubee.interview.model.HeroPage;
+import br.com.gubee.interview.model.HeroWithPowerStats;
 import br.com.gubee.interview.model.PowerStats;
+import br.com.gubee.interview.model.dto.ComparedHeroDTO;
+import br.com.gubee.interview.model.dto.ComparedHeroesResultDTO;
+import br.com.gubee.interview.model.dto.HeroStatsDTO;
+import br.com.gubee.interview.model.dto.RaceStatsDTO;
 import br.com.gubee.interview.model.enums.Race;
+import br.com.gubee.interview.model.request.CompareHeroesRequest;
 import br.com.gubee.interview.model.request.CreateHeroRequest;
 import br.com.gubee.interview.model.request.UpdateHeroRequest;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -26,12 +39,10 @@ class HeroServiceTest {
 
     @BeforeEach
     void init() {
-        heroRepositoryInMemory = new HeroRepositoryInMemoryImpl();
         PowerStatsRepositoryInMemoryImpl powerStatsRepositoryInMemory = new PowerStatsRepositoryInMemoryImpl();
-        powerStatsService = new PowerStatsService(powerStatsRepositoryInMemory);
-        heroService= new HeroService(heroRepositoryInMemory,powerStatsService);
-
-        storageCleaner();
+        heroRepositoryInMemory = new HeroRepositoryInMemoryImpl(powerStatsRepositoryInMemory);
+        powerStatsService = new PowerStatsService(powerStatsRepositoryInMemory, Caffeine.newBuilder().buildAsync());
+        heroService= new HeroService(heroRepositoryInMemory,powerStatsService,new WriteCounters());
     }
 
     @Test
@@ -146,7 +157,7 @@ class HeroServiceTest {
         String search = "man";
 
         // when
-        List<Hero> heroes = heroService.findManyByName(search);
+        List<Hero> heroes = heroService.findManyByName(search, HeroService.DEFAULT_SEARCH_LIMIT);
 
         // then
         assertNotNull(heroes);
@@ -172,7 +183,7 @@ class HeroServiceTest {
         String search = "INVALID_SEARCH";
 
         // when
-        List<Hero> heroes = heroService.findManyByName(search);
+        List<Hero> heroes = heroService.findManyByName(search, HeroService.DEFAULT_SEARCH_LIMIT);
 
         // then
         assertNotNull(heroes);
@@ -239,6 +250,279 @@ class HeroServiceTest {
         assertEquals(0,heroes.size());
     }
 
+    @Test
+    void findPageShouldReturnHeroesOrderedByNameAlongWithTheirPowerStats() {
+        // given
+        heroService.create(createAnotherHeroRequest());
+        heroService.create(createHeroRequest());
+
+        // when
+        List<HeroWithPowerStats> heroes = heroService.findPage(null, 10).getHeroes();
+
+        // then
+        assertEquals(2, heroes.size());
+        assertEquals("Batman", heroes.get(0).getHero().getName());
+        assertEquals("Superman", heroes.get(1).getHero().getName());
+        assertEquals(heroes.get(0).getHero().getPowerStatsId(), heroes.get(0).getPowerStats().getId());
+        assertEquals(createHeroRequest().getIntelligence(), heroes.get(0).getPowerStats().getIntelligence());
+        assertEquals(createAnotherHeroRequest().getStrength(), heroes.get(1).getPowerStats().getStrength());
+    }
+
+    @Test
+    void findPageShouldWalkThroughAllHeroesOrderedByNameUsingTheNextCursor() {
+        // given
+        heroService.create(createAnotherHeroRequest());
+        heroService.create(createHeroRequest());
+
+        // when
+        HeroPage firstPage = heroService.findPage(null, 1);
+        HeroPage secondPage = heroService.findPage(HeroCursor.decode(firstPage.getNext().get().encode()), 1);
+
+        // then
+        assertEquals(1, firstPage.getHeroes().size());
+        assertEquals("Batman", firstPage.getHeroes().get(0).getHero().getName());
+        assertEquals(1, secondPage.getHeroes().size());
+        assertEquals("Superman", secondPage.getHeroes().get(0).getHero().getName());
+        assertTrue(secondPage.getNext().isEmpty());
+    }
+
+    @Test
+    void findPageShouldFollowRenamedHeroesToTheirNewPosition() {
+        // given
+        UUID uuid = heroService.create(createHeroRequest());
+        heroService.create(createAnotherHeroRequest());
+        heroService.update(uuid, UpdateHeroRequest.builder().name("Zatanna").build());
+
+        // when
+        HeroPage page = heroService.findPage(null, 10);
+
+        // then
+        assertEquals(2, page.getHeroes().size());
+        assertEquals("Superman", page.getHeroes().get(0).getHero().getName());
+        assertEquals("Zatanna", page.getHeroes().get(1).getHero().getName());
+    }
+
+    @Test
+    void exportShouldResumeRightAfterTheLastSeenId() {
+        // given
+        heroService.create(createHeroRequest());
+        heroService.create(createAnotherHeroRequest());
+
+        List<HeroWithPowerStats> firstRun = new ArrayList<>();
+        heroService.export(null, firstRun::add);
+
+        // when
+        List<HeroWithPowerStats> resumedRun = new ArrayList<>();
+        heroService.export(firstRun.get(0).getHero().getId(), resumedRun::add);
+
+        // then
+        assertEquals(2, firstRun.size());
+        assertEquals(1, resumedRun.size());
+        assertEquals(firstRun.get(1).getHero().getId(), resumedRun.get(0).getHero().getId());
+        assertNotNull(resumedRun.get(0).getPowerStats());
+    }
+
+    @Test
+    void findManyByNameWithPowerStatsShouldReturnMatchingHeroesAlongWithTheirPowerStats() {
+        // given
+        heroService.create(createHeroRequest());
+        heroService.create(createAnotherHeroRequest());
+
+        // when
+        List<HeroWithPowerStats> heroes = heroService.findManyByNameWithPowerStats("man", HeroService.DEFAULT_SEARCH_LIMIT);
+
+        // then
+        assertEquals(2, heroes.size());
+        heroes.forEach(hero -> assertEquals(hero.getHero().getPowerStatsId(), hero.getPowerStats().getId()));
+    }
+
+    @Test
+    void findAllByNamesWithPowerStatsShouldReturnTheHeroAlongWithItsPowerStats() {
+        // given
+        CreateHeroRequest request = createHeroRequest();
+        UUID uuid = heroService.create(request);
+
+        // when
+        Optional<HeroWithPowerStats> optionalHero = heroService.findAllByNamesWithPowerStats(List.of(request.getName()))
+                .stream()
+                .findFirst();
+
+        // then
+        assertTrue(optionalHero.isPresent());
+        assertEquals(uuid, optionalHero.get().getHero().getId());
+        assertEquals(request.getStrength(), optionalHero.get().getPowerStats().getStrength());
+        assertEquals(request.getAgility(), optionalHero.get().getPowerStats().getAgility());
+        assertEquals(request.getDexterity(), optionalHero.get().getPowerStats().getDexterity());
+        assertEquals(request.getIntelligence(), optionalHero.get().getPowerStats().getIntelligence());
+    }
+
+    @Test
+    void compareShouldReturnTheDifferencesOfBothHeroesIgnoringCase() {
+        // given
+        UUID batmanId = heroService.create(createHeroRequest());
+        UUID supermanId = heroService.create(createAnotherHeroRequest());
+
+        // when
+        Optional<List<ComparedHeroDTO>> comparedHeroes = heroService.compare("batman", "SUPERMAN");
+
+        // then
+        assertTrue(comparedHeroes.isPresent());
+        assertEquals(batmanId, comparedHeroes.get().get(0).getId());
+        assertEquals(-4, comparedHeroes.get().get(0).getStrength());
+        assertEquals(-5, comparedHeroes.get().get(0).getAgility());
+        assertEquals(supermanId, comparedHeroes.get().get(1).getId());
+        assertEquals(2, comparedHeroes.get().get(1).getDexterity());
+        assertEquals(0, comparedHeroes.get().get(1).getIntelligence());
+    }
+
+    @Test
+    void compareShouldReturnAnEmptyOptionalWhenAHeroDoesNotExist() {
+        // given
+        heroService.create(createHeroRequest());
+
+        // when
+        Optional<List<ComparedHeroDTO>> comparedHeroes = heroService.compare("Batman", "Spider");
+
+        // then
+        assertTrue(comparedHeroes.isEmpty());
+    }
+
+    @Test
+    void compareAllShouldCompareEveryPairAndReportTheInvalidOnes() {
+        // given
+        heroService.create(createHeroRequest());
+        heroService.create(createAnotherHeroRequest());
+
+        List<CompareHeroesRequest> requests = List.of(
+                CompareHeroesRequest.builder().hero1Name("Batman").hero2Name("Superman").build(),
+                CompareHeroesRequest.builder().hero1Name("Superman").hero2Name("Spider").build(),
+                CompareHeroesRequest.builder().hero1Name("Batman").build(),
+                CompareHeroesRequest.builder().hero1Name("superman").hero2Name("batman").build());
+
+        // when
+        List<ComparedHeroesResultDTO> results = heroService.compareAll(requests);
+
+        // then
+        assertEquals(4, results.size());
+        assertEquals(-4, results.get(0).getHeroes().get(0).getStrength());
+        assertEquals(List.of(HeroService.HERO_NOT_FOUND), results.get(1).getErrors());
+        assertEquals(List.of("message.name.mandatory"), results.get(2).getErrors());
+        assertEquals(4, results.get(3).getHeroes().get(0).getStrength());
+        assertNull(results.get(3).getErrors());
+    }
+
+    @Test
+    void compareAllShouldRejectANullPairWithoutFailingTheBatch() {
+        // given
+        heroService.create(createHeroRequest());
+        heroService.create(createAnotherHeroRequest());
+
+        List<CompareHeroesRequest> requests = Arrays.asList(
+                CompareHeroesRequest.builder().hero1Name("Batman").hero2Name("Superman").build(),
+                null);
+
+        // when
+        List<ComparedHeroesResultDTO> results = heroService.compareAll(requests);
+
+        // then
+        assertEquals(2, results.size());
+        assertEquals(2, results.get(0).getHeroes().size());
+        assertEquals(1, results.get(1).getIndex());
+        assertEquals(List.of("message.name.mandatory"), results.get(1).getErrors());
+    }
+
+    @Test
+    void compareAllShouldRejectBatchesAboveTheLimit() {
+        // given
+        List<CompareHeroesRequest> requests = Collections.nCopies(HeroService.MAX_COMPARE_BATCH_SIZE + 1,
+                CompareHeroesRequest.builder().hero1Name("Batman").hero2Name("Superman").build());
+
+        // when
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> heroService.compareAll(requests));
+
+        // then
+        assertNotNull(e);
+    }
+
+    @Test
+    void statsShouldFollowCreatedUpdatedAndDeletedHeroes() {
+        // given
+        UUID batmanId = heroService.create(createHeroRequest());
+        UUID supermanId = heroService.create(createAnotherHeroRequest());
+
+        // when
+        heroService.update(batmanId, createUpdateHeroRequest());
+        RaceStatsDTO divinesAfterUpdate = raceStats(heroService.stats(), Race.DIVINE);
+        heroService.deleteById(supermanId);
+        HeroStatsDTO statsAfterDelete = heroService.stats();
+
+        // then
+        assertEquals(2, divinesAfterUpdate.getCount());
+        assertEquals(9.0, divinesAfterUpdate.getStrength().getMean());
+        assertEquals(1, divinesAfterUpdate.getStrength().getHistogram()[8]);
+        assertEquals(1, divinesAfterUpdate.getStrength().getHistogram()[10]);
+        assertEquals(0, raceStats(statsAfterDelete, Race.HUMAN).getCount());
+        assertEquals(1, raceStats(statsAfterDelete, Race.DIVINE).getCount());
+        assertEquals(Race.values().length, statsAfterDelete.getRaces().size());
+    }
+
+    @Test
+    void statsShouldRankTheHeroAgainstTheOtherHeroesOfItsRace() {
+        // given
+        UUID supermanId = heroService.create(createAnotherHeroRequest());
+        heroService.create(CreateHeroRequest.builder().name("Thor").race(Race.DIVINE)
+                .strength(8).agility(10).dexterity(10).intelligence(10).build());
+        heroService.create(createHeroRequest());
+
+        // when
+        Optional<HeroStatsDTO> stats = heroService.stats(supermanId);
+
+        // then
+        assertTrue(stats.isPresent());
+        assertEquals(supermanId, stats.get().getHero().getId());
+        assertEquals(75.0, stats.get().getHero().getStrength());
+        assertEquals(50.0, stats.get().getHero().getAgility());
+        assertTrue(heroService.stats(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void updateByIdShouldKeepUpdatedAtWhenThePatchChangesNothing() {
+        // given
+        UUID uuid = heroService.create(createHeroRequest());
+        Hero hero = heroService.findById(uuid).get();
+        Instant updatedAt = hero.getUpdatedAt();
+        Instant powerStatsUpdatedAt = powerStatsService.findById(hero.getPowerStatsId()).getUpdatedAt();
+
+        // when
+        Optional<HeroWithPowerStats> updated = heroService.update(uuid,
+                UpdateHeroRequest.builder().name("Batman").race(Race.HUMAN).strength(6).build());
+
+        // then
+        assertTrue(updated.isPresent());
+        assertEquals(updatedAt, updated.get().getHero().getUpdatedAt());
+        assertEquals(powerStatsUpdatedAt, updated.get().getPowerStats().getUpdatedAt());
+    }
+
+    @Test
+    void updateByIdShouldPatchOnlyThePresentMembersAndReturnTheWrittenHero() {
+        // given
+        UUID uuid = heroService.create(createHeroRequest());
+        UpdateHeroRequest patch = UpdateHeroRequest.builder().name("Bruce Wayne").strength(9).build();
+
+        // when
+        Optional<HeroWithPowerStats> updated = heroService.update(uuid, patch);
+
+        // then
+        assertTrue(updated.isPresent());
+        assertEquals("Bruce Wayne", updated.get().getHero().getName());
+        assertEquals(Race.HUMAN, updated.get().getHero().getRace());
+        assertEquals(9, updated.get().getPowerStats().getStrength());
+        assertEquals(5, updated.get().getPowerStats().getAgility());
+        assertEquals(10, updated.get().getPowerStats().getIntelligence());
+        assertEquals(9, powerStatsService.findById(updated.get().getHero().getPowerStatsId()).getStrength());
+        assertTrue(heroService.update(UUID.randomUUID(), patch).isEmpty());
+    }
+
     @Test
     void updateShouldUpdateHeroFieldsAccordingToRequest() {
         // given
@@ -256,24 +540,26 @@ class HeroServiceTest {
         Instant powerStatsUpdateTimeBeforeUpdate = powerStats.getUpdatedAt();
 
         // when
-        heroService.update(hero,updateHeroRequest);
+        heroService.update(uuid, updateHeroRequest);
+        Hero updatedHero = heroService.findById(uuid).get();
+        PowerStats updatedPowerStats = powerStatsService.findById(hero.getPowerStatsId());
 
         // then
-        assertNotNull(hero.getId());
-        assertEquals(updateHeroRequest.getName(),hero.getName());
-        assertEquals(updateHeroRequest.getRace(),hero.getRace());
-        assertEquals(updateHeroRequest.getEnabled(),hero.isEnabled());
-        assertEquals(heroCreateTimeBeforeUpdate,hero.getCreatedAt());
-        assertNotEquals(heroUpdateTimeBeforeUpdate,hero.getUpdatedAt());
-        assertNotNull(hero.getPowerStatsId());
-
-        assertNotNull(powerStats.getId());
-        assertEquals(updateHeroRequest.getAgility(),powerStats.getAgility());
-        assertEquals(updateHeroRequest.getDexterity(),powerStats.getDexterity());
-        assertEquals(updateHeroRequest.getIntelligence(),powerStats.getIntelligence());
-        assertEquals(updateHeroRequest.getStrength(),powerStats.getStrength());
-        assertEquals(powerStatsCreateTimeBeforeUpdate,powerStats.getCreatedAt());
-        assertNotEquals(powerStatsUpdateTimeBeforeUpdate,powerStats.getUpdatedAt());
+        assertNotNull(updatedHero.getId());
+        assertEquals(updateHeroRequest.getName(),updatedHero.getName());
+        assertEquals(updateHeroRequest.getRace(),updatedHero.getRace());
+        assertEquals(updateHeroRequest.getEnabled(),updatedHero.isEnabled());
+        assertEquals(heroCreateTimeBeforeUpdate,updatedHero.getCreatedAt());
+        assertNotEquals(heroUpdateTimeBeforeUpdate,updatedHero.getUpdatedAt());
+        assertNotNull(updatedHero.getPowerStatsId());
+
+        assertEquals(powerStats.getId(),updatedPowerStats.getId());
+        assertEquals(updateHeroRequest.getAgility(),updatedPowerStats.getAgility());
+        assertEquals(updateHeroRequest.getDexterity(),updatedPowerStats.getDexterity());
+        assertEquals(updateHeroRequest.getIntelligence(),updatedPowerStats.getIntelligence());
+        assertEquals(updateHeroRequest.getStrength(),updatedPowerStats.getStrength());
+        assertEquals(powerStatsCreateTimeBeforeUpdate,updatedPowerStats.getCreatedAt());
+        assertNotEquals(powerStatsUpdateTimeBeforeUpdate,updatedPowerStats.getUpdatedAt());
     }
 
     @Test
@@ -284,9 +570,10 @@ class HeroServiceTest {
         Hero hero = optionalHero.get();
 
         // when
-        heroService.delete(hero);
+        boolean deleted = heroService.deleteById(uuid);
 
         // then
+        assertTrue(deleted);
         Optional<Hero> deletedHero = heroService.findById(uuid);
         assertTrue(deletedHero.isEmpty());
 
@@ -295,16 +582,19 @@ class HeroServiceTest {
     }
 
     @Test
-    void deleteShouldThrowNullPointerExceptionWhenHeroIsNull() {
+    void deleteShouldReturnFalseWhenHeroDoesNotExist() {
         // given
-
-        Hero hero = null;
+        UUID uuid = UUID.randomUUID();
 
         // when
-        NullPointerException e = assertThrows(NullPointerException.class, () -> heroService.delete(hero));
+        boolean deleted = heroService.deleteById(uuid);
 
         // then
-        assertNotNull(e);
+        assertFalse(deleted);
+    }
+
+    private RaceStatsDTO raceStats(HeroStatsDTO stats, Race race) {
+        return stats.getRaces().stream().filter(raceStats -> raceStats.getRace() == race).findFirst().orElseThrow();
     }
 
     private CreateHeroRequest createHeroRequest() {
@@ -350,9 +640,4 @@ class HeroServiceTest {
                 .enabled(false)
                 .build();
     }
-
-    private void storageCleaner() {
-        heroRepositoryInMemory.findAll()
-                .forEach(hero -> heroRepositoryInMemory.delete(hero));
-    }
-}
\ No newline at end of file
+}
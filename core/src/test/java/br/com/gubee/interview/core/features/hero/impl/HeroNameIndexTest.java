@@ -0,0 +1,62 @@
+package br.com.gubee.interview.core.features.hero.impl;
+
+import br.com.gubee.interview.model.Hero;
+import br.com.gubee.interview.model.enums.Race;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HeroNameIndexTest {
+
+    @Test
+    void similarityShouldMatchTheValuesReturnedByPgTrgm() {
+        assertEquals(0.2222, similarity("Batman", "man"), 0.0001);
+        assertEquals(0.1818, similarity("Superman", "man"), 0.0001);
+        assertEquals(1.0, similarity("Spider-Man", "spider man"), 0.0001);
+        assertEquals(0.6154, similarity("Dr. Strange 2", "strange"), 0.0001);
+        assertEquals(0.0, similarity("Batman", "--"), 0.0001);
+    }
+
+    @Test
+    void churnShouldReuseTheOrdinalsOfRemovedHeroes() {
+        // given
+        HeroNameIndex index = new HeroNameIndex();
+        Deque<Hero> indexed = new ArrayDeque<>();
+        for (int i = 0; i < 100; i++) {
+            Hero hero = hero("Hero " + i);
+            index.add(hero);
+            indexed.add(hero);
+        }
+        int capacity = index.capacity();
+
+        // when
+        for (int i = 100; i < 100_000; i++) {
+            index.remove(indexed.removeFirst().getId());
+            Hero hero = hero("Hero " + i);
+            index.add(hero);
+            indexed.add(hero);
+        }
+
+        // then
+        assertEquals(capacity, index.capacity());
+        assertEquals(List.of(indexed.getLast()), index.search("Hero 99999", 10));
+        assertEquals(List.of(), index.search("Hero 99899", 10));
+        assertEquals(100, index.search("hero", 1000).size());
+    }
+
+    private Hero hero(String name) {
+        return new Hero(UUID.randomUUID(), name, Race.HUMAN, UUID.randomUUID(), Instant.now(), Instant.now(), true);
+    }
+
+    private double similarity(String value, String otherValue) {
+        return HeroNameIndex.similarity(
+                HeroNameIndex.similarityTrigrams(value),
+                HeroNameIndex.similarityTrigrams(otherValue));
+    }
+}
@@ -1,26 +1,39 @@
 package br.com.gubee.interview.core.features.hero.impl;
 
+import br.com.gubee.interview.core.features.hero.HeroService;
+import br.com.gubee.interview.core.features.powerstats.impl.PowerStatsRepositoryInMemoryImpl;
 import br.com.gubee.interview.model.Hero;
+import br.com.gubee.interview.model.HeroCursor;
+import br.com.gubee.interview.model.HeroFilter;
+import br.com.gubee.interview.model.HeroRanking;
+import br.com.gubee.interview.model.HeroVersion;
+import br.com.gubee.interview.model.HeroWithPowerStats;
+import br.com.gubee.interview.model.PowerStats;
 import br.com.gubee.interview.model.enums.Race;
 import br.com.gubee.interview.model.request.CreateHeroRequest;
+import br.com.gubee.interview.model.request.HeroFilterRequest;
 import br.com.gubee.interview.model.request.UpdateHeroRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class HeroRepositoryInMemoryImplTest {
+    private PowerStatsRepositoryInMemoryImpl powerStatsRepositoryInMemory;
     private HeroRepositoryInMemoryImpl heroRepositoryInMemory;
 
     @BeforeEach
     void init() {
-        heroStorageCleaner();
-        heroRepositoryInMemory = new HeroRepositoryInMemoryImpl();
+        powerStatsRepositoryInMemory = new PowerStatsRepositoryInMemoryImpl();
+        heroRepositoryInMemory = new HeroRepositoryInMemoryImpl(powerStatsRepositoryInMemory);
     }
 
     @Test
@@ -33,7 +46,7 @@ class HeroRepositoryInMemoryImplTest {
         UUID heroId = heroRepositoryInMemory.create(hero);
 
         // then
-        Hero createdHero = HeroRepositoryInMemoryImpl.heroStorage.get(heroId);
+        Hero createdHero = heroRepositoryInMemory.findById(heroId).orElse(null);
         assertNotNull(createdHero);
 
         assertEquals(request.getName(),createdHero.getName());
@@ -124,6 +137,22 @@ class HeroRepositoryInMemoryImplTest {
         assertTrue(heroOptional.isEmpty());
     }
 
+    @Test
+    void findByIdWithPowerStatsShouldReturnTheHeroAlongWithItsPowerStats() {
+        // given
+        UUID uuid = heroRepositoryInMemory.createWithPowerStats(createHeroRequest());
+
+        // when
+        Optional<HeroWithPowerStats> heroWithPowerStats = heroRepositoryInMemory.findByIdWithPowerStats(uuid);
+
+        // then
+        assertTrue(heroWithPowerStats.isPresent());
+        assertEquals("Batman", heroWithPowerStats.get().getHero().getName());
+        assertEquals(createHeroRequest().getStrength(), heroWithPowerStats.get().getPowerStats().getStrength());
+        assertEquals(heroRepositoryInMemory.findVersionById(uuid).get(), HeroVersion.of(heroWithPowerStats.get()));
+        assertTrue(heroRepositoryInMemory.findByIdWithPowerStats(UUID.randomUUID()).isEmpty());
+    }
+
     @Test
     void findManyByNameShouldReturnAListContainingTwoHeroesWithManInTheName() {
         // given
@@ -136,7 +165,7 @@ class HeroRepositoryInMemoryImplTest {
         heroRepositoryInMemory.create(hero2);
 
         // when
-        List<Hero> heroesContainingSearch = heroRepositoryInMemory.findManyByName(search);
+        List<Hero> heroesContainingSearch = heroRepositoryInMemory.findManyByName(search, HeroService.DEFAULT_SEARCH_LIMIT);
 
         // then
         assertNotNull(heroesContainingSearch);
@@ -151,13 +180,126 @@ class HeroRepositoryInMemoryImplTest {
         String search = "INVALID_SEARCH";
 
         // when
-        List<Hero> heroesContainingSearch = heroRepositoryInMemory.findManyByName(search);
+        List<Hero> heroesContainingSearch = heroRepositoryInMemory.findManyByName(search, HeroService.DEFAULT_SEARCH_LIMIT);
 
         // then
         assertNotNull(heroesContainingSearch);
         assertEquals(0,heroesContainingSearch.size());
     }
 
+    @Test
+    void findManyByNameShouldIgnoreCaseLikeIlike() {
+        // given
+        Hero hero = createHero(createHeroRequest());
+        heroRepositoryInMemory.create(hero);
+
+        // when
+        List<Hero> heroesContainingSearch = heroRepositoryInMemory.findManyByName("BATM", HeroService.DEFAULT_SEARCH_LIMIT);
+
+        // then
+        assertEquals(List.of(hero), heroesContainingSearch);
+    }
+
+    @Test
+    void findManyByNameShouldReturnTheMostSimilarHeroesFirstUpToTheLimit() {
+        // given
+        Hero batman = createHero(createHeroRequest());
+        Hero superman = createHero(createAnotherHeroRequest());
+        Hero man = createHero(CreateHeroRequest.builder().name("Man").race(Race.HUMAN).build());
+
+        heroRepositoryInMemory.create(batman);
+        heroRepositoryInMemory.create(superman);
+        heroRepositoryInMemory.create(man);
+
+        // when
+        List<Hero> heroesContainingSearch = heroRepositoryInMemory.findManyByName("man", 2);
+
+        // then
+        assertEquals(List.of(man, batman), heroesContainingSearch);
+    }
+
+    @Test
+    void findManyByNameShouldFollowRenamedAndDeletedHeroes() {
+        // given
+        Hero hero = createHero(createHeroRequest());
+        Hero hero2 = createHero(createAnotherHeroRequest());
+        heroRepositoryInMemory.create(hero);
+        heroRepositoryInMemory.create(hero2);
+
+        // when
+        heroRepositoryInMemory.updateWithPowerStats(hero.getId(), createUpdateHeroRequest());
+        heroRepositoryInMemory.deleteWithPowerStats(hero2.getId());
+
+        // then
+        assertTrue(heroRepositoryInMemory.findManyByName("man", HeroService.DEFAULT_SEARCH_LIMIT).isEmpty());
+        assertEquals(List.of(heroRepositoryInMemory.findById(hero.getId()).get()),
+                heroRepositoryInMemory.findManyByName("tho", HeroService.DEFAULT_SEARCH_LIMIT));
+        assertTrue(heroRepositoryInMemory.findByName("thor").isPresent());
+        assertTrue(heroRepositoryInMemory.findByName("Batman").isEmpty());
+    }
+
+    @Test
+    void findByNameShouldOnlyMatchTheWholeName() {
+        // given
+        heroRepositoryInMemory.create(createHero(createHeroRequest()));
+
+        // then
+        assertTrue(heroRepositoryInMemory.findByName("BATMAN").isPresent());
+        assertTrue(heroRepositoryInMemory.findByName("Bat").isEmpty());
+    }
+
+    @Test
+    void createShouldLetOnlyOneOfManyConcurrentCallersClaimAName() throws Exception {
+        // given
+        int callers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<UUID>> results = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < callers; i++) {
+            String name = i % 2 == 0 ? "Batman" : "BATMAN";
+            results.add(executor.submit(() -> {
+                start.await();
+                return heroRepositoryInMemory.create(createHero(CreateHeroRequest.builder().name(name).race(Race.HUMAN).build()));
+            }));
+        }
+        start.countDown();
+
+        int created = 0;
+        for (Future<UUID> result : results) {
+            try {
+                result.get();
+                created++;
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalArgumentException);
+            }
+        }
+        executor.shutdown();
+
+        // then
+        assertEquals(1, created);
+        assertEquals(1, heroRepositoryInMemory.findAll().size());
+    }
+
+    @Test
+    void updateShouldThrowIllegalArgumentExceptionWhenTheNewNameIsTaken() {
+        // given
+        Hero hero = createHero(createHeroRequest());
+        heroRepositoryInMemory.create(hero);
+        heroRepositoryInMemory.create(createHero(createAnotherHeroRequest()));
+
+        UpdateHeroRequest request = UpdateHeroRequest.builder().name("superman").build();
+
+        // when
+        assertThrows(IllegalArgumentException.class, () -> heroRepositoryInMemory.updateWithPowerStats(hero.getId(), request));
+
+        // then
+        assertEquals("Batman", hero.getName());
+        assertEquals(hero.getId(), heroRepositoryInMemory.findByName("batman").get().getId());
+        assertEquals(2, heroRepositoryInMemory.findAll().size());
+    }
+
     @Test
     void findByNameShouldReturnAnOptionalContainingAHeroWhenParameterNameExists() {
         // given
@@ -219,6 +361,124 @@ class HeroRepositoryInMemoryImplTest {
         assertEquals(0, allHeroes.size());
     }
 
+    @Test
+    void findPageWithPowerStatsShouldLeaveOutHeroesWithoutPowerStats() {
+        // given
+        heroRepositoryInMemory.create(createHero(createHeroRequest()));
+
+        // when
+        List<HeroWithPowerStats> allHeroes = heroRepositoryInMemory.findPageWithPowerStats(null, 10);
+
+        // then
+        assertEquals(0, allHeroes.size());
+    }
+
+    @Test
+    void findTopWithPowerStatsShouldRankHeroesByTheRequestedScore() {
+        // given
+        heroRepositoryInMemory.createAllWithPowerStats(List.of(createHeroRequest(), createAnotherHeroRequest()));
+
+        // when
+        List<HeroWithPowerStats> byTotal = heroRepositoryInMemory.findTopWithPowerStats(HeroRanking.TOTAL, 10);
+        List<HeroWithPowerStats> byIntelligence = heroRepositoryInMemory.findTopWithPowerStats(HeroRanking.INTELLIGENCE, 1);
+
+        // then
+        assertEquals(List.of("Superman", "Batman"), names(byTotal));
+        assertEquals(List.of("Batman"), names(byIntelligence));
+    }
+
+    @Test
+    void findTopWithPowerStatsShouldFollowPowerStatsUpdatesAndDeletedHeroes() {
+        // given
+        heroRepositoryInMemory.createAllWithPowerStats(List.of(createHeroRequest(), createAnotherHeroRequest()));
+        HeroWithPowerStats batman = heroRepositoryInMemory.findAllByNamesWithPowerStats(List.of("Batman")).get(0);
+        Hero superman = heroRepositoryInMemory.findByName("Superman").orElseThrow();
+
+        // when
+        powerStatsRepositoryInMemory.update(batman.getPowerStats(), UpdateHeroRequest.builder().strength(10)
+                .agility(10).dexterity(10).intelligence(10).build());
+        List<HeroWithPowerStats> afterUpdate = heroRepositoryInMemory.findTopWithPowerStats(HeroRanking.TOTAL, 10);
+        heroRepositoryInMemory.deleteWithPowerStats(superman.getId());
+        List<HeroWithPowerStats> afterDelete = heroRepositoryInMemory.findTopWithPowerStats(HeroRanking.TOTAL, 10);
+
+        // then
+        assertEquals(List.of("Batman", "Superman"), names(afterUpdate));
+        assertEquals(40, HeroRanking.TOTAL.score(afterUpdate.get(0).getPowerStats()));
+        assertEquals(List.of("Batman"), names(afterDelete));
+    }
+
+    @Test
+    void findFilteredPageWithPowerStatsShouldMatchRaceAndStatRangesInNameOrder() {
+        // given
+        heroRepositoryInMemory.createAllWithPowerStats(List.of(createHeroRequest(), createAnotherHeroRequest(),
+                CreateHeroRequest.builder().name("Aquaman").race(Race.DIVINE).strength(7).agility(3).dexterity(6)
+                        .intelligence(6).build()));
+        HeroFilter strongDivines = HeroFilter.of(HeroFilterRequest.builder().race(Race.DIVINE).strengthMin(7).build());
+        HeroFilter slowAndStrong = HeroFilter.of(HeroFilterRequest.builder().strengthMin(6).agilityMax(5).build());
+
+        // when
+        List<HeroWithPowerStats> divines = heroRepositoryInMemory.findFilteredPageWithPowerStats(strongDivines, null, 10);
+        List<HeroWithPowerStats> afterAquaman = heroRepositoryInMemory.findFilteredPageWithPowerStats(strongDivines,
+                HeroCursor.of(divines.get(0).getHero()), 10);
+        List<HeroWithPowerStats> slow = heroRepositoryInMemory.findFilteredPageWithPowerStats(slowAndStrong, null, 10);
+        List<HeroWithPowerStats> firstDivine = heroRepositoryInMemory.findFilteredPageWithPowerStats(strongDivines, null, 1);
+
+        // then
+        assertEquals(List.of("Aquaman", "Superman"), names(divines));
+        assertEquals(List.of("Aquaman"), names(firstDivine));
+        assertEquals(List.of("Superman"), names(afterAquaman));
+        assertEquals(List.of("Aquaman", "Batman"), names(slow));
+    }
+
+    @Test
+    void findFilteredPageWithPowerStatsShouldOnlyLoadTheHeroesMatchedByTheBitmaps() {
+        // given
+        AtomicInteger powerStatsLookups = new AtomicInteger();
+        PowerStatsRepositoryInMemoryImpl countingPowerStatsRepository = new PowerStatsRepositoryInMemoryImpl() {
+            @Override
+            public PowerStats findById(UUID powerStatsId) {
+                powerStatsLookups.incrementAndGet();
+                return super.findById(powerStatsId);
+            }
+        };
+        HeroRepositoryInMemoryImpl heroRepository = new HeroRepositoryInMemoryImpl(countingPowerStatsRepository);
+
+        List<CreateHeroRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 500; i++)
+            requests.add(CreateHeroRequest.builder().name("Hero " + i).race(Race.HUMAN).strength(3).agility(3)
+                    .dexterity(3).intelligence(3).build());
+        requests.add(CreateHeroRequest.builder().name("Zeus").race(Race.DIVINE).strength(10).agility(8)
+                .dexterity(7).intelligence(9).build());
+        heroRepository.createAllWithPowerStats(requests);
+        HeroFilter strongest = HeroFilter.of(HeroFilterRequest.builder().strengthMin(9).build());
+        powerStatsLookups.set(0);
+
+        // when
+        List<HeroWithPowerStats> page = heroRepository.findFilteredPageWithPowerStats(strongest, null, 10);
+
+        // then
+        assertEquals(List.of("Zeus"), names(page));
+        assertEquals(1, powerStatsLookups.get());
+    }
+
+    @Test
+    void findFilteredPageWithPowerStatsShouldFollowUpdatedAndDeletedHeroes() {
+        // given
+        heroRepositoryInMemory.createAllWithPowerStats(List.of(createHeroRequest(), createAnotherHeroRequest()));
+        HeroWithPowerStats batman = heroRepositoryInMemory.findAllByNamesWithPowerStats(List.of("Batman")).get(0);
+        Hero superman = heroRepositoryInMemory.findByName("Superman").orElseThrow();
+        HeroFilter strongDivines = HeroFilter.of(HeroFilterRequest.builder().race(Race.DIVINE).strengthMin(9).build());
+
+        // when
+        heroRepositoryInMemory.updateWithPowerStats(batman.getHero().getId(), UpdateHeroRequest.builder().race(Race.DIVINE).build());
+        powerStatsRepositoryInMemory.update(batman.getPowerStats(), UpdateHeroRequest.builder().strength(9)
+                .intelligence(10).build());
+        heroRepositoryInMemory.deleteWithPowerStats(superman.getId());
+
+        // then
+        assertEquals(List.of("Batman"), names(heroRepositoryInMemory.findFilteredPageWithPowerStats(strongDivines, null, 10)));
+    }
+
     @Test
     void updateShouldUpdateHeroFieldsAccordingToRequestWhenIdExists() {
         // given
@@ -231,26 +491,28 @@ class HeroRepositoryInMemoryImplTest {
         Instant heroCreateTimeBeforeUpdate = hero.getCreatedAt();
 
         // when
-        heroRepositoryInMemory.update(hero,updateHeroRequest);
+        heroRepositoryInMemory.updateWithPowerStats(hero.getId(),updateHeroRequest);
+        Hero updatedHero = heroRepositoryInMemory.findById(hero.getId()).get();
 
         // then
-        assertEquals(updateHeroRequest.getName(),hero.getName());
-        assertEquals(updateHeroRequest.getRace(),hero.getRace());
-        assertEquals(updateHeroRequest.getEnabled(),hero.isEnabled());
-        assertEquals(heroCreateTimeBeforeUpdate,hero.getCreatedAt());
-        assertNotEquals(heroUpdateTimeBeforeUpdate,hero.getUpdatedAt());
-        assertNotNull(hero.getPowerStatsId());
+        assertEquals(updateHeroRequest.getName(),updatedHero.getName());
+        assertEquals(updateHeroRequest.getRace(),updatedHero.getRace());
+        assertEquals(updateHeroRequest.getEnabled(),updatedHero.isEnabled());
+        assertEquals(heroCreateTimeBeforeUpdate,updatedHero.getCreatedAt());
+        assertNotEquals(heroUpdateTimeBeforeUpdate,updatedHero.getUpdatedAt());
+        assertNotNull(updatedHero.getPowerStatsId());
+        assertEquals("Batman", hero.getName());
     }
 
     @Test
-    void updateShouldThrowNullPointerExceptionWhenHeroIsNull() {
+    void updateShouldThrowNullPointerExceptionWhenIdIsNull() {
         // given
-        Hero hero = null;
+        UUID uuid = null;
         UpdateHeroRequest updateHeroRequest = createUpdateHeroRequest();
 
         // when
         NullPointerException e = assertThrows(
-                NullPointerException.class, () -> heroRepositoryInMemory.update(hero, updateHeroRequest)
+                NullPointerException.class, () -> heroRepositoryInMemory.updateWithPowerStats(uuid, updateHeroRequest)
         );
 
         // then
@@ -265,7 +527,7 @@ class HeroRepositoryInMemoryImplTest {
 
         // when
         NullPointerException e = assertThrows(
-                NullPointerException.class, () -> heroRepositoryInMemory.update(hero, updateHeroRequest)
+                NullPointerException.class, () -> heroRepositoryInMemory.updateWithPowerStats(hero.getId(), updateHeroRequest)
         );
 
         // then
@@ -280,27 +542,67 @@ class HeroRepositoryInMemoryImplTest {
         UUID uuid = heroRepositoryInMemory.create(hero);
 
         // when
-        heroRepositoryInMemory.delete(hero);
+        heroRepositoryInMemory.deleteWithPowerStats(hero.getId());
 
         // then
-        Hero deletedHero = HeroRepositoryInMemoryImpl.heroStorage.get(uuid);
+        Hero deletedHero = heroRepositoryInMemory.findById(uuid).orElse(null);
         assertNull(deletedHero);
     }
 
     @Test
-    void deleteShouldReturnNullPointerExceptionWhenHeroIsNull() {
+    void deleteWithPowerStatsShouldDeleteThePowerStatsAndReturnTheirIdOnlyWhenTheHeroExists() {
         // given
-        Hero hero = null;
+        UUID uuid = heroRepositoryInMemory.createWithPowerStats(createHeroRequest());
+        UUID powerStatsId = heroRepositoryInMemory.findById(uuid).orElseThrow().getPowerStatsId();
+
+        // when
+        Optional<UUID> deleted = heroRepositoryInMemory.deleteWithPowerStats(uuid);
+        Optional<UUID> deletedAgain = heroRepositoryInMemory.deleteWithPowerStats(uuid);
+
+        // then
+        assertEquals(Optional.of(powerStatsId), deleted);
+        assertTrue(deletedAgain.isEmpty());
+        assertNull(powerStatsRepositoryInMemory.findById(powerStatsId));
+        assertTrue(heroRepositoryInMemory.findByName("Batman").isEmpty());
+    }
+
+    @Test
+    void createWithPowerStatsShouldNotKeepThePowerStatsOfATakenName() {
+        // given
+        UUID uuid = heroRepositoryInMemory.createWithPowerStats(createHeroRequest());
+        List<UUID> deletedPowerStatsIds = new ArrayList<>();
+        powerStatsRepositoryInMemory.addChangeListener(deletedPowerStatsIds::add);
+
+        // when
+        assertThrows(IllegalArgumentException.class,
+                () -> heroRepositoryInMemory.createWithPowerStats(createHeroRequest()));
+
+        // then
+        assertEquals(1, deletedPowerStatsIds.size());
+        assertNull(powerStatsRepositoryInMemory.findById(deletedPowerStatsIds.get(0)));
+        assertEquals(uuid, heroRepositoryInMemory.findByName("Batman").orElseThrow().getId());
+    }
+
+    @Test
+    void deleteShouldReturnNullPointerExceptionWhenHeroIdIsNull() {
+        // given
+        UUID uuid = null;
 
         // when
         NullPointerException e = assertThrows(
-                NullPointerException.class, () -> heroRepositoryInMemory.delete(hero)
+                NullPointerException.class, () -> heroRepositoryInMemory.deleteWithPowerStats(uuid)
         );
 
         // then
         assertNotNull(e);
     }
 
+    private List<String> names(List<HeroWithPowerStats> heroes) {
+        List<String> names = new ArrayList<>();
+        heroes.forEach(hero -> names.add(hero.getHero().getName()));
+        return names;
+    }
+
     private Hero createHero(CreateHeroRequest HeroRequest) {
         return new Hero(HeroRequest, UUID.randomUUID());
     }
@@ -338,13 +640,4 @@ class HeroRepositoryInMemoryImplTest {
                 .enabled(false)
                 .build();
     }
-
-    private void heroStorageCleaner() {
-        HeroRepositoryInMemoryImpl heroRepository = new HeroRepositoryInMemoryImpl();
-
-        List<Hero> allHeroes = heroRepository.findAll();
-
-        for (var hero : allHeroes)
-            heroRepository.delete(hero);
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,132 @@
+package br.com.gubee.interview.core.features.powerstats;
+
+import br.com.gubee.interview.model.PowerStats;
+import br.com.gubee.interview.model.dto.CacheStatsDTO;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PowerStatsServiceTest {
+
+    private PowerStatsRepository powerStatsRepository;
+    private PowerStatsService powerStatsService;
+
+    @BeforeEach
+    void init() {
+        powerStatsRepository = mock(PowerStatsRepository.class);
+        powerStatsService = new PowerStatsService(powerStatsRepository, Caffeine.newBuilder()
+                .maximumSize(100)
+                .recordStats()
+                .buildAsync());
+    }
+
+    @Test
+    void findByIdShouldOnlyHitTheRepositoryOnTheFirstLookup() {
+        // given
+        PowerStats powerStats = powerStats();
+        when(powerStatsRepository.findById(powerStats.getId())).thenReturn(powerStats);
+
+        // when
+        PowerStats first = powerStatsService.findById(powerStats.getId());
+        PowerStats second = powerStatsService.findById(powerStats.getId());
+
+        // then
+        assertSame(powerStats, first);
+        assertSame(powerStats, second);
+        verify(powerStatsRepository, times(1)).findById(powerStats.getId());
+
+        CacheStatsDTO stats = powerStatsService.cacheStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void findByIdShouldLoadAMissOnTheCallingThread() {
+        // given
+        PowerStats powerStats = powerStats();
+        Thread caller = Thread.currentThread();
+        when(powerStatsRepository.findById(powerStats.getId())).thenAnswer(invocation -> {
+            assertSame(caller, Thread.currentThread());
+            return powerStats;
+        });
+
+        // when
+        PowerStats found = powerStatsService.findById(powerStats.getId());
+
+        // then
+        assertSame(powerStats, found);
+    }
+
+    @Test
+    void findByIdShouldRethrowWhatTheRepositoryThrows() {
+        // given
+        UUID powerStatsId = UUID.randomUUID();
+        when(powerStatsRepository.findById(powerStatsId)).thenThrow(new IllegalStateException("down"));
+
+        // when
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> powerStatsService.findById(powerStatsId));
+
+        // then
+        assertEquals("down", e.getMessage());
+        assertEquals(0, powerStatsService.cacheStats().getSize());
+    }
+
+    @Test
+    void findByIdShouldNotCacheMissingPowerStats() {
+        // given
+        UUID powerStatsId = UUID.randomUUID();
+
+        // when
+        assertNull(powerStatsService.findById(powerStatsId));
+        assertNull(powerStatsService.findById(powerStatsId));
+
+        // then
+        verify(powerStatsRepository, times(2)).findById(powerStatsId);
+    }
+
+    @Test
+    void evictShouldDropTheCachedPowerStats() {
+        // given
+        PowerStats powerStats = powerStats();
+        when(powerStatsRepository.findById(powerStats.getId())).thenReturn(powerStats);
+        powerStatsService.findById(powerStats.getId());
+
+        // when
+        powerStatsService.evict(powerStats.getId());
+        powerStatsService.findById(powerStats.getId());
+
+        // then
+        verify(powerStatsRepository, times(2)).findById(powerStats.getId());
+    }
+
+    @Test
+    void deleteByIdShouldEvictTheCachedPowerStats() {
+        // given
+        PowerStats powerStats = powerStats();
+        when(powerStatsRepository.findById(powerStats.getId())).thenReturn(powerStats);
+        powerStatsService.findById(powerStats.getId());
+
+        // when
+        powerStatsService.deleteById(powerStats.getId());
+
+        // then
+        verify(powerStatsRepository).delete(powerStats.getId());
+        assertEquals(0, powerStatsService.cacheStats().getSize());
+    }
+
+    private PowerStats powerStats() {
+        return PowerStats.builder()
+                .id(UUID.randomUUID())
+                .strength(5)
+                .agility(5)
+                .dexterity(5)
+                .intelligence(5)
+                .build();
+    }
+}
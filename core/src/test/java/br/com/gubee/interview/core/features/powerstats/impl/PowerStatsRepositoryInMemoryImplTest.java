@@ -6,6 +6,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,7 +31,7 @@ class PowerStatsRepositoryInMemoryImplTest {
         // then
         assertNotNull(uuid);
 
-        PowerStats createdPowerStats = PowerStatsRepositoryInMemoryImpl.powerStatsStorage.get(uuid);
+        PowerStats createdPowerStats = powerStatsRepositoryInMemory.findById(uuid);
         assertNotNull(createdPowerStats);
         assertEquals(powerStats.getId(), createdPowerStats.getId());
         assertEquals(powerStats.getAgility(), createdPowerStats.getAgility());
@@ -98,14 +99,48 @@ class PowerStatsRepositoryInMemoryImplTest {
 
         // when
         powerStatsRepositoryInMemory.update(powerStats,request);
+        PowerStats updatedPowerStats = powerStatsRepositoryInMemory.findById(uuid);
 
         // then
-        assertEquals(powerStats.getAgility(), request.getAgility());
-        assertEquals(powerStats.getDexterity(), request.getDexterity());
-        assertEquals(powerStats.getIntelligence(), request.getIntelligence());
-        assertEquals(powerStats.getStrength(), request.getStrength());
-        assertNotEquals(updateTimeBeforeUpdate,powerStats.getUpdatedAt());
-        assertEquals(createTimeBeforeUpdate,powerStats.getCreatedAt());
+        assertEquals(updatedPowerStats.getAgility(), request.getAgility());
+        assertEquals(updatedPowerStats.getDexterity(), request.getDexterity());
+        assertEquals(updatedPowerStats.getIntelligence(), request.getIntelligence());
+        assertEquals(updatedPowerStats.getStrength(), request.getStrength());
+        assertNotEquals(updateTimeBeforeUpdate,updatedPowerStats.getUpdatedAt());
+        assertEquals(createTimeBeforeUpdate,updatedPowerStats.getCreatedAt());
+    }
+
+    @Test
+    void updateShouldLeaveThePreviouslyReadPowerStatsUntouched() {
+        // given
+        UUID uuid = powerStatsRepositoryInMemory.create(createPowerStats());
+        PowerStats powerStats = powerStatsRepositoryInMemory.findById(uuid);
+
+        // when
+        Optional<PowerStats> updated = powerStatsRepositoryInMemory.update(powerStats, createUpdateHeroRequest());
+        Optional<PowerStats> unchanged = powerStatsRepositoryInMemory.update(updated.get(), createUpdateHeroRequest());
+
+        // then
+        assertEquals(10, powerStats.getStrength());
+        assertEquals(10, powerStats.getIntelligence());
+        assertNotSame(powerStats, updated.get());
+        assertSame(updated.get(), powerStatsRepositoryInMemory.findById(uuid));
+        assertSame(updated.get(), unchanged.get());
+    }
+
+    @Test
+    void updateShouldReturnEmptyWithoutStoringWhenIdNotExists() {
+        // given
+        UUID uuid = powerStatsRepositoryInMemory.create(createPowerStats());
+        PowerStats powerStats = powerStatsRepositoryInMemory.findById(uuid);
+        powerStatsRepositoryInMemory.delete(uuid);
+
+        // when
+        Optional<PowerStats> updated = powerStatsRepositoryInMemory.update(powerStats, createUpdateHeroRequest());
+
+        // then
+        assertTrue(updated.isEmpty());
+        assertNull(powerStatsRepositoryInMemory.findById(uuid));
     }
 
     @Test
@@ -127,7 +162,7 @@ class PowerStatsRepositoryInMemoryImplTest {
     void updateShouldThrowNullPointerExceptionWhenRequestIsNull() {
         // given
         UUID uuid = powerStatsRepositoryInMemory.create(createPowerStats());
-        PowerStats powerStats = PowerStatsRepositoryInMemoryImpl.powerStatsStorage.get(uuid);
+        PowerStats powerStats = powerStatsRepositoryInMemory.findById(uuid);
         UpdateHeroRequest request = null;
 
         // when
@@ -148,7 +183,7 @@ class PowerStatsRepositoryInMemoryImplTest {
         powerStatsRepositoryInMemory.delete(uuid);
 
         // then
-        PowerStats powerStats = PowerStatsRepositoryInMemoryImpl.powerStatsStorage.get(uuid);
+        PowerStats powerStats = powerStatsRepositoryInMemory.findById(uuid);
         assertNull(powerStats);
     }
 
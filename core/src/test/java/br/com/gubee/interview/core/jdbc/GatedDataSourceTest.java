@@ -0,0 +1,92 @@
+package br.com.gubee.interview.core.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GatedDataSourceTest {
+    private final DataSource pool = mock(DataSource.class);
+    private final GatedDataSource gatedDataSource = new GatedDataSource(pool, 2, 50);
+
+    @Test
+    void getConnectionShouldHoldAPermitUntilTheConnectionIsClosed() throws Exception {
+        // given
+        Connection target = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(target);
+
+        // when
+        Connection connection = gatedDataSource.getConnection();
+
+        // then
+        assertEquals(1, gatedDataSource.availablePermits());
+        assertSame(target, ((ConnectionProxy) connection).getTargetConnection());
+
+        connection.close();
+        connection.close();
+        assertEquals(2, gatedDataSource.availablePermits());
+        verify(target, times(2)).close();
+    }
+
+    @Test
+    void getConnectionShouldTimeOutWhenEveryPermitIsTaken() throws Exception {
+        // given
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        gatedDataSource.getConnection();
+        gatedDataSource.getConnection();
+
+        // when
+        SQLTransientConnectionException exception = assertThrows(SQLTransientConnectionException.class,
+                gatedDataSource::getConnection);
+
+        // then
+        assertNotNull(exception);
+        verify(pool, times(2)).getConnection();
+    }
+
+    @Test
+    void getConnectionShouldReleaseThePermitWhenThePoolFails() throws Exception {
+        // given
+        when(pool.getConnection()).thenThrow(new SQLException("pool is closed"));
+
+        // when
+        assertThrows(SQLException.class, gatedDataSource::getConnection);
+
+        // then
+        assertEquals(2, gatedDataSource.availablePermits());
+    }
+
+    @Test
+    void getConnectionShouldSpendTheTimeoutAtTheGateWhenSizedToThePool() throws Exception {
+        // given
+        try (HikariDataSource hikari = new HikariDataSource()) {
+            hikari.setJdbcUrl("jdbc:h2:mem:gated");
+            hikari.setMaximumPoolSize(1);
+            hikari.setConnectionTimeout(TimeUnit.SECONDS.toMillis(5L));
+            GatedDataSource gatedDataSource = new GatedDataSource(hikari, hikari.getMaximumPoolSize(), 300);
+            Connection held = gatedDataSource.getConnection();
+
+            // when
+            long start = System.nanoTime();
+            assertThrows(SQLTransientConnectionException.class, gatedDataSource::getConnection);
+            long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // then
+            assertTrue(waitedMillis < 1000, "waited " + waitedMillis + "ms");
+            assertEquals(0, gatedDataSource.availablePermits());
+            held.close();
+            assertEquals(1, gatedDataSource.availablePermits());
+        }
+    }
+}
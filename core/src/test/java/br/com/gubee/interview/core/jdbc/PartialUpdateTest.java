@@ -0,0 +1,39 @@
+package br.com.gubee.interview.core.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartialUpdateTest {
+    private final PartialUpdate partialUpdate = new PartialUpdate("name", "race=CAST(:race AS hero_race)", "enabled");
+
+    @Test
+    void setClauseShouldSetOnlyTheGivenColumns() {
+        // when
+        String setClause = partialUpdate.setClause(PartialUpdate.bit(1) | PartialUpdate.bit(2));
+
+        // then
+        assertEquals("race = CAST(:race AS hero_race), enabled = :enabled, updated_at = now()", setClause);
+    }
+
+    @Test
+    void changedPredicateShouldCompareEveryGivenColumnWithItsParameter() {
+        // when
+        String predicate = partialUpdate.changedPredicate(PartialUpdate.bit(0) | PartialUpdate.bit(1));
+
+        // then
+        assertEquals("(name IS DISTINCT FROM :name OR race IS DISTINCT FROM CAST(:race AS hero_race))", predicate);
+    }
+
+    @Test
+    void setClauseShouldThrowIllegalArgumentExceptionWithoutChangedColumns() {
+        // when
+        IllegalArgumentException none = assertThrows(IllegalArgumentException.class, () -> partialUpdate.setClause(0));
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+                () -> partialUpdate.setClause(PartialUpdate.bit(3)));
+
+        // then
+        assertNotNull(none);
+        assertNotNull(unknown);
+    }
+}
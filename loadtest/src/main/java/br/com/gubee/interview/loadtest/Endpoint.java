@@ -0,0 +1,38 @@
+package br.com.gubee.interview.loadtest;
+
+import java.util.Locale;
+
+/**
+ * The {@code /api/v1/heroes} operations the harness drives.
+ */
+public enum Endpoint {
+    LIST("GET /api/v1/heroes"),
+    SEARCH("GET /api/v1/heroes/search/{heroName}"),
+    GET("GET /api/v1/heroes/{heroId}"),
+    COMPARE("GET /api/v1/heroes/compare"),
+    PATCH("PATCH /api/v1/heroes/{heroId}"),
+    CREATE("POST /api/v1/heroes"),
+    DELETE("DELETE /api/v1/heroes/{heroId}");
+
+    private final String route;
+
+    Endpoint(String route) {
+        this.route = route;
+    }
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public String route() {
+        return route;
+    }
+
+    public static Endpoint of(String key) {
+        for (Endpoint endpoint : values())
+            if (endpoint.key().equals(key))
+                return endpoint;
+
+        throw new IllegalArgumentException("Unknown endpoint " + key);
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.gubee.interview.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of one endpoint in microseconds. The response time runs from when the request was due, so a
+ * stalled server delays every request queued behind it and the percentiles show it; the service time runs
+ * from when it was actually sent, which is what a closed loop client would report. The corrected service
+ * time is the service time back-filled by HdrHistogram for the requests a stall would have held up, given
+ * the interval at which this endpoint is due; it should come close to the response time, and a gap between
+ * the two shows how far the after-the-fact correction is off.
+ */
+public class EndpointStats {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram correctedServiceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final LongAdder errors = new LongAdder();
+    private final long expectedIntervalMicros;
+
+    public EndpointStats(long expectedIntervalMicros) {
+        this.expectedIntervalMicros = expectedIntervalMicros;
+    }
+
+    public void record(long dueNanos, long sentNanos, long doneNanos, boolean succeeded) {
+        long serviceMicros = Math.min(TimeUnit.NANOSECONDS.toMicros(doneNanos - sentNanos), HIGHEST_TRACKABLE_MICROS);
+
+        responseTime.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(doneNanos - dueNanos), HIGHEST_TRACKABLE_MICROS));
+        serviceTime.recordValue(serviceMicros);
+        correctedServiceTime.recordValueWithExpectedInterval(serviceMicros, expectedIntervalMicros);
+
+        if (!succeeded)
+            errors.increment();
+    }
+
+    public Histogram getResponseTime() {
+        return responseTime;
+    }
+
+    public Histogram getServiceTime() {
+        return serviceTime;
+    }
+
+    public Histogram getCorrectedServiceTime() {
+        return correctedServiceTime;
+    }
+
+    public long getCount() {
+        return responseTime.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+}
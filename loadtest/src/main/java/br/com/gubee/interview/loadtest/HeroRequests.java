@@ -0,0 +1,148 @@
+package br.com.gubee.interview.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+
+/**
+ * Builds the request for each endpoint out of the heroes seeded before the run. Reads and patches go to
+ * seeded heroes, creates get a fresh name, and deletes take the heroes created for them, so the catalogue
+ * keeps its size and no request is expected to fail.
+ */
+@Slf4j
+public class HeroRequests {
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final String HEROES = "/api/v1/heroes";
+    private static final String[] RACES = {"HUMAN", "ALIEN", "DIVINE", "CYBORG"};
+    private static final int PAGE_SIZE = 100;
+
+    private final URI baseUri;
+    private final String run = Long.toString(System.currentTimeMillis(), 36);
+    private final List<UUID> heroIds = new ArrayList<>();
+    private final List<String> heroNames = new ArrayList<>();
+    private final Queue<UUID> disposableHeroIds = new ConcurrentLinkedQueue<>();
+    private final AtomicLong createdHeroes = new AtomicLong();
+
+    public HeroRequests(URI baseUri) {
+        this.baseUri = baseUri;
+    }
+
+    /**
+     * Creates the heroes the run reads and patches, plus those it is expected to delete.
+     */
+    public void seed(HttpClient client, int heroes, int disposableHeroes) throws IOException, InterruptedException {
+        Random random = new Random(heroes);
+
+        for (int i = 0; i < heroes + disposableHeroes; i++) {
+            String name = format("Load %s %07d", run, i);
+            HttpResponse<Void> response = client.send(create(name, random), HttpResponse.BodyHandlers.discarding());
+            UUID heroId = createdId(response)
+                    .orElseThrow(() -> new IllegalStateException(format("Seeding failed with status %d", response.statusCode())));
+
+            if (i < heroes) {
+                heroIds.add(heroId);
+                heroNames.add(name);
+            } else {
+                disposableHeroIds.add(heroId);
+            }
+        }
+
+        log.info("Seeded {} heroes and {} to delete", heroes, disposableHeroes);
+    }
+
+    public HttpRequest build(Endpoint endpoint, Random random) {
+        switch (endpoint) {
+            case LIST:
+                return get(format("%s?limit=%d", HEROES, PAGE_SIZE));
+            case SEARCH:
+                String name = randomName(random);
+                return get(format("%s/search/%s", HEROES, encode(name.substring(name.length() - 4))));
+            case GET:
+                return get(format("%s/%s", HEROES, randomId(random)));
+            case COMPARE:
+                return get(format("%s/compare?hero1Name=%s&hero2Name=%s", HEROES,
+                        encode(randomName(random)), encode(randomName(random))));
+            case PATCH:
+                return request(format("%s/%s", HEROES, randomId(random)))
+                        .header("Content-Type", "application/merge-patch+json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(format("{\"strength\": %d}", random.nextInt(11))))
+                        .build();
+            case CREATE:
+                return create(format("Load %s created %d", run, createdHeroes.incrementAndGet()), random);
+            case DELETE:
+                UUID heroId = disposableHeroIds.poll();
+                return request(format("%s/%s", HEROES, heroId == null ? UUID.randomUUID() : heroId))
+                        .DELETE()
+                        .build();
+            default:
+                throw new IllegalArgumentException("Unknown endpoint " + endpoint);
+        }
+    }
+
+    /**
+     * Heroes created during the run are handed to later deletes.
+     */
+    public void onResponse(Endpoint endpoint, HttpResponse<?> response) {
+        if (endpoint == Endpoint.CREATE)
+            createdId(response).ifPresent(disposableHeroIds::add);
+    }
+
+    private HttpRequest create(String name, Random random) {
+        String body = format("{\"name\": \"%s\", \"race\": \"%s\", \"strength\": %d, \"agility\": %d," +
+                        " \"dexterity\": %d, \"intelligence\": %d}", name, RACES[random.nextInt(RACES.length)],
+                random.nextInt(11), random.nextInt(11), random.nextInt(11), random.nextInt(11));
+
+        return request(HEROES)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json");
+    }
+
+    private UUID randomId(Random random) {
+        return heroIds.get(random.nextInt(heroIds.size()));
+    }
+
+    private String randomName(Random random) {
+        return heroNames.get(random.nextInt(heroNames.size()));
+    }
+
+    private static Optional<UUID> createdId(HttpResponse<?> response) {
+        if (response.statusCode() != 201)
+            return Optional.empty();
+
+        return response.headers().firstValue("Location")
+                .map(location -> UUID.fromString(location.substring(location.lastIndexOf('/') + 1)));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.gubee.interview.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open model generator: request {@code i} is due at {@code start + i / rate} and is sent then, however
+ * many earlier requests are still waiting for their response. Latency is measured from the due time,
+ * so it is corrected for coordinated omission.
+ */
+@Slf4j
+public class LoadGenerator {
+    private static final long DRAIN_POLL_MILLIS = 10;
+
+    private final HttpClient client;
+    private final HeroRequests heroRequests;
+    private final RequestMix mix;
+    private final int rate;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Random random = new Random(42L);
+    private long maxLagNanos;
+
+    public LoadGenerator(HttpClient client, HeroRequests heroRequests, RequestMix mix, int rate) {
+        this.client = client;
+        this.heroRequests = heroRequests;
+        this.mix = mix;
+        this.rate = rate;
+
+        for (Endpoint endpoint : Endpoint.values())
+            stats.put(endpoint, new EndpointStats(expectedIntervalMicros(endpoint)));
+    }
+
+    /**
+     * Sends requests for the warmup and then the measured duration, and waits for the responses still
+     * outstanding. Only requests due in the measured duration are recorded.
+     */
+    public Map<Endpoint, EndpointStats> run(long warmupNanos, long durationNanos) throws InterruptedException {
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / (double) rate;
+        long start = System.nanoTime();
+        long measuredFrom = start + warmupNanos;
+        long end = measuredFrom + durationNanos;
+
+        for (long i = 0; ; i++) {
+            long due = start + (long) (i * intervalNanos);
+            if (due >= end)
+                break;
+
+            long now;
+            while ((now = System.nanoTime()) < due)
+                LockSupport.parkNanos(due - now);
+            maxLagNanos = Math.max(maxLagNanos, now - due);
+
+            send(mix.next(random), due, due >= measuredFrom);
+        }
+
+        drain();
+        log.info("Generator ran at most {}ms behind schedule", TimeUnit.NANOSECONDS.toMillis(maxLagNanos));
+
+        return stats;
+    }
+
+    public long getMaxLagNanos() {
+        return maxLagNanos;
+    }
+
+    /**
+     * Mean gap between two requests to the endpoint, zero for an endpoint left out of the mix.
+     */
+    private long expectedIntervalMicros(Endpoint endpoint) {
+        double share = mix.share(endpoint);
+        return share == 0 ? 0 : Math.round(TimeUnit.SECONDS.toMicros(1) / (rate * share));
+    }
+
+    private void send(Endpoint endpoint, long due, boolean measured) {
+        HttpRequest request = heroRequests.build(endpoint, random);
+        long sent = System.nanoTime();
+        inFlight.incrementAndGet();
+
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    long done = System.nanoTime();
+                    try {
+                        if (response != null)
+                            heroRequests.onResponse(endpoint, response);
+                        if (measured)
+                            stats.get(endpoint).record(due, sent, done, failure == null && response.statusCode() < 400);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+    }
+
+    private void drain() throws InterruptedException {
+        long deadline = System.nanoTime() + HeroRequests.REQUEST_TIMEOUT.toNanos();
+
+        while (inFlight.get() > 0 && System.nanoTime() < deadline)
+            Thread.sleep(DRAIN_POLL_MILLIS);
+
+        if (inFlight.get() > 0)
+            log.warn("{} requests still outstanding after the request timeout", inFlight.get());
+    }
+}
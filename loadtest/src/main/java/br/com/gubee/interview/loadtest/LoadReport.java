@@ -0,0 +1,180 @@
+package br.com.gubee.interview.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+/**
+ * Throughput and latency percentiles per endpoint, in milliseconds. Written as {@code report.json}, as
+ * {@code report.html} and as one {@code <endpoint>.hgrm} percentile distribution per endpoint, which the
+ * HdrHistogram plotter reads.
+ */
+@Getter
+public class LoadReport {
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final String label;
+    private final String target;
+    private final String mix;
+    private final int rate;
+    private final long warmupSeconds;
+    private final long durationSeconds;
+    private final double maxLagMillis;
+    private final Instant finishedAt = Instant.now();
+    private final List<EndpointReport> endpoints = new ArrayList<>();
+
+    public LoadReport(LoadTestOptions options, String target, Map<Endpoint, EndpointStats> stats, long maxLagNanos) {
+        this.label = options.getLabel();
+        this.target = target;
+        this.mix = options.getMix().toString();
+        this.rate = options.getRate();
+        this.warmupSeconds = options.getWarmup().toSeconds();
+        this.durationSeconds = options.getDuration().toSeconds();
+        this.maxLagMillis = TimeUnit.NANOSECONDS.toMicros(maxLagNanos) / MICROS_PER_MILLI;
+
+        double seconds = options.getDuration().toMillis() / 1000.0;
+        stats.forEach((endpoint, endpointStats) -> {
+            if (endpointStats.getCount() > 0)
+                endpoints.add(new EndpointReport(endpoint, endpointStats, seconds));
+        });
+    }
+
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+
+        new ObjectMapper()
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .findAndRegisterModules()
+                .writerWithDefaultPrettyPrinter()
+                .writeValue(directory.resolve("report.json").toFile(), this);
+
+        for (EndpointReport endpoint : endpoints)
+            Files.writeString(directory.resolve(endpoint.getEndpoint() + ".hgrm"), endpoint.percentileDistribution());
+
+        Files.writeString(directory.resolve("report.html"), html());
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%-8s %9s %7s %10s %9s %9s %9s %9s %9s %13s %15s%n", "endpoint", "requests", "errors",
+                "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms", "svc-co p99 ms");
+
+        for (EndpointReport endpoint : endpoints) {
+            Latency latency = endpoint.getResponseTime();
+            out.printf("%-8s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %13.2f %15.2f%n", endpoint.getEndpoint(),
+                    endpoint.getCount(), endpoint.getErrors(), endpoint.getThroughput(), latency.getP50(),
+                    latency.getP90(), latency.getP99(), latency.getP999(), latency.getMax(),
+                    endpoint.getServiceTime().getP99(), endpoint.getCorrectedServiceTime().getP99());
+        }
+    }
+
+    private String html() {
+        StringBuilder html = new StringBuilder()
+                .append("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n")
+                .append(format("<title>Load test %s</title>\n", escape(label)))
+                .append("<style>body{font-family:sans-serif}table{border-collapse:collapse}")
+                .append("td,th{border:1px solid #ccc;padding:4px 8px;text-align:right}")
+                .append("td:first-child,th:first-child{text-align:left}</style>\n</head>\n<body>\n")
+                .append(format("<h1>Load test %s</h1>\n", escape(label)))
+                .append(format("<p>%s at %d req/s for %ds after a %ds warmup, mix %s. The generator ran at most" +
+                                " %.2fms behind schedule. Finished %s.</p>\n", escape(target), rate,
+                        durationSeconds, warmupSeconds, escape(mix), maxLagMillis, finishedAt))
+                .append("<p>Response time runs from when each request was due and is corrected for coordinated" +
+                        " omission; service time runs from when it was sent, and its corrected p99 is the same" +
+                        " samples back-filled by HdrHistogram at the expected interval of the endpoint.</p>\n");
+
+        html.append("<table>\n<tr><th>endpoint</th><th>route</th><th>requests</th><th>errors</th><th>req/s</th>")
+                .append("<th>p50 ms</th><th>p90 ms</th><th>p99 ms</th><th>p99.9 ms</th><th>p99.99 ms</th>")
+                .append("<th>max ms</th><th>service p99 ms</th><th>corrected service p99 ms</th></tr>\n");
+        for (EndpointReport endpoint : endpoints) {
+            Latency latency = endpoint.getResponseTime();
+            html.append(format("<tr><td>%s</td><td>%s</td><td>%d</td><td>%d</td><td>%.1f</td><td>%.2f</td>" +
+                            "<td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td>" +
+                            "</tr>\n",
+                    endpoint.getEndpoint(), escape(endpoint.getRoute()), endpoint.getCount(), endpoint.getErrors(),
+                    endpoint.getThroughput(), latency.getP50(), latency.getP90(), latency.getP99(), latency.getP999(),
+                    latency.getP9999(), latency.getMax(), endpoint.getServiceTime().getP99(),
+                    endpoint.getCorrectedServiceTime().getP99()));
+        }
+        html.append("</table>\n");
+
+        for (EndpointReport endpoint : endpoints)
+            html.append(format("<h2>%s</h2>\n<pre>%s</pre>\n", endpoint.getEndpoint(),
+                    escape(endpoint.percentileDistribution())));
+
+        return html.append("</body>\n</html>\n").toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    @Getter
+    public static class EndpointReport {
+        private final String endpoint;
+        private final String route;
+        private final long count;
+        private final long errors;
+        private final double throughput;
+        private final Latency responseTime;
+        private final Latency serviceTime;
+        private final Latency correctedServiceTime;
+        @JsonIgnore
+        private final Histogram responseTimeHistogram;
+
+        EndpointReport(Endpoint endpoint, EndpointStats stats, double seconds) {
+            this.endpoint = endpoint.key();
+            this.route = endpoint.route();
+            this.count = stats.getCount();
+            this.errors = stats.getErrors();
+            this.throughput = count / seconds;
+            this.responseTime = new Latency(stats.getResponseTime());
+            this.serviceTime = new Latency(stats.getServiceTime());
+            this.correctedServiceTime = new Latency(stats.getCorrectedServiceTime());
+            this.responseTimeHistogram = stats.getResponseTime();
+        }
+
+        String percentileDistribution() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            responseTimeHistogram.outputPercentileDistribution(new PrintStream(out, true, StandardCharsets.UTF_8),
+                    MICROS_PER_MILLI);
+            return out.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Getter
+    public static class Latency {
+        private final double mean;
+        private final double p50;
+        private final double p90;
+        private final double p99;
+        private final double p999;
+        private final double p9999;
+        private final double max;
+
+        Latency(Histogram histogram) {
+            this.mean = histogram.getMean() / MICROS_PER_MILLI;
+            this.p50 = histogram.getValueAtPercentile(50) / MICROS_PER_MILLI;
+            this.p90 = histogram.getValueAtPercentile(90) / MICROS_PER_MILLI;
+            this.p99 = histogram.getValueAtPercentile(99) / MICROS_PER_MILLI;
+            this.p999 = histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI;
+            this.p9999 = histogram.getValueAtPercentile(99.99) / MICROS_PER_MILLI;
+            this.max = histogram.getMaxValue() / MICROS_PER_MILLI;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.gubee.interview.loadtest;
+
+import br.com.gubee.interview.core.Application;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Drives {@code /api/v1/heroes} at a fixed rate and reports per endpoint latency percentiles. Without
+ * {@code --target} the application is booted in this JVM on loopback, with the in-memory backend unless
+ * {@code --profiles} says otherwise; point {@code --target} at an application started on its own to keep
+ * the generator off its CPU, for instance to compare it with and without the virtual-threads profile:
+ * <pre>java -jar loadtest/target/loadtest.jar --rate=500 --duration=60s --mix=list=50,get=50</pre>
+ */
+@Slf4j
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext application = null;
+
+        try {
+            URI target = options.getTarget();
+            if (target == null) {
+                application = boot(options.getProfiles());
+                int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+                target = URI.create("http://127.0.0.1:" + port);
+            }
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            HeroRequests heroRequests = new HeroRequests(target);
+            heroRequests.seed(client, options.getHeroes(), expectedDeletes(options));
+
+            log.info("Running {} req/s against {} for {} after a {} warmup", options.getRate(), target,
+                    options.getDuration(), options.getWarmup());
+            LoadGenerator generator = new LoadGenerator(client, heroRequests, options.getMix(), options.getRate());
+            Map<Endpoint, EndpointStats> stats = generator.run(options.getWarmup().toNanos(), options.getDuration().toNanos());
+
+            LoadReport report = new LoadReport(options, target.toString(), stats, generator.getMaxLagNanos());
+            report.write(options.getOut());
+            report.print(System.out);
+            log.info("Reports written to {}", options.getOut().toAbsolutePath());
+        } finally {
+            if (application != null)
+                application.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext boot(String... profiles) {
+        return new SpringApplicationBuilder(Application.class)
+                .profiles(profiles)
+                .properties("server.port=0", "server.address=127.0.0.1")
+                .run();
+    }
+
+    /**
+     * Deletes over the whole run, warmup included, so each one finds a hero even before creates catch up.
+     */
+    private static int expectedDeletes(LoadTestOptions options) {
+        double seconds = options.getWarmup().plus(options.getDuration()).toMillis() / 1000.0;
+        return (int) Math.ceil(options.getRate() * seconds * options.getMix().share(Endpoint.DELETE));
+    }
+}
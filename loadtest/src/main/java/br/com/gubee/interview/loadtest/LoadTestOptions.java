@@ -0,0 +1,85 @@
+package br.com.gubee.interview.loadtest;
+
+import lombok.Getter;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.String.format;
+
+/**
+ * Command line of the harness, every option given as {@code --name=value}:
+ * <ul>
+ *     <li>{@code target}: base URL of a running application; without it the application is booted in
+ *     process on loopback with {@code profiles}, the in-memory backend by default</li>
+ *     <li>{@code rate}: requests per second, sent on schedule whatever the responses do</li>
+ *     <li>{@code warmup}, {@code duration}: such as {@code 10s} or {@code 2m}; the warmup is not reported</li>
+ *     <li>{@code heroes}: heroes created before the run for the requests to read and patch</li>
+ *     <li>{@code mix}: weight of each endpoint, such as {@code list=30,search=25,get=25,...}</li>
+ *     <li>{@code out}: directory the JSON and HTML reports are written to</li>
+ * </ul>
+ */
+@Getter
+public class LoadTestOptions {
+    private static final Set<String> NAMES = Set.of("target", "profiles", "rate", "warmup", "duration", "heroes",
+            "mix", "out", "label");
+
+    private final URI target;
+    private final String[] profiles;
+    private final int rate;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int heroes;
+    private final RequestMix mix;
+    private final Path out;
+    private final String label;
+
+    private LoadTestOptions(Map<String, String> options) {
+        target = options.containsKey("target") ? URI.create(options.get("target")) : null;
+        profiles = options.getOrDefault("profiles", "in-memory").split(",");
+        rate = positive("rate", Integer.parseInt(options.getOrDefault("rate", "200")));
+        warmup = duration(options.getOrDefault("warmup", "10s"));
+        duration = duration(options.getOrDefault("duration", "60s"));
+        heroes = positive("heroes", Integer.parseInt(options.getOrDefault("heroes", "1000")));
+        mix = RequestMix.parse(options.getOrDefault("mix", RequestMix.DEFAULT));
+        out = Path.of(options.getOrDefault("out", "target/loadtest"));
+        label = options.getOrDefault("label", target == null ? String.join("+", profiles) : target.getHost());
+    }
+
+    public static LoadTestOptions parse(String... args) {
+        Map<String, String> options = new HashMap<>();
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0 || !NAMES.contains(arg.substring(2, separator)))
+                throw new IllegalArgumentException(format("Unknown option %s, expected --name=value with name in %s",
+                        arg, NAMES));
+
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        return new LoadTestOptions(options);
+    }
+
+    private static int positive(String name, int value) {
+        if (value < 1)
+            throw new IllegalArgumentException(format("%s must be positive", name));
+
+        return value;
+    }
+
+    private static Duration duration(String value) {
+        if (value.endsWith("ms"))
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        if (value.endsWith("s"))
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        if (value.endsWith("m"))
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+
+        throw new IllegalArgumentException(format("Invalid duration %s, expected such as 500ms, 30s or 5m", value));
+    }
+}
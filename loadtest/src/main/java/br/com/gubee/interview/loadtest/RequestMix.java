@@ -0,0 +1,76 @@
+package br.com.gubee.interview.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Weighted choice of the endpoint each request goes to.
+ */
+public class RequestMix {
+    static final String DEFAULT = "list=30,search=25,get=25,compare=10,patch=6,create=2,delete=2";
+
+    private final Map<Endpoint, Integer> weights;
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    private RequestMix(Map<Endpoint, Integer> weights) {
+        this.weights = weights;
+        this.endpoints = weights.keySet().toArray(new Endpoint[0]);
+        this.cumulativeWeights = new int[endpoints.length];
+
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += weights.get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+        this.totalWeight = total;
+    }
+
+    public static RequestMix parse(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+
+        for (String entry : mix.split(",")) {
+            String[] keyAndWeight = entry.trim().split("=");
+            if (keyAndWeight.length != 2)
+                throw new IllegalArgumentException("Invalid mix entry " + entry + ", expected endpoint=weight");
+
+            int weight = Integer.parseInt(keyAndWeight[1].trim());
+            if (weight < 0)
+                throw new IllegalArgumentException("Negative weight for " + keyAndWeight[0]);
+            if (weight > 0)
+                weights.put(Endpoint.of(keyAndWeight[0].trim()), weight);
+        }
+
+        if (weights.isEmpty())
+            throw new IllegalArgumentException("The mix needs at least one endpoint with a positive weight");
+
+        return new RequestMix(weights);
+    }
+
+    public Endpoint next(Random random) {
+        int value = random.nextInt(totalWeight);
+
+        for (int i = 0; i < cumulativeWeights.length; i++)
+            if (value < cumulativeWeights[i])
+                return endpoints[i];
+
+        return endpoints[endpoints.length - 1];
+    }
+
+    /**
+     * Share of the requests going to the endpoint, between 0 and 1.
+     */
+    public double share(Endpoint endpoint) {
+        return weights.getOrDefault(endpoint, 0) / (double) totalWeight;
+    }
+
+    @Override
+    public String toString() {
+        return weights.entrySet().stream()
+                .map(entry -> entry.getKey().key() + "=" + entry.getValue())
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.gubee.interview.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of a hero in the {@code (name, id)} ordering used by the paginated listing.
+ * It travels to clients as an opaque URL-safe token so they never depend on its layout.
+ */
+@Getter
+@EqualsAndHashCode
+public class HeroCursor implements Comparable<HeroCursor> {
+    private static final int UUID_LENGTH = 36;
+
+    private final String name;
+    private final UUID id;
+
+    public HeroCursor(String name, UUID id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    public static HeroCursor of(Hero hero) {
+        return new HeroCursor(hero.getName(), hero.getId());
+    }
+
+    public String encode() {
+        byte[] token = (id + name).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    public static HeroCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (decoded.length() <= UUID_LENGTH)
+                throw new IllegalArgumentException("message.cursor.invalid");
+
+            return new HeroCursor(decoded.substring(UUID_LENGTH), UUID.fromString(decoded.substring(0, UUID_LENGTH)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("message.cursor.invalid", e);
+        }
+    }
+
+    @Override
+    public int compareTo(HeroCursor other) {
+        int byName = name.compareTo(other.name);
+        return byName != 0 ? byName : id.compareTo(other.id);
+    }
+}
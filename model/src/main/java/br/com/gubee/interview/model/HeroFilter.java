@@ -0,0 +1,61 @@
+package br.com.gubee.interview.model;
+
+import br.com.gubee.interview.model.enums.Race;
+import br.com.gubee.interview.model.request.HeroFilterRequest;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Criteria of the filtered hero listing: an optional race and an inclusive range per power stat.
+ * Only the stats with a bound in the request are restricted, the missing bound defaults to the
+ * edge of the 0..10 scale.
+ */
+@Getter
+public class HeroFilter {
+    public static final Set<HeroRanking> STATS = EnumSet.range(HeroRanking.STRENGTH, HeroRanking.INTELLIGENCE);
+    public static final int MIN_STAT = 0;
+    public static final int MAX_STAT = 10;
+
+    private final Race race;
+    private final Map<HeroRanking, Range> ranges;
+
+    private HeroFilter(Race race, Map<HeroRanking, Range> ranges) {
+        this.race = race;
+        this.ranges = Collections.unmodifiableMap(ranges);
+    }
+
+    public static HeroFilter of(HeroFilterRequest request) {
+        Map<HeroRanking, Range> ranges = new EnumMap<>(HeroRanking.class);
+        putRange(ranges, HeroRanking.STRENGTH, request.getStrengthMin(), request.getStrengthMax());
+        putRange(ranges, HeroRanking.AGILITY, request.getAgilityMin(), request.getAgilityMax());
+        putRange(ranges, HeroRanking.DEXTERITY, request.getDexterityMin(), request.getDexterityMax());
+        putRange(ranges, HeroRanking.INTELLIGENCE, request.getIntelligenceMin(), request.getIntelligenceMax());
+
+        return new HeroFilter(request.getRace(), ranges);
+    }
+
+    public boolean isEmpty() {
+        return race == null && ranges.isEmpty();
+    }
+
+    private static void putRange(Map<HeroRanking, Range> ranges, HeroRanking stat, Integer min, Integer max) {
+        if (min != null || max != null)
+            ranges.put(stat, new Range(min == null ? MIN_STAT : min, max == null ? MAX_STAT : max));
+    }
+
+    @Getter
+    public static class Range {
+        private final int min;
+        private final int max;
+
+        private Range(int min, int max) {
+            this.min = min;
+            this.max = max;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.gubee.interview.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Optional;
+
+@Getter
+@AllArgsConstructor
+public class HeroPage {
+    private final List<HeroWithPowerStats> heroes;
+    private final HeroCursor next;
+
+    public Optional<HeroCursor> getNext() {
+        return Optional.ofNullable(next);
+    }
+}
@@ -0,0 +1,34 @@
+package br.com.gubee.interview.model;
+
+import java.util.Locale;
+import java.util.function.ToIntFunction;
+
+/**
+ * Scores the leaderboard can rank heroes by. Each repository maps them to its own storage.
+ */
+public enum HeroRanking {
+    TOTAL(powerStats -> powerStats.getStrength() + powerStats.getAgility()
+            + powerStats.getDexterity() + powerStats.getIntelligence()),
+    STRENGTH(PowerStats::getStrength),
+    AGILITY(PowerStats::getAgility),
+    DEXTERITY(PowerStats::getDexterity),
+    INTELLIGENCE(PowerStats::getIntelligence);
+
+    private final ToIntFunction<PowerStats> scorer;
+
+    HeroRanking(ToIntFunction<PowerStats> scorer) {
+        this.scorer = scorer;
+    }
+
+    public int score(PowerStats powerStats) {
+        return scorer.applyAsInt(powerStats);
+    }
+
+    public static HeroRanking of(String by) {
+        try {
+            return valueOf(by.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("message.leaderboard.by.invalid", e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.gubee.interview.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Last modification of a hero and of its power stats. Both timestamps change on every write, so the
+ * pair is enough to build a strong entity tag without loading or serialising the hero itself.
+ */
+@Getter
+@EqualsAndHashCode
+public class HeroVersion {
+    private final Instant heroUpdatedAt;
+    private final Instant powerStatsUpdatedAt;
+
+    public HeroVersion(Instant heroUpdatedAt, Instant powerStatsUpdatedAt) {
+        this.heroUpdatedAt = heroUpdatedAt;
+        this.powerStatsUpdatedAt = powerStatsUpdatedAt;
+    }
+
+    public static HeroVersion of(Hero hero, PowerStats powerStats) {
+        return new HeroVersion(hero.getUpdatedAt(), powerStats == null ? null : powerStats.getUpdatedAt());
+    }
+
+    public static HeroVersion of(HeroWithPowerStats heroWithPowerStats) {
+        return of(heroWithPowerStats.getHero(), heroWithPowerStats.getPowerStats());
+    }
+
+    /**
+     * Timestamps are cut to microseconds, the precision Postgres keeps, so a tag built from a loaded
+     * hero matches the one built from the version lookup.
+     */
+    public String toETag() {
+        return "\"" + micros(heroUpdatedAt) + "-" + micros(powerStatsUpdatedAt) + "\"";
+    }
+
+    /**
+     * Tag of a listing: a digest of the id and version of every hero in it, in order.
+     */
+    public static String toETag(List<HeroWithPowerStats> heroes) {
+        StringBuilder versions = new StringBuilder();
+        for (HeroWithPowerStats hero : heroes)
+            versions.append(hero.getHero().getId()).append(of(hero).toETag());
+
+        return "\"" + md5Hex(versions.toString()) + "\"";
+    }
+
+    private static String md5Hex(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            return String.format("%032x", new BigInteger(1, digest));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String micros(Instant instant) {
+        if (instant == null)
+            return "0";
+
+        return Long.toHexString(ChronoUnit.MICROS.between(Instant.EPOCH, instant));
+    }
+}
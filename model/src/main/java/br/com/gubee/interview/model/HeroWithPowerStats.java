@@ -0,0 +1,11 @@
+package br.com.gubee.interview.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class HeroWithPowerStats {
+    private final Hero hero;
+    private final PowerStats powerStats;
+}
@@ -0,0 +1,91 @@
+package br.com.gubee.interview.model;
+
+import br.com.gubee.interview.model.dto.HeroPercentileRankDTO;
+import br.com.gubee.interview.model.dto.RaceStatsDTO;
+import br.com.gubee.interview.model.dto.StatHistogramDTO;
+import br.com.gubee.interview.model.enums.Race;
+import lombok.Getter;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * How many heroes of a race sit at each value of the 0..10 scale of every power stat. Means and
+ * percentile ranks are derived from the eleven buckets, so they cost the same whatever the number of heroes.
+ */
+public class RaceHistogram {
+    @Getter
+    private final Race race;
+    private final Map<HeroRanking, long[]> histograms = new EnumMap<>(HeroRanking.class);
+
+    public RaceHistogram(Race race) {
+        this.race = race;
+        HeroFilter.STATS.forEach(stat -> histograms.put(stat, new long[HeroFilter.MAX_STAT + 1]));
+    }
+
+    public void add(HeroRanking stat, int value, long heroes) {
+        if (value >= HeroFilter.MIN_STAT && value <= HeroFilter.MAX_STAT)
+            histograms.get(stat)[value] += heroes;
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (long heroes : histograms.get(HeroRanking.STRENGTH))
+            count += heroes;
+
+        return count;
+    }
+
+    public double mean(HeroRanking stat) {
+        long[] histogram = histograms.get(stat);
+        long count = 0;
+        long sum = 0;
+
+        for (int value = 0; value < histogram.length; value++) {
+            count += histogram[value];
+            sum += value * histogram[value];
+        }
+
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Share of the race, in percent, below the value, counting half of the heroes tied with it.
+     */
+    public double percentileRank(HeroRanking stat, int value) {
+        long[] histogram = histograms.get(stat);
+        long count = 0;
+        long below = 0;
+        long tied = 0;
+
+        for (int bucket = 0; bucket < histogram.length; bucket++) {
+            count += histogram[bucket];
+            if (bucket < value)
+                below += histogram[bucket];
+            else if (bucket == value)
+                tied += histogram[bucket];
+        }
+
+        return count == 0 ? 0 : 100.0 * (below + tied / 2.0) / count;
+    }
+
+    public HeroPercentileRankDTO percentileRanks(Hero hero, PowerStats powerStats) {
+        return new HeroPercentileRankDTO(hero.getId(), race,
+                percentileRank(HeroRanking.STRENGTH, powerStats.getStrength()),
+                percentileRank(HeroRanking.AGILITY, powerStats.getAgility()),
+                percentileRank(HeroRanking.DEXTERITY, powerStats.getDexterity()),
+                percentileRank(HeroRanking.INTELLIGENCE, powerStats.getIntelligence()));
+    }
+
+    public RaceStatsDTO toDTO() {
+        return new RaceStatsDTO(race, getCount(),
+                toDTO(HeroRanking.STRENGTH),
+                toDTO(HeroRanking.AGILITY),
+                toDTO(HeroRanking.DEXTERITY),
+                toDTO(HeroRanking.INTELLIGENCE));
+    }
+
+    private StatHistogramDTO toDTO(HeroRanking stat) {
+        return new StatHistogramDTO(mean(stat), histograms.get(stat).clone());
+    }
+}
@@ -1,5 +1,7 @@
 package br.com.gubee.interview.model.dto;
 
+import br.com.gubee.interview.model.HeroWithPowerStats;
+import br.com.gubee.interview.model.PowerStats;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
@@ -15,12 +17,15 @@ public class ComparedHeroDTO {
     private int dexterity;
     private int intelligence;
 
-    public ComparedHeroDTO(HeroDTO hero, HeroDTO heroToCompare) {
-        this.id = hero.getId();
-        this.name = hero.getName();
-        this.strength = hero.getPowerStats().getStrength() - heroToCompare.getPowerStats().getStrength();
-        this.agility = hero.getPowerStats().getAgility() - heroToCompare.getPowerStats().getAgility();
-        this.dexterity = hero.getPowerStats().getDexterity() - heroToCompare.getPowerStats().getDexterity();
-        this.intelligence = hero.getPowerStats().getIntelligence() - heroToCompare.getPowerStats().getIntelligence();
+    public ComparedHeroDTO(HeroWithPowerStats hero, HeroWithPowerStats heroToCompare) {
+        PowerStats powerStats = hero.getPowerStats();
+        PowerStats powerStatsToCompare = heroToCompare.getPowerStats();
+
+        this.id = hero.getHero().getId();
+        this.name = hero.getHero().getName();
+        this.strength = powerStats.getStrength() - powerStatsToCompare.getStrength();
+        this.agility = powerStats.getAgility() - powerStatsToCompare.getAgility();
+        this.dexterity = powerStats.getDexterity() - powerStatsToCompare.getDexterity();
+        this.intelligence = powerStats.getIntelligence() - powerStatsToCompare.getIntelligence();
     }
 }
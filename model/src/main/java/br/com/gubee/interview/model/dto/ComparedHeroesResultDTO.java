@@ -0,0 +1,24 @@
+package br.com.gubee.interview.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComparedHeroesResultDTO {
+    private int index;
+    private List<ComparedHeroDTO> heroes;
+    private List<String> errors;
+
+    public static ComparedHeroesResultDTO compared(int index, List<ComparedHeroDTO> heroes) {
+        return new ComparedHeroesResultDTO(index, heroes, null);
+    }
+
+    public static ComparedHeroesResultDTO rejected(int index, List<String> errors) {
+        return new ComparedHeroesResultDTO(index, null, errors);
+    }
+}
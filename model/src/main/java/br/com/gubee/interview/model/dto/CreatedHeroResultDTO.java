@@ -0,0 +1,25 @@
+package br.com.gubee.interview.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreatedHeroResultDTO {
+    private int index;
+    private UUID id;
+    private List<String> errors;
+
+    public static CreatedHeroResultDTO created(int index, UUID id) {
+        return new CreatedHeroResultDTO(index, id, null);
+    }
+
+    public static CreatedHeroResultDTO rejected(int index, List<String> errors) {
+        return new CreatedHeroResultDTO(index, null, errors);
+    }
+}
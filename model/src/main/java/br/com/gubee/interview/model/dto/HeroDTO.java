@@ -1,6 +1,7 @@
 package br.com.gubee.interview.model.dto;
 
 import br.com.gubee.interview.model.Hero;
+import br.com.gubee.interview.model.HeroWithPowerStats;
 import br.com.gubee.interview.model.PowerStats;
 import br.com.gubee.interview.model.enums.Race;
 import lombok.AllArgsConstructor;
@@ -33,14 +34,15 @@ public class HeroDTO {
         this.powerStats = new PowerStatsDTO(powerStats);
     }
 
-    public static List<HeroDTO> toCollectionDTO(List<Hero> heroes, List<PowerStats> powerStats) {
-        HeroDTO heroDTO;
-        List<HeroDTO> heroDTOList = new ArrayList<>();
+    public HeroDTO(HeroWithPowerStats heroWithPowerStats) {
+        this(heroWithPowerStats.getHero(), heroWithPowerStats.getPowerStats());
+    }
+
+    public static List<HeroDTO> toCollectionDTO(List<HeroWithPowerStats> heroes) {
+        List<HeroDTO> heroDTOList = new ArrayList<>(heroes.size());
 
-        for (int i = 0; i < heroes.size(); i++) {
-            heroDTO = new HeroDTO(heroes.get(i),powerStats.get(i));
-            heroDTOList.add(heroDTO);
-        }
+        for (HeroWithPowerStats heroWithPowerStats : heroes)
+            heroDTOList.add(new HeroDTO(heroWithPowerStats));
 
         return heroDTOList;
     }
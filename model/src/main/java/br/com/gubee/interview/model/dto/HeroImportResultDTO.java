@@ -0,0 +1,17 @@
+package br.com.gubee.interview.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeroImportResultDTO {
+    private long read;
+    private long imported;
+    private long rejected;
+    private List<RejectedHeroRowDTO> rejectedRows;
+}
@@ -0,0 +1,20 @@
+package br.com.gubee.interview.model.dto;
+
+import br.com.gubee.interview.model.enums.Race;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeroPercentileRankDTO {
+    private UUID id;
+    private Race race;
+    private double strength;
+    private double agility;
+    private double dexterity;
+    private double intelligence;
+}
@@ -0,0 +1,15 @@
+package br.com.gubee.interview.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeroStatsDTO {
+    private List<RaceStatsDTO> races;
+    private HeroPercentileRankDTO hero;
+}
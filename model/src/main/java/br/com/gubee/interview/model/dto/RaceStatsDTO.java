@@ -0,0 +1,18 @@
+package br.com.gubee.interview.model.dto;
+
+import br.com.gubee.interview.model.enums.Race;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RaceStatsDTO {
+    private Race race;
+    private long count;
+    private StatHistogramDTO strength;
+    private StatHistogramDTO agility;
+    private StatHistogramDTO dexterity;
+    private StatHistogramDTO intelligence;
+}
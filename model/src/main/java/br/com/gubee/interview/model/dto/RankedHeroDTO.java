@@ -0,0 +1,19 @@
+package br.com.gubee.interview.model.dto;
+
+import br.com.gubee.interview.model.enums.Race;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankedHeroDTO {
+    private int rank;
+    private UUID id;
+    private String name;
+    private Race race;
+    private int score;
+}
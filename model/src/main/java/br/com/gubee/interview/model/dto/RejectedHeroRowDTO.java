@@ -0,0 +1,14 @@
+package br.com.gubee.interview.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RejectedHeroRowDTO {
+    private long row;
+    private String name;
+    private String reason;
+}
@@ -1,6 +1,7 @@
 package br.com.gubee.interview.model.dto;
 
 import br.com.gubee.interview.model.Hero;
+import br.com.gubee.interview.model.HeroWithPowerStats;
 import br.com.gubee.interview.model.PowerStats;
 import br.com.gubee.interview.model.enums.Race;
 import lombok.Getter;
@@ -30,14 +31,15 @@ public class ResumedHeroDTO {
         this.intelligence = powerStats.getIntelligence();
     }
 
-    public static List<ResumedHeroDTO> toCollectionDTO(List<Hero> heroes, List<PowerStats> powerStats) {
-        List<ResumedHeroDTO> resumedHeroDTOList = new ArrayList<>();
-        ResumedHeroDTO resumedHeroDTO;
+    public ResumedHeroDTO(HeroWithPowerStats heroWithPowerStats) {
+        this(heroWithPowerStats.getHero(), heroWithPowerStats.getPowerStats());
+    }
+
+    public static List<ResumedHeroDTO> toCollectionDTO(List<HeroWithPowerStats> heroes) {
+        List<ResumedHeroDTO> resumedHeroDTOList = new ArrayList<>(heroes.size());
 
-        for (int i = 0; i < heroes.size(); i++) {
-            resumedHeroDTO = new ResumedHeroDTO(heroes.get(i),powerStats.get(i));
-            resumedHeroDTOList.add(resumedHeroDTO);
-        }
+        for (HeroWithPowerStats heroWithPowerStats : heroes)
+            resumedHeroDTOList.add(new ResumedHeroDTO(heroWithPowerStats));
 
         return resumedHeroDTOList;
     }
@@ -0,0 +1,17 @@
+package br.com.gubee.interview.model.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import static lombok.AccessLevel.PRIVATE;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor(access = PRIVATE)
+public class CompareHeroesRequest {
+    private String hero1Name;
+    private String hero2Name;
+}
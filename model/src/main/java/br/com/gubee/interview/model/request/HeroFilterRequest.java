@@ -0,0 +1,51 @@
+package br.com.gubee.interview.model.request;
+
+import br.com.gubee.interview.model.enums.Race;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class HeroFilterRequest {
+
+    private Race race;
+
+    @Min(value = 0, message = "message.filter.strength.min")
+    @Max(value = 10, message = "message.filter.strength.max")
+    private Integer strengthMin;
+
+    @Min(value = 0, message = "message.filter.strength.min")
+    @Max(value = 10, message = "message.filter.strength.max")
+    private Integer strengthMax;
+
+    @Min(value = 0, message = "message.filter.agility.min")
+    @Max(value = 10, message = "message.filter.agility.max")
+    private Integer agilityMin;
+
+    @Min(value = 0, message = "message.filter.agility.min")
+    @Max(value = 10, message = "message.filter.agility.max")
+    private Integer agilityMax;
+
+    @Min(value = 0, message = "message.filter.dexterity.min")
+    @Max(value = 10, message = "message.filter.dexterity.max")
+    private Integer dexterityMin;
+
+    @Min(value = 0, message = "message.filter.dexterity.min")
+    @Max(value = 10, message = "message.filter.dexterity.max")
+    private Integer dexterityMax;
+
+    @Min(value = 0, message = "message.filter.intelligence.min")
+    @Max(value = 10, message = "message.filter.intelligence.max")
+    private Integer intelligenceMin;
+
+    @Min(value = 0, message = "message.filter.intelligence.min")
+    @Max(value = 10, message = "message.filter.intelligence.max")
+    private Integer intelligenceMax;
+}
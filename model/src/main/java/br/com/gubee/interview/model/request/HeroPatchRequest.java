@@ -0,0 +1,107 @@
+package br.com.gubee.interview.model.request;
+
+import br.com.gubee.interview.model.enums.Race;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.validator.constraints.Length;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+
+/**
+ * Body of a hero PATCH with JSON Merge Patch semantics: members left out keep their current value.
+ * No member of a hero can be removed, so an explicit null is rejected, and so is an unknown member; a
+ * member is then present exactly when it is not null, which is how the repositories pick the columns to set.
+ */
+@NoArgsConstructor
+public class HeroPatchRequest {
+    @Getter
+    @Length(min = 1, max = 255, message = "message.name.length")
+    private String name;
+
+    @Getter
+    private Race race;
+
+    @Getter
+    @Min(value = 0, message = "message.powerstats.strength.min")
+    @Max(value = 10, message = "message.powerstats.strength.max")
+    private Integer strength;
+
+    @Getter
+    @Min(value = 0, message = "message.powerstats.agility.min")
+    @Max(value = 10, message = "message.powerstats.agility.max")
+    private Integer agility;
+
+    @Getter
+    @Min(value = 0, message = "message.powerstats.dexterity.min")
+    @Max(value = 10, message = "message.powerstats.dexterity.max")
+    private Integer dexterity;
+
+    @Getter
+    @Min(value = 0, message = "message.powerstats.intelligence.min")
+    @Max(value = 10, message = "message.powerstats.intelligence.max")
+    private Integer intelligence;
+
+    @Getter
+    private Boolean enabled;
+
+    private boolean withNullMember;
+
+    public void setName(String name) {
+        this.name = name;
+        trackNull(name);
+    }
+
+    public void setRace(Race race) {
+        this.race = race;
+        trackNull(race);
+    }
+
+    public void setStrength(Integer strength) {
+        this.strength = strength;
+        trackNull(strength);
+    }
+
+    public void setAgility(Integer agility) {
+        this.agility = agility;
+        trackNull(agility);
+    }
+
+    public void setDexterity(Integer dexterity) {
+        this.dexterity = dexterity;
+        trackNull(dexterity);
+    }
+
+    public void setIntelligence(Integer intelligence) {
+        this.intelligence = intelligence;
+        trackNull(intelligence);
+    }
+
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+        trackNull(enabled);
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "message.patch.null-member")
+    public boolean isWithoutNullMembers() {
+        return !withNullMember;
+    }
+
+    @JsonAnySetter
+    void unknownMember(String member, Object value) {
+        throw new IllegalArgumentException("message.patch.unknown-member: " + member);
+    }
+
+    public UpdateHeroRequest toUpdateHeroRequest() {
+        return new UpdateHeroRequest(name, race, strength, agility, dexterity, intelligence, enabled);
+    }
+
+    private void trackNull(Object value) {
+        if (value == null)
+            withNullMember = true;
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.gubee.interview.reactive.configuration;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.postgresql.PostgresqlConnectionConfiguration;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+@Configuration
+public class R2dbcConfiguration {
+
+    @Value("${r2dbc.host}")
+    private String host;
+
+    @Value("${r2dbc.port}")
+    private int port;
+
+    @Value("${r2dbc.database}")
+    private String database;
+
+    @Value("${r2dbc.username}")
+    private String username;
+
+    @Value("${r2dbc.password}")
+    private String password;
+
+    @Value("${r2dbc.schema}")
+    private String schema;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory() {
+        PostgresqlConnectionFactory connectionFactory = new PostgresqlConnectionFactory(
+                PostgresqlConnectionConfiguration.builder()
+                        .host(host)
+                        .port(port)
+                        .database(database)
+                        .username(username)
+                        .password(password)
+                        .schema(schema)
+                        .build());
+
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .maxSize(getMaxPoolSize())
+                .maxAcquireTime(Duration.ofSeconds(5L))
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    /**
+     * Same size as the Hikari pool of the servlet build, so a comparison of both builds only differs in
+     * how requests wait for a connection: parked on the pool instead of blocking a worker thread.
+     */
+    private int getMaxPoolSize() {
+        return (Runtime.getRuntime().availableProcessors() * 2) + 1;
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.gubee.interview.reactive.exception;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.server.UnsupportedMediaTypeStatusException;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.http.HttpStatus.*;
+import static org.springframework.http.ResponseEntity.status;
+
+/**
+ * Answers errors with the same statuses and message keys as the servlet build.
+ */
+@Slf4j
+@RestControllerAdvice
+public class ExceptionAdvice {
+
+    @ExceptionHandler(value = {Exception.class})
+    ResponseEntity<Object> handleGeneralException(Exception e) {
+        log.error("Uncaught exception, message={}", e.getMessage(), e);
+        return status(INTERNAL_SERVER_ERROR).body(e.getMessage());
+    }
+
+    @ExceptionHandler(value = {IllegalArgumentException.class, DataIntegrityViolationException.class})
+    ResponseEntity<Object> handleInvalidRequest(Exception e) {
+        return status(BAD_REQUEST).body(e.getMessage());
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    ResponseEntity<Object> handleConstraintViolationException(WebExchangeBindException e) {
+        final List<String> errors = e.getBindingResult().getAllErrors().stream()
+            .map(DefaultMessageSourceResolvable::getDefaultMessage)
+            .collect(Collectors.toList());
+        return status(BAD_REQUEST).body(errors);
+    }
+
+    /**
+     * Unreadable bodies and parameters of the wrong type.
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    ResponseEntity<Object> handleInvalidFormatException(ServerWebInputException e) {
+        log.warn(e.getMessage());
+        return status(BAD_REQUEST).body("message.malformed-request");
+    }
+
+    @ExceptionHandler(UnsupportedMediaTypeStatusException.class)
+    ResponseEntity<Object> handleUnsupportedMediaTypeStatusException(UnsupportedMediaTypeStatusException e) {
+        log.warn(e.getMessage());
+        return status(UNSUPPORTED_MEDIA_TYPE).build();
+    }
+}
@@ -0,0 +1,210 @@
+package br.com.gubee.interview.reactive.features.hero;
+
+import br.com.gubee.interview.model.HeroCursor;
+import br.com.gubee.interview.model.HeroFilter;
+import br.com.gubee.interview.model.HeroRanking;
+import br.com.gubee.interview.model.HeroVersion;
+import br.com.gubee.interview.model.dto.ComparedHeroDTO;
+import br.com.gubee.interview.model.dto.ComparedHeroesResultDTO;
+import br.com.gubee.interview.model.dto.HeroDTO;
+import br.com.gubee.interview.model.dto.HeroStatsDTO;
+import br.com.gubee.interview.model.dto.RankedHeroDTO;
+import br.com.gubee.interview.model.dto.ResumedHeroDTO;
+import br.com.gubee.interview.model.request.CompareHeroesRequest;
+import br.com.gubee.interview.model.request.CreateHeroRequest;
+import br.com.gubee.interview.model.request.HeroFilterRequest;
+import br.com.gubee.interview.model.request.HeroPatchRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+import static java.lang.String.format;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+import static org.springframework.http.ResponseEntity.created;
+
+/**
+ * The {@code /api/v1/heroes} contract of the servlet build on WebFlux, answering with the same DTOs and
+ * ETags. Batch creation, the CSV import, {@code /write-stats} and the power stats endpoints are only
+ * served by the servlet build.
+ */
+@RestController
+@RequestMapping(value = "/api/v1/heroes", produces = APPLICATION_JSON_VALUE)
+public class HeroController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int DEFAULT_LEADERBOARD_SIZE = 10;
+    private static final String APPLICATION_MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    private final HeroService heroService;
+
+    public HeroController(HeroService heroService) {
+        this.heroService = heroService;
+    }
+
+    @PostMapping(consumes = APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Void>> create(@Validated @RequestBody CreateHeroRequest createHeroRequest) {
+        return heroService.create(createHeroRequest)
+                .map(id -> created(URI.create(format("/api/v1/heroes/%s", id))).build());
+    }
+
+    /**
+     * Answers with a strong ETag. A client revalidating with {@code If-None-Match} is checked against
+     * the version timestamps only, so an unchanged hero costs one narrow lookup and a 304.
+     */
+    @GetMapping(value = "/{heroId}", produces = APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<HeroDTO>> getById(@PathVariable UUID heroId, ServerWebExchange exchange) {
+        if (exchange.getRequest().getHeaders().getIfNoneMatch().isEmpty())
+            return findById(heroId);
+
+        return heroService.findVersionById(heroId)
+                .flatMap(version -> exchange.checkNotModified(version.toETag())
+                        ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).<HeroDTO>build())
+                        : findById(heroId))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    /**
+     * Heroes whose name contains the search, most similar first.
+     */
+    @GetMapping(value = "/search/{heroName}", produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public Flux<HeroDTO> findManyByName(@PathVariable String heroName,
+                                        @RequestParam(required = false) Integer limit) {
+        int searchLimit = resolveLimit(limit, HeroService.DEFAULT_SEARCH_LIMIT);
+        return heroService.findManyByNameWithPowerStats(heroName, searchLimit)
+                .map(HeroDTO::new);
+    }
+
+    /**
+     * Pages through the heroes by name, optionally narrowed by race and stat ranges such as
+     * {@code ?race=ALIEN&strengthMin=7&agilityMax=3}; the {@code Link} header points at the next page
+     * when there is one.
+     */
+    @GetMapping(produces = APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<ResumedHeroDTO>>> list(@RequestParam(required = false) Integer limit,
+                                                           @RequestParam(required = false) String after,
+                                                           @Validated HeroFilterRequest filter,
+                                                           ServerWebExchange exchange) {
+        int pageSize = resolveLimit(limit, DEFAULT_PAGE_SIZE);
+
+        return heroService.findPage(HeroFilter.of(filter), after == null ? null : HeroCursor.decode(after), pageSize)
+                .map(page -> {
+                    String eTag = HeroVersion.toETag(page.getHeroes());
+                    if (exchange.checkNotModified(eTag))
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).<List<ResumedHeroDTO>>build();
+
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag);
+                    page.getNext().ifPresent(next -> response.header(HttpHeaders.LINK,
+                            nextPageLink(exchange.getRequest(), next, pageSize)));
+
+                    return response.body(ResumedHeroDTO.toCollectionDTO(page.getHeroes()));
+                });
+    }
+
+    /**
+     * Streams the whole catalogue as NDJSON ordered by id. An interrupted export resumes by passing
+     * the id of the last hero received as {@code after}.
+     */
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public Flux<HeroDTO> export(@RequestParam(required = false) UUID after) {
+        return heroService.export(after)
+                .map(HeroDTO::new);
+    }
+
+    @GetMapping(value = "/leaderboard", produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public Flux<RankedHeroDTO> leaderboard(@RequestParam(defaultValue = "total") String by,
+                                           @RequestParam(required = false) Integer k) {
+        return heroService.leaderboard(HeroRanking.of(by), resolveLimit(k, DEFAULT_LEADERBOARD_SIZE));
+    }
+
+    /**
+     * Per-race counts, means and histograms of every stat; with {@code heroId}, also the percentile rank
+     * of that hero's stats within its race.
+     */
+    @GetMapping(value = "/stats", produces = APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<HeroStatsDTO>> stats(@RequestParam(required = false) UUID heroId) {
+        if (heroId == null)
+            return heroService.stats().map(ResponseEntity::ok);
+
+        return heroService.stats(heroId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    @GetMapping(value = "/compare", produces = APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<ComparedHeroDTO>>> compare(@RequestParam String hero1Name,
+                                                               @RequestParam String hero2Name) {
+        return heroService.compare(hero1Name, hero2Name)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    /**
+     * Compares many pairs at once. Each pair gets its own result, unknown names are reported on the pair
+     * instead of failing the whole batch.
+     */
+    @PostMapping(value = "/compare/batch", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<List<ComparedHeroesResultDTO>> compareAll(@RequestBody List<CompareHeroesRequest> compareHeroesRequests) {
+        return heroService.compareAll(compareHeroesRequests);
+    }
+
+    /**
+     * Applies a JSON Merge Patch; the hero and its power stats are written in a single round-trip whose
+     * result is the response body.
+     */
+    @PatchMapping(value = "/{heroId}", produces = APPLICATION_JSON_VALUE,
+            consumes = {APPLICATION_JSON_VALUE, APPLICATION_MERGE_PATCH_JSON_VALUE})
+    public Mono<ResponseEntity<HeroDTO>> update(@PathVariable UUID heroId,
+                                                @Validated @RequestBody HeroPatchRequest heroPatchRequest) {
+        return heroService.update(heroId, heroPatchRequest.toUpdateHeroRequest())
+                .map(updated -> ResponseEntity.ok(new HeroDTO(updated)))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    @DeleteMapping("/{heroId}")
+    public Mono<ResponseEntity<Void>> deleteById(@PathVariable UUID heroId) {
+        return heroService.deleteById(heroId)
+                .map(deleted -> ResponseEntity.status(deleted ? HttpStatus.NO_CONTENT : HttpStatus.NOT_FOUND).build());
+    }
+
+    private Mono<ResponseEntity<HeroDTO>> findById(UUID heroId) {
+        return heroService.findById(heroId)
+                .map(hero -> ResponseEntity.ok()
+                        .eTag(HeroVersion.of(hero).toETag())
+                        .body(new HeroDTO(hero)))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    private int resolveLimit(Integer limit, int defaultLimit) {
+        if (limit == null)
+            return defaultLimit;
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException(format("message.limit.range: 1..%d", MAX_PAGE_SIZE));
+
+        return limit;
+    }
+
+    private String nextPageLink(ServerHttpRequest request, HeroCursor next, int pageSize) {
+        String uri = UriComponentsBuilder.fromUri(request.getURI())
+                .replaceQueryParam("limit", pageSize)
+                .replaceQueryParam("after", next.encode())
+                .build()
+                .toUriString();
+
+        return format("<%s>; rel=\"next\"", uri);
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.gubee.interview.reactive.features.hero;
+
+import br.com.gubee.interview.model.HeroCursor;
+import br.com.gubee.interview.model.HeroFilter;
+import br.com.gubee.interview.model.HeroRanking;
+import br.com.gubee.interview.model.HeroVersion;
+import br.com.gubee.interview.model.HeroWithPowerStats;
+import br.com.gubee.interview.model.RaceHistogram;
+import br.com.gubee.interview.model.request.CreateHeroRequest;
+import br.com.gubee.interview.model.request.UpdateHeroRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface HeroRepository {
+    Mono<UUID> createWithPowerStats(CreateHeroRequest createHeroRequest);
+    Mono<HeroWithPowerStats> findByIdWithPowerStats(UUID uuid);
+    Mono<HeroVersion> findVersionById(UUID uuid);
+    Flux<HeroWithPowerStats> findManyByNameWithPowerStats(String heroName, int limit);
+    Flux<HeroWithPowerStats> findPageWithPowerStats(HeroCursor after, int limit);
+    Flux<HeroWithPowerStats> findFilteredPageWithPowerStats(HeroFilter filter, HeroCursor after, int limit);
+    Flux<HeroWithPowerStats> streamAllWithPowerStats(UUID after);
+    Flux<HeroWithPowerStats> findAllByNamesWithPowerStats(Collection<String> heroNames);
+    Flux<HeroWithPowerStats> findTopWithPowerStats(HeroRanking ranking, int limit);
+    Flux<RaceHistogram> findRaceHistograms();
+    Mono<HeroWithPowerStats> updateWithPowerStats(UUID uuid, UpdateHeroRequest updateHeroRequest);
+    Mono<UUID> deleteWithPowerStats(UUID uuid);
+}
@@ -0,0 +1,223 @@
+package br.com.gubee.interview.reactive.features.hero;
+
+import br.com.gubee.interview.model.Hero;
+import br.com.gubee.interview.model.HeroCursor;
+import br.com.gubee.interview.model.HeroFilter;
+import br.com.gubee.interview.model.HeroPage;
+import br.com.gubee.interview.model.HeroRanking;
+import br.com.gubee.interview.model.HeroVersion;
+import br.com.gubee.interview.model.HeroWithPowerStats;
+import br.com.gubee.interview.model.RaceHistogram;
+import br.com.gubee.interview.model.dto.ComparedHeroDTO;
+import br.com.gubee.interview.model.dto.ComparedHeroesResultDTO;
+import br.com.gubee.interview.model.dto.HeroStatsDTO;
+import br.com.gubee.interview.model.dto.RankedHeroDTO;
+import br.com.gubee.interview.model.dto.RaceStatsDTO;
+import br.com.gubee.interview.model.request.CompareHeroesRequest;
+import br.com.gubee.interview.model.request.CreateHeroRequest;
+import br.com.gubee.interview.model.request.UpdateHeroRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+@Service
+@RequiredArgsConstructor
+public class HeroService {
+    public static final int DEFAULT_SEARCH_LIMIT = 50;
+    public static final int MAX_COMPARE_BATCH_SIZE = 1000;
+    public static final String HERO_NOT_FOUND = "message.hero.not-found";
+
+    private final HeroRepository heroRepository;
+
+    public Mono<UUID> create(CreateHeroRequest createHeroRequest) {
+        return heroRepository.createWithPowerStats(createHeroRequest);
+    }
+
+    public Mono<HeroWithPowerStats> findById(UUID uuid) {
+        return heroRepository.findByIdWithPowerStats(uuid);
+    }
+
+    public Mono<HeroVersion> findVersionById(UUID uuid) {
+        return heroRepository.findVersionById(uuid);
+    }
+
+    public Flux<HeroWithPowerStats> findManyByNameWithPowerStats(String heroName, int limit) {
+        return heroRepository.findManyByNameWithPowerStats(heroName, limit);
+    }
+
+    /**
+     * Fetches one more hero than requested so the next cursor is only handed out when another page exists.
+     */
+    public Mono<HeroPage> findPage(HeroCursor after, int limit) {
+        return heroRepository.findPageWithPowerStats(after, limit + 1)
+                .collectList()
+                .map(heroes -> toPage(heroes, limit));
+    }
+
+    /**
+     * Same paging as {@link #findPage(HeroCursor, int)}, narrowed by the filter when it has any criteria.
+     */
+    public Mono<HeroPage> findPage(HeroFilter filter, HeroCursor after, int limit) {
+        if (filter.isEmpty())
+            return findPage(after, limit);
+
+        return heroRepository.findFilteredPageWithPowerStats(filter, after, limit + 1)
+                .collectList()
+                .map(heroes -> toPage(heroes, limit));
+    }
+
+    public Flux<HeroWithPowerStats> export(UUID after) {
+        return heroRepository.streamAllWithPowerStats(after);
+    }
+
+    public Flux<RankedHeroDTO> leaderboard(HeroRanking ranking, int limit) {
+        return heroRepository.findTopWithPowerStats(ranking, limit)
+                .index()
+                .map(ranked -> {
+                    Hero hero = ranked.getT2().getHero();
+                    return new RankedHeroDTO(ranked.getT1().intValue() + 1, hero.getId(), hero.getName(),
+                            hero.getRace(), ranking.score(ranked.getT2().getPowerStats()));
+                });
+    }
+
+    /**
+     * Both heroes are fetched with a single query; empty when either name is unknown.
+     */
+    public Mono<List<ComparedHeroDTO>> compare(String hero1Name, String hero2Name) {
+        return heroRepository.findAllByNamesWithPowerStats(List.of(hero1Name, hero2Name))
+                .collectMap(hero -> nameKey(hero.getHero().getName()))
+                .flatMap(heroes -> {
+                    HeroWithPowerStats hero1 = heroes.get(nameKey(hero1Name));
+                    HeroWithPowerStats hero2 = heroes.get(nameKey(hero2Name));
+
+                    if (hero1 == null || hero2 == null)
+                        return Mono.empty();
+
+                    return Mono.just(List.of(new ComparedHeroDTO(hero1, hero2), new ComparedHeroDTO(hero2, hero1)));
+                });
+    }
+
+    /**
+     * Looks every name of the batch up in a single query, then answers each pair on its own.
+     */
+    public Mono<List<ComparedHeroesResultDTO>> compareAll(List<CompareHeroesRequest> compareHeroesRequests) {
+        if (compareHeroesRequests.size() > MAX_COMPARE_BATCH_SIZE)
+            return Mono.error(new IllegalArgumentException(format("message.compare.batch.size: 1..%d", MAX_COMPARE_BATCH_SIZE)));
+
+        Set<String> names = new HashSet<>();
+        for (CompareHeroesRequest request : compareHeroesRequests) {
+            if (hasBothNames(request)) {
+                names.add(request.getHero1Name());
+                names.add(request.getHero2Name());
+            }
+        }
+
+        return heroRepository.findAllByNamesWithPowerStats(names)
+                .collectMap(hero -> nameKey(hero.getHero().getName()))
+                .map(heroes -> compareAll(compareHeroesRequests, heroes));
+    }
+
+    public Mono<HeroStatsDTO> stats() {
+        return heroRepository.findRaceHistograms()
+                .collectList()
+                .map(histograms -> new HeroStatsDTO(toCollectionDTO(histograms), null));
+    }
+
+    /**
+     * Race statistics along with where the hero stands in its race, empty when the hero does not exist.
+     */
+    public Mono<HeroStatsDTO> stats(UUID heroId) {
+        return heroRepository.findByIdWithPowerStats(heroId)
+                .zipWith(heroRepository.findRaceHistograms().collectList())
+                .flatMap(found -> {
+                    Hero hero = found.getT1().getHero();
+                    List<RaceHistogram> histograms = found.getT2();
+
+                    return Mono.justOrEmpty(histograms.stream()
+                            .filter(histogram -> histogram.getRace() == hero.getRace())
+                            .findFirst()
+                            .map(histogram -> new HeroStatsDTO(toCollectionDTO(histograms),
+                                    histogram.percentileRanks(hero, found.getT1().getPowerStats()))));
+                });
+    }
+
+    /**
+     * Patches the hero and its power stats in one write and emits them as written, empty when the hero
+     * does not exist.
+     */
+    public Mono<HeroWithPowerStats> update(UUID heroId, UpdateHeroRequest updateHeroRequest) {
+        return heroRepository.updateWithPowerStats(heroId, updateHeroRequest);
+    }
+
+    /**
+     * Deletes the hero along with its power stats in one write, false when the hero does not exist.
+     */
+    public Mono<Boolean> deleteById(UUID heroId) {
+        return heroRepository.deleteWithPowerStats(heroId)
+                .hasElement();
+    }
+
+    private static HeroPage toPage(List<HeroWithPowerStats> heroes, int limit) {
+        if (heroes.size() <= limit)
+            return new HeroPage(heroes, null);
+
+        List<HeroWithPowerStats> page = heroes.subList(0, limit);
+        return new HeroPage(page, HeroCursor.of(page.get(limit - 1).getHero()));
+    }
+
+    private static List<ComparedHeroesResultDTO> compareAll(List<CompareHeroesRequest> compareHeroesRequests,
+                                                            Map<String, HeroWithPowerStats> heroes) {
+        List<ComparedHeroesResultDTO> results = new ArrayList<>(compareHeroesRequests.size());
+
+        for (int index = 0; index < compareHeroesRequests.size(); index++) {
+            CompareHeroesRequest request = compareHeroesRequests.get(index);
+
+            if (!hasBothNames(request)) {
+                results.add(ComparedHeroesResultDTO.rejected(index, List.of("message.name.mandatory")));
+                continue;
+            }
+
+            HeroWithPowerStats hero1 = heroes.get(nameKey(request.getHero1Name()));
+            HeroWithPowerStats hero2 = heroes.get(nameKey(request.getHero2Name()));
+
+            if (hero1 == null || hero2 == null)
+                results.add(ComparedHeroesResultDTO.rejected(index, List.of(HERO_NOT_FOUND)));
+            else
+                results.add(ComparedHeroesResultDTO.compared(index,
+                        List.of(new ComparedHeroDTO(hero1, hero2), new ComparedHeroDTO(hero2, hero1))));
+        }
+
+        return results;
+    }
+
+    private static List<RaceStatsDTO> toCollectionDTO(List<RaceHistogram> histograms) {
+        return histograms.stream().map(RaceHistogram::toDTO).collect(Collectors.toList());
+    }
+
+    private static String nameKey(String heroName) {
+        return heroName.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * False for a null pair as well, which a JSON array may carry.
+     */
+    private static boolean hasBothNames(CompareHeroesRequest request) {
+        return request != null && isNotBlank(request.getHero1Name()) && isNotBlank(request.getHero2Name());
+    }
+
+    private static boolean isNotBlank(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,369 @@
+package br.com.gubee.interview.reactive.features.hero.impl;
+
+import br.com.gubee.interview.model.HeroCursor;
+import br.com.gubee.interview.model.HeroRanking;
+import br.com.gubee.interview.model.HeroFilter;
+import br.com.gubee.interview.model.HeroVersion;
+import br.com.gubee.interview.model.HeroWithPowerStats;
+import br.com.gubee.interview.model.RaceHistogram;
+import br.com.gubee.interview.model.enums.Race;
+import br.com.gubee.interview.model.request.CreateHeroRequest;
+import br.com.gubee.interview.model.request.UpdateHeroRequest;
+import br.com.gubee.interview.reactive.features.hero.HeroRepository;
+import br.com.gubee.interview.reactive.mapper.HeroWithPowerStatsRowMapper;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Same statements as the servlet build's Postgres repository, issued through R2DBC so no thread waits on
+ * the database. Stats are read from their copy inline in {@code hero}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HeroRepositoryR2dbcImpl implements HeroRepository {
+
+    private static final String HERO_COLUMNS = "h.id, h.name, h.race::text AS race, h.power_stats_id, h.enabled," +
+            " h.created_at, h.updated_at, h.strength, h.agility, h.dexterity, h.intelligence";
+
+    private static final String SELECT_HERO_WITH_POWER_STATS = "SELECT " + HERO_COLUMNS +
+            " FROM hero h";
+
+    private static final String CREATE_HERO_WITH_POWER_STATS_QUERY = "WITH ps AS (" +
+            " INSERT INTO power_stats (strength, agility, dexterity, intelligence)" +
+            " VALUES (:strength, :agility, :dexterity, :intelligence)" +
+            " RETURNING id, strength, agility, dexterity, intelligence)" +
+            " INSERT INTO hero (name, race, power_stats_id, strength, agility, dexterity, intelligence)" +
+            " SELECT :name, CAST(:race AS hero_race), ps.id, ps.strength, ps.agility, ps.dexterity, ps.intelligence" +
+            " FROM ps" +
+            " RETURNING id";
+
+    /**
+     * Joins {@code power_stats} for its timestamps, so the ETag of a hero is the one the servlet build tags it with.
+     */
+    private static final String FIND_HERO_WITH_POWER_STATS_BY_ID_QUERY = "SELECT " + HERO_COLUMNS + "," +
+            " ps.created_at AS ps_created_at, ps.updated_at AS ps_updated_at" +
+            " FROM hero h" +
+            " LEFT JOIN power_stats ps ON ps.id = h.power_stats_id" +
+            " WHERE h.id = :id";
+
+    private static final String FIND_HERO_VERSION_BY_ID_QUERY = "SELECT h.updated_at, ps.updated_at AS ps_updated_at" +
+            " FROM hero h" +
+            " LEFT JOIN power_stats ps ON ps.id = h.power_stats_id" +
+            " WHERE h.id = :id";
+
+    private static final String FIND_HEROES_WITH_POWER_STATS_BY_NAME_QUERY = SELECT_HERO_WITH_POWER_STATS +
+            " WHERE h.name ilike :pattern" +
+            " ORDER BY similarity(h.name, :heroName) DESC, h.name" +
+            " LIMIT :limit";
+
+    private static final String FIND_FIRST_HEROES_PAGE_WITH_POWER_STATS_QUERY = SELECT_HERO_WITH_POWER_STATS +
+            " ORDER BY h.name, h.id" +
+            " LIMIT :limit";
+
+    private static final String FIND_HEROES_PAGE_WITH_POWER_STATS_QUERY = SELECT_HERO_WITH_POWER_STATS +
+            " WHERE (h.name, h.id) > (:afterName, :afterId)" +
+            " ORDER BY h.name, h.id" +
+            " LIMIT :limit";
+
+    private static final String FIND_FILTERED_HEROES_PAGE_WITH_POWER_STATS_QUERY = SELECT_HERO_WITH_POWER_STATS +
+            " WHERE %s" +
+            " ORDER BY h.name, h.id" +
+            " LIMIT :limit";
+
+    private static final String FILTER_BY_RACE = "h.race = CAST(:race AS hero_race)";
+
+    /**
+     * The hero column holding each score; the model only knows the scores themselves.
+     */
+    private static final Map<HeroRanking, String> RANKING_COLUMNS = new EnumMap<>(Map.of(
+            HeroRanking.TOTAL, "total_power",
+            HeroRanking.STRENGTH, "strength",
+            HeroRanking.AGILITY, "agility",
+            HeroRanking.DEXTERITY, "dexterity",
+            HeroRanking.INTELLIGENCE, "intelligence"));
+
+    private static final String FILTER_BY_STAT = "h.%1$s BETWEEN :%1$sMin AND :%1$sMax";
+
+    private static final String FILTER_AFTER = "(h.name, h.id) > (:afterName, :afterId)";
+
+    private static final String STREAM_ALL_HEROES_WITH_POWER_STATS_QUERY = SELECT_HERO_WITH_POWER_STATS +
+            " ORDER BY h.id";
+
+    private static final String STREAM_HEROES_WITH_POWER_STATS_AFTER_QUERY = SELECT_HERO_WITH_POWER_STATS +
+            " WHERE h.id > :after" +
+            " ORDER BY h.id";
+
+    /**
+     * Rows pulled per round-trip while streaming, through a portal rather than the whole result at once.
+     */
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * One grouping set per stat: in each row only the grouped stat column is not null.
+     */
+    private static final String RACE_HISTOGRAMS_QUERY = "SELECT race::text AS race, strength, agility, dexterity," +
+            " intelligence, count(*) AS heroes" +
+            " FROM hero" +
+            " GROUP BY GROUPING SETS ((race, strength), (race, agility), (race, dexterity), (race, intelligence))";
+
+    private static final String FIND_HEROES_WITH_POWER_STATS_BY_NAMES_QUERY = SELECT_HERO_WITH_POWER_STATS +
+            " WHERE lower(h.name) IN (:heroNames)";
+
+    private static final String FIND_TOP_HEROES_WITH_POWER_STATS_QUERY = SELECT_HERO_WITH_POWER_STATS +
+            " ORDER BY h.%s DESC, h.name" +
+            " LIMIT :limit";
+
+    /**
+     * Patches the hero and its power stats in one statement, members left null keeping their value. A table
+     * is only written when the patch changes one of its columns; otherwise its row is read as it is.
+     */
+    private static final String UPDATE_HERO_WITH_POWER_STATS_QUERY = "WITH cur AS (SELECT id, power_stats_id FROM hero WHERE id = :id)," +
+            " h AS (UPDATE hero SET name = COALESCE(:name, name), race = COALESCE(CAST(:race AS hero_race), race)," +
+            " enabled = COALESCE(:enabled, enabled), updated_at = now()" +
+            " WHERE id = :id AND (name, race, enabled) IS DISTINCT FROM" +
+            " (COALESCE(:name, name), COALESCE(CAST(:race AS hero_race), race), COALESCE(:enabled, enabled))" +
+            " RETURNING id, name, race, power_stats_id, enabled, created_at, updated_at)," +
+            " ps AS (UPDATE power_stats SET strength = COALESCE(:strength, strength), agility = COALESCE(:agility, agility)," +
+            " dexterity = COALESCE(:dexterity, dexterity), intelligence = COALESCE(:intelligence, intelligence), updated_at = now()" +
+            " WHERE id = (SELECT power_stats_id FROM cur) AND (strength, agility, dexterity, intelligence) IS DISTINCT FROM" +
+            " (COALESCE(:strength, strength), COALESCE(:agility, agility), COALESCE(:dexterity, dexterity), COALESCE(:intelligence, intelligence))" +
+            " RETURNING id, strength, agility, dexterity, intelligence)" +
+            " SELECT x.id, x.name, x.race::text AS race, x.power_stats_id, x.enabled, x.created_at, x.updated_at," +
+            " y.strength, y.agility, y.dexterity, y.intelligence" +
+            " FROM (SELECT * FROM h UNION ALL" +
+            " SELECT id, name, race, power_stats_id, enabled, created_at, updated_at FROM hero" +
+            " WHERE id = :id AND NOT EXISTS (SELECT 1 FROM h)) x" +
+            " JOIN (SELECT * FROM ps UNION ALL" +
+            " SELECT id, strength, agility, dexterity, intelligence FROM power_stats" +
+            " WHERE id = (SELECT power_stats_id FROM cur) AND NOT EXISTS (SELECT 1 FROM ps)) y" +
+            " ON y.id = x.power_stats_id";
+
+    private static final String DELETE_HERO_WITH_POWER_STATS_QUERY = "WITH h AS (" +
+            " DELETE FROM hero WHERE id = :id RETURNING power_stats_id)" +
+            " DELETE FROM power_stats" +
+            " WHERE id IN (SELECT power_stats_id FROM h)" +
+            " RETURNING id";
+
+    private static final HeroWithPowerStatsRowMapper HERO_WITH_POWER_STATS_ROW_MAPPER = new HeroWithPowerStatsRowMapper(false);
+    private static final HeroWithPowerStatsRowMapper JOINED_HERO_WITH_POWER_STATS_ROW_MAPPER = new HeroWithPowerStatsRowMapper(true);
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<UUID> createWithPowerStats(CreateHeroRequest createHeroRequest) {
+        return databaseClient.sql(CREATE_HERO_WITH_POWER_STATS_QUERY)
+                .bind("name", createHeroRequest.getName())
+                .bind("race", createHeroRequest.getRace().name())
+                .bind("strength", createHeroRequest.getStrength())
+                .bind("agility", createHeroRequest.getAgility())
+                .bind("dexterity", createHeroRequest.getDexterity())
+                .bind("intelligence", createHeroRequest.getIntelligence())
+                .map(row -> row.get("id", UUID.class))
+                .one();
+    }
+
+    @Override
+    public Mono<HeroWithPowerStats> findByIdWithPowerStats(UUID uuid) {
+        return databaseClient.sql(FIND_HERO_WITH_POWER_STATS_BY_ID_QUERY)
+                .bind("id", uuid)
+                .map(JOINED_HERO_WITH_POWER_STATS_ROW_MAPPER)
+                .one();
+    }
+
+    @Override
+    public Mono<HeroVersion> findVersionById(UUID uuid) {
+        return databaseClient.sql(FIND_HERO_VERSION_BY_ID_QUERY)
+                .bind("id", uuid)
+                .map(row -> new HeroVersion(row.get("updated_at", Instant.class), row.get("ps_updated_at", Instant.class)))
+                .one();
+    }
+
+    @Override
+    public Flux<HeroWithPowerStats> findManyByNameWithPowerStats(String heroName, int limit) {
+        return databaseClient.sql(FIND_HEROES_WITH_POWER_STATS_BY_NAME_QUERY)
+                .bind("pattern", "%" + escapeLike(heroName) + "%")
+                .bind("heroName", heroName)
+                .bind("limit", limit)
+                .map(HERO_WITH_POWER_STATS_ROW_MAPPER)
+                .all();
+    }
+
+    @Override
+    public Flux<HeroWithPowerStats> findPageWithPowerStats(HeroCursor after, int limit) {
+        if (after == null)
+            return databaseClient.sql(FIND_FIRST_HEROES_PAGE_WITH_POWER_STATS_QUERY)
+                    .bind("limit", limit)
+                    .map(HERO_WITH_POWER_STATS_ROW_MAPPER)
+                    .all();
+
+        return databaseClient.sql(FIND_HEROES_PAGE_WITH_POWER_STATS_QUERY)
+                .bind("afterName", after.getName())
+                .bind("afterId", after.getId())
+                .bind("limit", limit)
+                .map(HERO_WITH_POWER_STATS_ROW_MAPPER)
+                .all();
+    }
+
+    /**
+     * Race equality is served by the {@code (race, name, id)} index, which also yields the page order;
+     * stat ranges are combined by Postgres from the per-stat indexes with a bitmap AND.
+     */
+    @Override
+    public Flux<HeroWithPowerStats> findFilteredPageWithPowerStats(HeroFilter filter, HeroCursor after, int limit) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("limit", limit);
+
+        if (filter.getRace() != null) {
+            conditions.add(FILTER_BY_RACE);
+            params.put("race", filter.getRace().name());
+        }
+
+        filter.getRanges().forEach((stat, range) -> {
+            String column = RANKING_COLUMNS.get(stat);
+            conditions.add(format(FILTER_BY_STAT, column));
+            params.put(column + "Min", range.getMin());
+            params.put(column + "Max", range.getMax());
+        });
+
+        if (after != null) {
+            conditions.add(FILTER_AFTER);
+            params.put("afterName", after.getName());
+            params.put("afterId", after.getId());
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(format(FIND_FILTERED_HEROES_PAGE_WITH_POWER_STATS_QUERY,
+                conditions.isEmpty() ? "true" : String.join(" AND ", conditions)));
+        for (Map.Entry<String, Object> param : params.entrySet())
+            spec = spec.bind(param.getKey(), param.getValue());
+
+        return spec.map(HERO_WITH_POWER_STATS_ROW_MAPPER).all();
+    }
+
+    /**
+     * Emits every hero ordered by id, starting right after {@code after} when given, as fast as the
+     * subscriber requests them.
+     */
+    @Override
+    public Flux<HeroWithPowerStats> streamAllWithPowerStats(UUID after) {
+        DatabaseClient.GenericExecuteSpec spec = after == null
+                ? databaseClient.sql(STREAM_ALL_HEROES_WITH_POWER_STATS_QUERY)
+                : databaseClient.sql(STREAM_HEROES_WITH_POWER_STATS_AFTER_QUERY).bind("after", after);
+
+        return spec.filter(statement -> statement.fetchSize(STREAM_FETCH_SIZE))
+                .map(HERO_WITH_POWER_STATS_ROW_MAPPER)
+                .all();
+    }
+
+    @Override
+    public Flux<HeroWithPowerStats> findAllByNamesWithPowerStats(Collection<String> heroNames) {
+        if (heroNames.isEmpty())
+            return Flux.empty();
+
+        return databaseClient.sql(FIND_HEROES_WITH_POWER_STATS_BY_NAMES_QUERY)
+                .bind("heroNames", heroNames.stream()
+                        .map(heroName -> heroName.toLowerCase(Locale.ROOT))
+                        .collect(Collectors.toSet()))
+                .map(HERO_WITH_POWER_STATS_ROW_MAPPER)
+                .all();
+    }
+
+    @Override
+    public Flux<HeroWithPowerStats> findTopWithPowerStats(HeroRanking ranking, int limit) {
+        return databaseClient.sql(format(FIND_TOP_HEROES_WITH_POWER_STATS_QUERY, RANKING_COLUMNS.get(ranking)))
+                .bind("limit", limit)
+                .map(HERO_WITH_POWER_STATS_ROW_MAPPER)
+                .all();
+    }
+
+    /**
+     * Every race is reported, those without heroes with empty histograms.
+     */
+    @Override
+    public Flux<RaceHistogram> findRaceHistograms() {
+        return Mono.fromSupplier(HeroRepositoryR2dbcImpl::emptyHistograms)
+                .flatMapMany(histograms -> databaseClient.sql(RACE_HISTOGRAMS_QUERY)
+                        .map(row -> addTo(histograms, row))
+                        .all()
+                        .thenMany(Flux.fromIterable(histograms.values())));
+    }
+
+    @Override
+    public Mono<HeroWithPowerStats> updateWithPowerStats(UUID uuid, UpdateHeroRequest updateHeroRequest) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(UPDATE_HERO_WITH_POWER_STATS_QUERY)
+                .bind("id", uuid);
+
+        spec = bind(spec, "name", updateHeroRequest.getName(), String.class);
+        spec = bind(spec, "race", updateHeroRequest.getRace() == null ? null : updateHeroRequest.getRace().name(), String.class);
+        spec = bind(spec, "enabled", updateHeroRequest.getEnabled(), Boolean.class);
+        spec = bind(spec, "strength", updateHeroRequest.getStrength(), Integer.class);
+        spec = bind(spec, "agility", updateHeroRequest.getAgility(), Integer.class);
+        spec = bind(spec, "dexterity", updateHeroRequest.getDexterity(), Integer.class);
+        spec = bind(spec, "intelligence", updateHeroRequest.getIntelligence(), Integer.class);
+
+        return spec.map(HERO_WITH_POWER_STATS_ROW_MAPPER).one();
+    }
+
+    @Override
+    public Mono<UUID> deleteWithPowerStats(UUID uuid) {
+        return databaseClient.sql(DELETE_HERO_WITH_POWER_STATS_QUERY)
+                .bind("id", uuid)
+                .map(row -> row.get("id", UUID.class))
+                .one();
+    }
+
+    private static Map<Race, RaceHistogram> emptyHistograms() {
+        Map<Race, RaceHistogram> histograms = new EnumMap<>(Race.class);
+        for (Race race : Race.values())
+            histograms.put(race, new RaceHistogram(race));
+
+        return histograms;
+    }
+
+    private static Race addTo(Map<Race, RaceHistogram> histograms, Row row) {
+        RaceHistogram histogram = histograms.get(Race.valueOf(row.get("race", String.class)));
+        long heroes = row.get("heroes", Long.class);
+
+        for (HeroRanking stat : HeroFilter.STATS) {
+            Short value = row.get(RANKING_COLUMNS.get(stat), Short.class);
+            if (value != null)
+                histogram.add(stat, value, heroes);
+        }
+
+        return histogram.getRace();
+    }
+
+    /**
+     * R2DBC needs the type of a null parameter, so absent members are bound as typed nulls.
+     */
+    private static <T> DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, String name,
+                                                              T value, Class<T> type) {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+
+    /**
+     * Keeps the name literal inside a LIKE pattern, otherwise "%" or "_" in a search would act as wildcards.
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
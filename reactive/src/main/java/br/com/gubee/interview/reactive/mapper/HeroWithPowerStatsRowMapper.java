@@ -0,0 +1,59 @@
+package br.com.gubee.interview.reactive.mapper;
+
+import br.com.gubee.interview.model.Hero;
+import br.com.gubee.interview.model.HeroWithPowerStats;
+import br.com.gubee.interview.model.PowerStats;
+import br.com.gubee.interview.model.enums.Race;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+/**
+ * Maps a hero row along with the copy of its power stats inline in {@code hero}. The race is expected as
+ * text, since the driver has no codec for the {@code hero_race} enum. Queries joining {@code power_stats}
+ * also carry its timestamps, aliased as {@code ps_created_at} and {@code ps_updated_at}.
+ */
+public class HeroWithPowerStatsRowMapper implements BiFunction<Row, RowMetadata, HeroWithPowerStats> {
+
+    private final boolean joined;
+
+    public HeroWithPowerStatsRowMapper(boolean joined) {
+        this.joined = joined;
+    }
+
+    @Override
+    public HeroWithPowerStats apply(Row row, RowMetadata rowMetadata) {
+        Hero hero = Hero.builder()
+                .id(row.get("id", UUID.class))
+                .name(row.get("name", String.class))
+                .race(Race.valueOf(row.get("race", String.class)))
+                .powerStatsId(row.get("power_stats_id", UUID.class))
+                .enabled(Boolean.TRUE.equals(row.get("enabled", Boolean.class)))
+                .createdAt(row.get("created_at", Instant.class))
+                .updatedAt(row.get("updated_at", Instant.class))
+                .build();
+
+        PowerStats powerStats = PowerStats.builder()
+                .id(hero.getPowerStatsId())
+                .strength(stat(row, "strength"))
+                .agility(stat(row, "agility"))
+                .dexterity(stat(row, "dexterity"))
+                .intelligence(stat(row, "intelligence"))
+                .createdAt(joined ? row.get("ps_created_at", Instant.class) : null)
+                .updatedAt(joined ? row.get("ps_updated_at", Instant.class) : null)
+                .build();
+
+        return new HeroWithPowerStats(hero, powerStats);
+    }
+
+    /**
+     * Stats are SMALLINT, which the driver reads as {@link Short}.
+     */
+    private static int stat(Row row, String column) {
+        Short value = row.get(column, Short.class);
+        return value == null ? 0 : value;
+    }
+}
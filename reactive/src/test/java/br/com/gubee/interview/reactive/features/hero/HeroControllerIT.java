@@ -0,0 +1,261 @@
+package br.com.gubee.interview.reactive.features.hero;
+
+import br.com.gubee.interview.model.enums.Race;
+import br.com.gubee.interview.model.request.CompareHeroesRequest;
+import br.com.gubee.interview.model.request.CreateHeroRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("it")
+public class HeroControllerIT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    public void setUp() {
+        databaseClient.sql("DELETE FROM hero").then()
+                .then(databaseClient.sql("DELETE FROM power_stats").then())
+                .block();
+    }
+
+    @Test
+    public void getByIdDeveriaRetornarCodigo304EnquantoOHeroNaoMudar() {
+        // given
+        UUID id = create("Batman", Race.HUMAN, 6, 5, 8, 10);
+        String eTag = webTestClient.get().uri("/api/v1/heroes/{id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.power_stats.strength").isEqualTo(6)
+                .returnResult()
+                .getResponseHeaders().getETag();
+        assertNotNull(eTag);
+
+        // when / then
+        webTestClient.get().uri("/api/v1/heroes/{id}", id)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        webTestClient.patch().uri("/api/v1/heroes/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("strength", 9))
+                .exchange()
+                .expectStatus().isOk();
+
+        String changedETag = webTestClient.get().uri("/api/v1/heroes/{id}", id)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.power_stats.strength").isEqualTo(9)
+                .returnResult()
+                .getResponseHeaders().getETag();
+        assertNotEquals(eTag, changedETag);
+
+        webTestClient.get().uri("/api/v1/heroes/{id}", UUID.randomUUID())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void listDeveriaFiltrarPorRacaEFaixaDeAtributosPaginandoPorNome() {
+        // given
+        create("Superman", Race.ALIEN, 10, 8, 7, 8);
+        create("Martian Manhunter", Race.ALIEN, 9, 7, 7, 9);
+        create("Starfire", Race.ALIEN, 7, 8, 6, 5);
+        create("Brainiac", Race.ALIEN, 3, 4, 5, 10);
+        create("Batman", Race.HUMAN, 8, 7, 9, 10);
+
+        // when
+        HttpHeaders headers = webTestClient.get().uri("/api/v1/heroes?race=ALIEN&strengthMin=7&limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].name").isEqualTo("Martian Manhunter")
+                .jsonPath("$[1].name").isEqualTo("Starfire")
+                .returnResult()
+                .getResponseHeaders();
+
+        // then
+        String eTag = headers.getETag();
+        String link = headers.getFirst(HttpHeaders.LINK);
+        assertNotNull(eTag);
+        assertNotNull(link);
+
+        webTestClient.get().uri("/api/v1/heroes?race=ALIEN&strengthMin=7&limit=2")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        String next = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+        webTestClient.get().uri(next.substring(next.indexOf("/api/v1/heroes")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.LINK)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].name").isEqualTo("Superman");
+    }
+
+    @Test
+    public void exportDeveriaEmitirTodosOsHeroesOrdenadosPorIdEmNdjson() {
+        // given
+        List<UUID> ids = List.of(
+                create("Batman", Race.HUMAN, 8, 7, 9, 10),
+                create("Superman", Race.ALIEN, 10, 8, 7, 8),
+                create("Cyborg", Race.CYBORG, 8, 5, 6, 8));
+        List<String> sortedIds = ids.stream().map(UUID::toString).sorted().collect(Collectors.toList());
+
+        // when
+        String export = webTestClient.get().uri("/api/v1/heroes/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        String resumed = webTestClient.get().uri("/api/v1/heroes/export?after={after}", sortedIds.get(0))
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        // then
+        assertNotNull(export);
+        assertEquals(sortedIds, idsOf(export));
+        assertNotNull(resumed);
+        assertEquals(sortedIds.subList(1, 3), idsOf(resumed));
+    }
+
+    @Test
+    public void statsDeveriaRetornarOsHistogramasPorRacaEOPercentilDoHero() {
+        // given
+        UUID batman = create("Batman", Race.HUMAN, 8, 7, 9, 10);
+        create("Robin", Race.HUMAN, 4, 7, 7, 6);
+        create("Superman", Race.ALIEN, 10, 8, 7, 8);
+
+        // when / then
+        webTestClient.get().uri("/api/v1/heroes/stats")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.races.length()").isEqualTo(Race.values().length)
+                .jsonPath("$.races[?(@.race == 'HUMAN')].count").isEqualTo(2)
+                .jsonPath("$.races[?(@.race == 'HUMAN')].strength.mean").isEqualTo(6.0)
+                .jsonPath("$.races[?(@.race == 'DIVINE')].count").isEqualTo(0)
+                .jsonPath("$.hero").doesNotExist();
+
+        webTestClient.get().uri("/api/v1/heroes/stats?heroId={id}", batman)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.hero.id").isEqualTo(batman.toString())
+                .jsonPath("$.hero.race").isEqualTo("HUMAN");
+
+        webTestClient.get().uri("/api/v1/heroes/stats?heroId={id}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void compareAllDeveriaResponderCadaParDoLote() {
+        // given
+        create("Batman", Race.HUMAN, 8, 7, 9, 10);
+        create("Superman", Race.ALIEN, 10, 8, 7, 8);
+
+        List<CompareHeroesRequest> requests = List.of(
+                new CompareHeroesRequest("batman", "Superman"),
+                new CompareHeroesRequest("Batman", "Joker"),
+                new CompareHeroesRequest(" ", "Superman"));
+
+        // when / then
+        webTestClient.post().uri("/api/v1/heroes/compare/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(requests)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3)
+                .jsonPath("$[0].heroes.length()").isEqualTo(2)
+                .jsonPath("$[0].heroes[0].name").isEqualTo("Batman")
+                .jsonPath("$[1].errors[0]").isEqualTo("message.hero.not-found")
+                .jsonPath("$[2].errors[0]").isEqualTo("message.name.mandatory");
+    }
+
+    @Test
+    public void compareAllDeveriaRejeitarUmParNuloSemFalharOLote() {
+        // given
+        create("Batman", Race.HUMAN, 8, 7, 9, 10);
+        create("Superman", Race.ALIEN, 10, 8, 7, 8);
+
+        // when / then
+        webTestClient.post().uri("/api/v1/heroes/compare/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[{\"hero1_name\": \"Batman\", \"hero2_name\": \"Superman\"}, null]")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].heroes.length()").isEqualTo(2)
+                .jsonPath("$[1].index").isEqualTo(1)
+                .jsonPath("$[1].errors[0]").isEqualTo("message.name.mandatory");
+    }
+
+    private UUID create(String name, Race race, int strength, int agility, int dexterity, int intelligence) {
+        CreateHeroRequest request = CreateHeroRequest.builder()
+                .name(name)
+                .race(race)
+                .strength(strength)
+                .agility(agility)
+                .dexterity(dexterity)
+                .intelligence(intelligence)
+                .build();
+
+        String location = webTestClient.post().uri("/api/v1/heroes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .returnResult(Void.class)
+                .getResponseHeaders().getLocation().toString();
+
+        return UUID.fromString(location.substring(location.lastIndexOf('/') + 1));
+    }
+
+    private static List<String> idsOf(String ndjson) {
+        return Arrays.stream(ndjson.split("\n"))
+                .filter(line -> !line.isBlank())
+                .map(line -> line.substring(line.indexOf("\"id\":\"") + 6, line.indexOf("\"id\":\"") + 42))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,185 @@
+package br.com.gubee.interview.reactive.features.hero;
+
+import br.com.gubee.interview.model.Hero;
+import br.com.gubee.interview.model.HeroCursor;
+import br.com.gubee.interview.model.HeroPage;
+import br.com.gubee.interview.model.HeroWithPowerStats;
+import br.com.gubee.interview.model.PowerStats;
+import br.com.gubee.interview.model.enums.Race;
+import br.com.gubee.interview.model.request.CreateHeroRequest;
+import br.com.gubee.interview.model.request.UpdateHeroRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(HeroController.class)
+class HeroControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private HeroService heroService;
+
+    @Test
+    void createDeveriaRetornarCodigo201EHeaderComLocationDoHeroCriado() {
+        UUID heroId = UUID.randomUUID();
+        when(heroService.create(any())).thenReturn(Mono.just(heroId));
+
+        webTestClient.post().uri("/api/v1/heroes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(createHeroRequest())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals(HttpHeaders.LOCATION, "/api/v1/heroes/" + heroId);
+    }
+
+    @Test
+    void createDeveriaRetornarCodigo400SeFaltarPropriedadeNaRequesicao() {
+        webTestClient.post().uri("/api/v1/heroes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(CreateHeroRequest.builder().agility(5).dexterity(8).strength(6).intelligence(10).race(Race.HUMAN).build())
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(heroService, never()).create(any());
+    }
+
+    @Test
+    void getByIdDeveriaRetornarOHeroComSeusPowerStats() {
+        HeroWithPowerStats batman = getBatman();
+        when(heroService.findById(batman.getHero().getId())).thenReturn(Mono.just(batman));
+
+        webTestClient.get().uri("/api/v1/heroes/{id}", batman.getHero().getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Batman")
+                .jsonPath("$.power_stats.strength").isEqualTo(9);
+    }
+
+    @Test
+    void getByIdDeveriaRetornarCodigo404SeOHeroNaoExistir() {
+        when(heroService.findById(any())).thenReturn(Mono.empty());
+
+        webTestClient.get().uri("/api/v1/heroes/{id}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void listDeveriaRetornarHeaderLinkQuandoHouverProximaPagina() {
+        HeroWithPowerStats batman = getBatman();
+        HeroCursor next = HeroCursor.of(batman.getHero());
+        when(heroService.findPage(any(), isNull(), eq(1))).thenReturn(Mono.just(new HeroPage(List.of(batman), next)));
+
+        webTestClient.get().uri("/api/v1/heroes?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.LINK, link -> assertTrue(
+                        link.contains("after=" + next.encode()) && link.endsWith("rel=\"next\"")))
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("Batman");
+    }
+
+    @Test
+    void listDeveriaRetornarCodigo400SeOLimiteForInvalido() {
+        webTestClient.get().uri("/api/v1/heroes?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void findManyByNameDeveriaRetornarOsHeroesEncontrados() {
+        when(heroService.findManyByNameWithPowerStats("bat", HeroService.DEFAULT_SEARCH_LIMIT))
+                .thenReturn(Flux.just(getBatman()));
+
+        webTestClient.get().uri("/api/v1/heroes/search/bat")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].name").isEqualTo("Batman");
+    }
+
+    @Test
+    void updateDeveriaRetornarOHeroAtualizado() {
+        HeroWithPowerStats batman = getBatman();
+        UUID heroId = batman.getHero().getId();
+        when(heroService.update(eq(heroId), any(UpdateHeroRequest.class))).thenReturn(Mono.just(batman));
+
+        webTestClient.patch().uri("/api/v1/heroes/{id}", heroId)
+                .contentType(MediaType.valueOf("application/merge-patch+json"))
+                .bodyValue(Map.of("strength", 9))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.power_stats.strength").isEqualTo(9);
+    }
+
+    @Test
+    void updateDeveriaRetornarCodigo404SeOHeroNaoExistir() {
+        when(heroService.update(any(), any(UpdateHeroRequest.class))).thenReturn(Mono.empty());
+
+        webTestClient.patch().uri("/api/v1/heroes/{id}", UUID.randomUUID())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", "Robin"))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void deleteByIdDeveriaRetornarCodigo204QuandoOHeroForRemovido() {
+        when(heroService.deleteById(any())).thenReturn(Mono.just(true));
+
+        webTestClient.delete().uri("/api/v1/heroes/{id}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    @Test
+    void deleteByIdDeveriaRetornarCodigo404SeOHeroNaoExistir() {
+        when(heroService.deleteById(any())).thenReturn(Mono.just(false));
+
+        webTestClient.delete().uri("/api/v1/heroes/{id}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private HeroWithPowerStats getBatman() {
+        UUID powerStatsId = UUID.randomUUID();
+        return new HeroWithPowerStats(
+                new Hero(UUID.randomUUID(), "Batman", Race.HUMAN, powerStatsId, Instant.now(), Instant.now(), true),
+                new PowerStats(powerStatsId, 9, 9, 9, 9, Instant.now(), Instant.now()));
+    }
+
+    private CreateHeroRequest createHeroRequest() {
+        return CreateHeroRequest.builder()
+                .name("Batman")
+                .agility(5)
+                .dexterity(8)
+                .strength(6)
+                .intelligence(10)
+                .race(Race.HUMAN)
+                .build();
+    }
+}